@@ -0,0 +1,126 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Enrolls a student in several courses at once, either in every course or in none.
+ *
+ * <p>The courses are sorted by department code and course ID, and the
+ * {@link Department#getUpdateLock() update locks} of their departments are taken in that order,
+ * so two batches never wait for each other in a cycle and never undo each other's seats. A seat
+ * is then reserved in each course with {@link Course#enrollStudent()}, which applies the same
+ * capacity check as a single enrollment and therefore stays correct against single enrollments
+ * that take no lock. If a course is full, the seats already reserved are released again and the
+ * batch fails; releasing a seat may promote a student from the waitlist of its course, so the
+ * released courses are logged as well. Otherwise the new states of all the courses are logged as
+ * one record, so after a crash either all or none of the batch is replayed.
+ */
+public final class BatchEnrollment {
+
+  private BatchEnrollment(CourseLookup fullCourse, long sequence) {
+    this.fullCourse = fullCourse;
+    this.sequence = sequence;
+  }
+
+  /**
+   * Enrolls a student in every given course or in none of them.
+   *
+   * @param database the database the courses belong to, whose mutation log records the batch
+   * @param lookups  the resolved courses, which must all be found and must be distinct
+   * @return the result of the batch
+   * @throws IllegalArgumentException if a course is not found or is given twice
+   */
+  public static BatchEnrollment enroll(MyFileDatabase database, List<CourseLookup> lookups) {
+    List<CourseLookup> sorted = new ArrayList<>(lookups);
+    sorted.sort(ORDER);
+    List<Department> departments = new ArrayList<>();
+    CourseLookup previous = null;
+    for (CourseLookup lookup : sorted) {
+      if (!lookup.isFound()) {
+        throw new IllegalArgumentException("Course not found: " + describe(lookup));
+      }
+      if (previous != null && ORDER.compare(previous, lookup) == 0) {
+        throw new IllegalArgumentException("Course given twice: " + describe(lookup));
+      }
+      if (previous == null || !previous.getDeptCode().equals(lookup.getDeptCode())) {
+        departments.add(lookup.getDepartment());
+      }
+      previous = lookup;
+    }
+
+    int locked = 0;
+    try {
+      for (Department department : departments) {
+        department.getUpdateLock().lock();
+        locked++;
+      }
+      for (int reserved = 0; reserved < sorted.size(); reserved++) {
+        if (!sorted.get(reserved).getCourse().enrollStudent()) {
+          if (reserved == 0) {
+            return new BatchEnrollment(sorted.get(0), 0);
+          }
+          for (int i = reserved - 1; i >= 0; i--) {
+            sorted.get(i).getCourse().dropStudent();
+          }
+          return new BatchEnrollment(sorted.get(reserved),
+              database.logCourseBatch(sorted.subList(0, reserved)));
+        }
+      }
+      return new BatchEnrollment(null, database.logCourseBatch(sorted));
+    } finally {
+      for (int i = locked - 1; i >= 0; i--) {
+        departments.get(i).getUpdateLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Formats a course as its department code followed by its course ID.
+   *
+   * @param lookup the resolved course
+   * @return the description of the course
+   */
+  public static String describe(CourseLookup lookup) {
+    return lookup.getDeptCode() + " " + lookup.getCourseId();
+  }
+
+  /**
+   * Checks whether the student was enrolled in every course.
+   *
+   * @return true if every seat was reserved, false if none was
+   */
+  public boolean isEnrolled() {
+    return this.fullCourse == null;
+  }
+
+  /**
+   * Gets the course that was full and made the batch fail.
+   *
+   * @return the full course, or null if the batch succeeded
+   */
+  public CourseLookup getFullCourse() {
+    return this.fullCourse;
+  }
+
+  /**
+   * Gets the sequence number of the logged batch.
+   *
+   * @return the sequence number to pass to {@link MyFileDatabase#awaitDurable(long)}, or 0 if
+   *         nothing was logged
+   */
+  public long getSequence() {
+    return this.sequence;
+  }
+
+  /** The largest number of courses accepted in one batch. */
+  public static final int MAX_COURSES = 16;
+
+  private static final Comparator<CourseLookup> ORDER =
+      Comparator.comparing(CourseLookup::getDeptCode)
+          .thenComparing(lookup -> lookup.getCourseId() == null ? "" : lookup.getCourseId());
+
+  private final CourseLookup fullCourse;
+  private final long sequence;
+}
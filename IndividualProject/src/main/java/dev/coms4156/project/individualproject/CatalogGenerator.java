@@ -0,0 +1,192 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic catalogs of any size whose departments and courses look like the data
+ * created by {@link IndividualProjectApplication#resetDataFile()}: four-letter department
+ * codes, four-digit course codes, instructor names with an occasional middle initial, rooms in
+ * a handful of buildings, the usual lecture time slots and capacities from small seminars to
+ * large lectures that are mostly, and sometimes completely, filled.
+ *
+ * <p>Every department is derived from the seed and its own index alone, so the same seed always
+ * produces the same catalog and departments can be generated one at a time.
+ * {@link #writeSnapshot(Path, int, int)} relies on that to stream a catalog into a snapshot
+ * file while only one department is in memory.
+ */
+public class CatalogGenerator {
+
+  /** The seed used when none is given. */
+  public static final long DEFAULT_SEED = 4156;
+
+  /**
+   * Creates a generator.
+   *
+   * @param seed the seed of the generated values
+   */
+  public CatalogGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Gets the code of the department with the given index: four letters for the first 26^4
+   * departments and more after that.
+   *
+   * @param index the index of the department
+   * @return the department code
+   */
+  public static String deptCode(int index) {
+    StringBuilder code = new StringBuilder();
+    int rest = index;
+    do {
+      code.append((char) ('A' + rest % 26));
+      rest /= 26;
+    } while (rest > 0 || code.length() < DEPT_CODE_LENGTH);
+    return code.reverse().toString();
+  }
+
+  /**
+   * Generates the department with the given index.
+   *
+   * @param index       the index of the department
+   * @param courseCount the number of courses in the department
+   * @return the department
+   */
+  public Department generateDepartment(int index, int courseCount) {
+    SplittableRandom random = new SplittableRandom(mix(seed + mix(index)));
+    // Course codes rise in random steps, staying within 1000-4999 whenever they fit.
+    int stride = Math.max(1, COURSE_CODE_SPAN / Math.max(1, courseCount));
+    Map<String, Course> courses = new HashMap<>(SnapshotReader.capacityFor(courseCount));
+    for (int i = 0; i < courseCount; i++) {
+      int courseCode = FIRST_COURSE_CODE + i * stride + random.nextInt(stride);
+      courses.put(Integer.toString(courseCode), generateCourse(random));
+    }
+    String deptCode = deptCode(index);
+    return new Department(deptCode, courses, personName(random), 20 + random.nextInt(2980));
+  }
+
+  /**
+   * Streams a catalog of the given size into a snapshot file, generating each department just
+   * before it is written.
+   *
+   * @param path                 the path of the snapshot file
+   * @param departments          the number of departments
+   * @param coursesPerDepartment the number of courses in each department
+   * @return the number of bytes written
+   * @throws IOException if the snapshot cannot be written
+   */
+  public long writeSnapshot(Path path, int departments, int coursesPerDepartment)
+      throws IOException {
+    return SnapshotWriter.write(path, new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return next < departments;
+      }
+
+      @Override
+      public Map.Entry<String, Department> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Department department = generateDepartment(next++, coursesPerDepartment);
+        return new AbstractMap.SimpleImmutableEntry<>(department.getDeptCode(), department);
+      }
+
+      private int next;
+    });
+  }
+
+  private static Course generateCourse(SplittableRandom random) {
+    int capacity;
+    int size = random.nextInt(10);
+    if (size < 2) {
+      capacity = 12 + random.nextInt(24);
+    } else if (size < 8) {
+      capacity = 40 + random.nextInt(120);
+    } else {
+      capacity = 200 + random.nextInt(201);
+    }
+
+    Course course = new Course(personName(random), location(random), timeSlot(random), capacity);
+    if (random.nextInt(20) == 0) {
+      course.setEnrolledStudentCount(capacity);
+    } else {
+      course.setEnrolledStudentCount(capacity * (30 + random.nextInt(70)) / 100);
+    }
+    return course;
+  }
+
+  private static String personName(SplittableRandom random) {
+    String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    if (random.nextInt(4) == 0) {
+      return first + " " + (char) ('A' + random.nextInt(26)) + " " + last;
+    }
+    return first + " " + last;
+  }
+
+  private static String location(SplittableRandom random) {
+    int floor = 1 + random.nextInt(random.nextInt(10) == 0 ? 12 : 8);
+    int room = floor * 100 + random.nextInt(40);
+    return room + " " + BUILDINGS[random.nextInt(BUILDINGS.length)];
+  }
+
+  private static String timeSlot(SplittableRandom random) {
+    // The four standard lecture slots are used most often.
+    if (random.nextInt(4) != 0) {
+      return TIME_SLOTS[random.nextInt(4)];
+    }
+    return TIME_SLOTS[random.nextInt(TIME_SLOTS.length)];
+  }
+
+  /**
+   * Scrambles a value so that neighbouring seeds and indexes give unrelated random sequences.
+   */
+  private static long mix(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static final int DEPT_CODE_LENGTH = 4;
+  private static final int FIRST_COURSE_CODE = 1000;
+  private static final int COURSE_CODE_SPAN = 4000;
+
+  private static final String[] TIME_SLOTS = {
+      "11:40-12:55", "4:10-5:25", "10:10-11:25", "2:40-3:55", "1:10-2:25", "8:40-9:55",
+      "6:10-7:25", "1:10-3:40", "2:10-4:00", "7:00-9:30", "10:10-12:40", "4:10-6:40"
+  };
+
+  private static final String[] BUILDINGS = {
+      "IAB", "HAV", "URIS", "MUDD", "PUP", "SCH", "HAM", "FAY", "NWC", "MATH", "CHANDLER", "SSW"
+  };
+
+  private static final String[] FIRST_NAMES = {
+      "Adam", "Brian", "Jae", "Ansaf", "Josh", "Tony", "Daniel", "Gail", "Waseem", "Tamrat",
+      "Murat", "Miles", "Thomas", "Evan", "Matthieu", "Mark", "Uday", "Christopher", "Kaizheng",
+      "Yuri", "Michael", "Krzysztof", "Ruben", "Joseph", "Luis", "Talha", "Milan", "Jonathan",
+      "Dalibor", "Szabolcs", "Eric", "Kerstin", "Yury", "William", "Frederik", "James", "David",
+      "Kenneth", "Keren", "Irving", "Mohamed", "Alexei", "Christine", "Patricia", "Katherine",
+      "Jeffrey", "Mayron", "Mariam", "Trenton", "Jennifer", "Laura", "Nim", "Luca", "Ioannis"
+  };
+
+  private static final String[] LAST_NAMES = {
+      "Cannon", "Borowski", "Lee", "Salleb-Aouissi", "Alman", "Dear", "Rubenstein", "Kaiser",
+      "Noor", "Gashaw", "Yilmaz", "Leahey", "Piskula", "Sadler", "Gomez", "Dean", "Menon",
+      "Dolan", "Lacker", "Dieker", "Wang", "Faenza", "Robbins", "Choromanski", "Savizky",
+      "Ulichny", "Campos", "Eckdahl", "Siddiqui", "Delor", "Owen", "Sames", "Marka", "Raymer",
+      "Perez", "Levin", "Zajc", "Denef", "McIver", "Hill", "Vallancourt", "Shepard", "Bergman",
+      "Kalet", "Kamaludeen", "Ashikhmin", "Hendon", "Lindemann", "Baldassano", "Fox-Glassman",
+      "Cohen", "Piccolo", "Aly", "Jerde", "Blaze", "Kaufman", "Tottenham", "Carloni", "Kymissis"
+  };
+
+  private final long seed;
+}
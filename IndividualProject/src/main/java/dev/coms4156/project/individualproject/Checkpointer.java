@@ -0,0 +1,206 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Periodically saves the departments changed since the last checkpoint, so that the mutation
+ * log stays short without rewriting the whole snapshot.
+ *
+ * <p>Each checkpoint rotates the {@link MutationLog}, writes every department touched by the
+ * closed generations to its own segment file, and then deletes those generations. A segment is
+ * an ordinary one-department snapshot written to a temporary file and renamed into place, so
+ * the cost of a checkpoint depends on how many departments changed rather than on the size of
+ * the catalog. Request threads never wait for a checkpoint: departments are read without
+ * locking, and because every log record holds the full state of what it changed, replaying
+ * the newer generations over a segment always restores the latest state.
+ */
+public class Checkpointer implements Closeable {
+
+  /**
+   * Creates a checkpointer for the given log and department mapping.
+   *
+   * @param mutationLog the open mutation log of the database
+   * @param segmentDir  the directory to write segment files to
+   * @param mapping     supplies the current department mapping of the database
+   */
+  public Checkpointer(MutationLog mutationLog, Path segmentDir,
+                      Supplier<Map<String, Department>> mapping) {
+    this.mutationLog = mutationLog;
+    this.segmentDir = segmentDir;
+    this.mapping = mapping;
+  }
+
+  /**
+   * Starts running a checkpoint at a fixed interval on a background thread.
+   *
+   * @param intervalSeconds the number of seconds between checkpoints
+   */
+  public void start(long intervalSeconds) {
+    schedulerLock.lock();
+    try {
+      if (scheduler != null || intervalSeconds <= 0) {
+        return;
+      }
+      scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "checkpointer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.scheduleWithFixedDelay(this::runCheckpoint,
+          intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    } finally {
+      schedulerLock.unlock();
+    }
+  }
+
+  /**
+   * Saves every department changed since the last checkpoint to its segment file and deletes
+   * the log generations that are no longer needed.
+   *
+   * @return the number of departments written
+   * @throws IOException if a segment or log file cannot be written or deleted
+   */
+  public int checkpoint() throws IOException {
+    lock.lock();
+    try {
+      MutationLog.Rotation rotation = mutationLog.rotate();
+      Map<String, Department> departments = mapping.get();
+      int written = 0;
+      for (String deptCode : rotation.getDeptCodes()) {
+        Department department = departments.get(deptCode);
+        if (department != null) {
+          writeSegment(segmentDir, deptCode, department);
+          written++;
+        }
+      }
+      mutationLog.discard(rotation);
+      return written;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the whole mapping to the snapshot file and deletes every segment. A checkpoint is
+   * taken first so that no segment left behind by a crash is older than the log generations
+   * that remain.
+   *
+   * @param snapshotPath the path of the snapshot file
+   * @return the number of bytes in the snapshot
+   * @throws IOException if the snapshot cannot be written
+   */
+  public long saveAll(Path snapshotPath) throws IOException {
+    lock.lock();
+    try {
+      checkpoint();
+      long size = SnapshotWriter.write(snapshotPath, mapping.get());
+      deleteSegments(segmentDir);
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stops the background thread, waiting for a running checkpoint to finish.
+   */
+  @Override
+  public void close() {
+    schedulerLock.lock();
+    try {
+      if (scheduler == null) {
+        return;
+      }
+      scheduler.shutdown();
+      try {
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      scheduler = null;
+    } finally {
+      schedulerLock.unlock();
+    }
+  }
+
+  /**
+   * Reads every segment in the given directory and puts its department into the mapping,
+   * replacing the department loaded from the snapshot.
+   *
+   * @param segmentDir the directory containing the segment files
+   * @param mapping    the mapping to update
+   * @throws IOException if a segment cannot be read
+   */
+  public static void loadSegments(Path segmentDir, Map<String, Department> mapping)
+      throws IOException {
+    if (!Files.isDirectory(segmentDir)) {
+      return;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(segmentDir, "*" + SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        String deptCode = URLDecoder.decode(
+            name.substring(0, name.length() - SUFFIX.length()), StandardCharsets.UTF_8);
+        Department department = SnapshotReader.read(file).get(deptCode);
+        if (department != null) {
+          mapping.put(deptCode, department);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the given directory and every segment in it.
+   *
+   * @param segmentDir the directory containing the segment files
+   * @throws IOException if a segment cannot be deleted
+   */
+  public static void deleteSegments(Path segmentDir) throws IOException {
+    if (!Files.isDirectory(segmentDir)) {
+      return;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(segmentDir)) {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(segmentDir);
+  }
+
+  private static void writeSegment(Path segmentDir, String deptCode, Department department)
+      throws IOException {
+    Files.createDirectories(segmentDir);
+    String name = URLEncoder.encode(deptCode, StandardCharsets.UTF_8) + SUFFIX;
+    SnapshotWriter.write(segmentDir.resolve(name), Map.of(deptCode, department));
+  }
+
+  private void runCheckpoint() {
+    try {
+      checkpoint();
+    } catch (IOException | RuntimeException e) {
+      EventLog.log(EventLog.Event.CHECKPOINT_FAILED, e);
+    }
+  }
+
+  private static final String SUFFIX = ".snapshot";
+
+  private final MutationLog mutationLog;
+  private final Path segmentDir;
+  private final Supplier<Map<String, Department>> mapping;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ReentrantLock schedulerLock = new ReentrantLock();
+  private ScheduledExecutorService scheduler;
+}
@@ -1,14 +1,33 @@
 package dev.coms4156.project.individualproject;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a course within a department.
  * This class stores information about the course, including the instructor,
  * location, time slot, capacity, and the number of enrolled students.
+ *
+ * <p>The enrolled count is kept in a single atomic word together with a version that changes on
+ * every update of the course, and every update is a compare-and-set on that word. Concurrent
+ * enrollments therefore never push the count past the capacity and need no lock, and the
+ * version tells which of two concurrently logged states of the course is the newer one.
+ *
+ * <p>Students who find the course full can join its waitlist, which hands out tickets numbered
+ * from 1 and promotes them strictly in order: whenever a seat is freed, the oldest ticket gets
+ * it before any new enrollment can. Because tickets are only ever promoted from the front, the
+ * waitlist is just the number of the last ticket issued and of the last ticket promoted. While
+ * tickets are waiting, a flag is also set in the atomic word, so an enrollment that takes a
+ * seat with a compare-and-set can never take one while a ticket waits for it.
+ *
+ * <p>A seat can also be held for a student who has not confirmed yet. A held seat is counted in
+ * the atomic word like an enrolled one, so it is never sold twice, and is also counted
+ * separately until it is confirmed or released; the enrolled count is the difference. Held
+ * seats are never persisted. Changes to the waitlist and to held seats are made under a lock of
+ * the course, so they never contend with other courses, and enrollments and drops take no lock
+ * while nobody is waiting and no seat is held.
  */
-public class Course implements Serializable {
+public class Course {
 
   /**
    * Constructs a new Course object with the given parameters. Initial count starts at 0.
@@ -21,33 +40,33 @@ public class Course implements Serializable {
   public Course(String instructorName, String courseLocation, String timeSlot, int capacity) {
     if (instructorName == null || instructorName.trim().isEmpty()) {
       this.instructorName = "TBD";
-      System.out.println("Warning: Invalid instructor name. Default value TBD assigned.");
+      EventLog.log(EventLog.Event.INVALID_INSTRUCTOR);
     } else {
       this.instructorName = instructorName;
     }
 
     if (courseLocation == null || courseLocation.trim().isEmpty()) {
       this.courseLocation = "TBD";
-      System.out.println("Warning: Invalid location. Default value TBD assigned.");
+      EventLog.log(EventLog.Event.INVALID_LOCATION);
     } else {
       this.courseLocation = courseLocation;
     }
 
     if (timeSlot == null || timeSlot.trim().isEmpty()) {
       this.courseTimeSlot = "TBD";
-      System.out.println("Warning: Invalid time slot. Default value TBD assigned.");
+      EventLog.log(EventLog.Event.INVALID_TIME_SLOT);
     } else {
       this.courseTimeSlot = timeSlot;
     }
 
     if (capacity <= 0) {
       this.enrollmentCapacity = 10; // Assuming default capacity is 10
-      System.out.println("Warning: Invalid enrollment capacity. Default value 10 assigned.");
+      EventLog.log(EventLog.Event.INVALID_CAPACITY);
     } else {
       this.enrollmentCapacity = capacity;
     }
 
-    this.enrolledStudentCount = 0;
+    this.enrollmentState = new AtomicLong();
   }
 
   /**
@@ -56,24 +75,55 @@ public class Course implements Serializable {
    * @return true if the student is successfully enrolled, false otherwise.
    */
   public boolean enrollStudent() {
-    if (!isCourseFull()) {
-      enrolledStudentCount++;
-      return true;
+    FlightEvents.EnrollmentEvent event = new FlightEvents.EnrollmentEvent();
+    event.begin();
+    for (int retries = 0; ; retries++) {
+      long state = enrollmentState.get();
+      if (isWaiting(state)) {
+        // Waiters get any free seat first; only what is left over may be taken here.
+        promoteWaiters();
+        if (hasWaiters()) {
+          return commit(event, ENROLL, false, getEnrolledStudentCount(), retries);
+        }
+        continue;
+      }
+      int count = countOf(state);
+      if (count >= enrollmentCapacity) {
+        return commit(event, ENROLL, false, count, retries);
+      }
+      // Fails if a ticket was issued since the state was read, which sets the waiting flag.
+      if (enrollmentState.compareAndSet(state, advance(state, count + 1))) {
+        enrollmentChanged();
+        return commit(event, ENROLL, true, count + 1, retries);
+      }
     }
-    return false;
   }
 
   /**
-   * Drops a student from the course if a student is enrolled.
+   * Drops a student from the course if a student is enrolled, and gives the freed seat to the
+   * oldest ticket on the waitlist, if any.
    *
    * @return true if the student is successfully dropped, false otherwise.
    */
   public boolean dropStudent() {
-    if (enrolledStudentCount > 0) {
-      enrolledStudentCount--;
-      return true;
+    FlightEvents.EnrollmentEvent event = new FlightEvents.EnrollmentEvent();
+    event.begin();
+    for (int retries = 0; ; retries++) {
+      long state = enrollmentState.get();
+      // Read after the state: a seat being held is counted here before it is in the state.
+      if (heldSeats != 0) {
+        return commit(event, DROP, dropHoldingLock(), getEnrolledStudentCount(), retries);
+      }
+      int count = countOf(state);
+      if (count <= 0) {
+        return commit(event, DROP, false, count, retries);
+      }
+      if (enrollmentState.compareAndSet(state, advance(state, count - 1))) {
+        enrollmentChanged();
+        promoteWaiters();
+        return commit(event, DROP, true, count - 1, retries);
+      }
     }
-    return false;
   }
 
   public String getCourseLocation() {
@@ -92,8 +142,61 @@ public class Course implements Serializable {
     return this.enrollmentCapacity;
   }
 
+  /**
+   * Gets the number of students enrolled in the course, not counting held seats. While a seat
+   * is being held or released this may briefly count one student too few, never too many.
+   *
+   * @return the enrolled count
+   */
   public int getEnrolledStudentCount() {
-    return this.enrolledStudentCount;
+    int count = countOf(enrollmentState.get()) - heldSeats;
+    return Math.max(0, count);
+  }
+
+  public int getHeldSeatCount() {
+    return this.heldSeats;
+  }
+
+  /**
+   * Gets the number of taken seats and the version of the course in one atomic read. The
+   * number of taken seats, which includes held seats, is in the low 31 bits and can be extracted
+   * with {@link #countOf(long)}; the version is in the high 32 bits and can be extracted with
+   * {@link #versionOf(long)}. The bit in between is set while tickets are on the waitlist.
+   *
+   * @return the packed enrollment state of the course
+   */
+  public long getEnrollmentState() {
+    return enrollmentState.get();
+  }
+
+  /**
+   * Gets the version of the course, which increases on every change of its enrolled count,
+   * waitlist, instructor, location or time slot.
+   *
+   * @return the version of the course
+   */
+  public long getVersion() {
+    return Integer.toUnsignedLong(versionOf(enrollmentState.get()));
+  }
+
+  /**
+   * Extracts the number of taken seats from a value returned by {@link #getEnrollmentState()}.
+   *
+   * @param state the packed enrollment state
+   * @return the number of enrolled students and held seats
+   */
+  public static int countOf(long state) {
+    return (int) (state & COUNT_MASK);
+  }
+
+  /**
+   * Extracts the version from a value returned by {@link #getEnrollmentState()}.
+   *
+   * @param state the packed enrollment state
+   * @return the version, which wraps around after 2^32 updates
+   */
+  public static int versionOf(long state) {
+    return (int) (state >>> 32);
   }
 
   public String toString() {
@@ -112,6 +215,8 @@ public class Course implements Serializable {
       return;
     }
     this.instructorName = newInstructorName;
+    advanceVersion();
+    detailsChanged();
   }
 
   /**
@@ -125,6 +230,8 @@ public class Course implements Serializable {
       return;
     }
     this.courseLocation = newLocation;
+    advanceVersion();
+    detailsChanged();
   }
 
   /**
@@ -138,11 +245,13 @@ public class Course implements Serializable {
       return;
     }
     this.courseTimeSlot = newTime;
+    advanceVersion();
+    detailsChanged();
   }
 
   /**
-   * Sets the number of enrolled students for the course.
-   * If the provided count is negative, the assignment is not made.
+   * Sets the number of enrolled students for the course, and promotes tickets from the waitlist
+   * into any seats this frees. If the provided count is negative, the assignment is not made.
    *
    * @param count the new enrollment count for the course
    */
@@ -150,18 +259,389 @@ public class Course implements Serializable {
     if (count < 0) {
       return;
     }
-    this.enrolledStudentCount = count;
+    seatLock.lock();
+    try {
+      long state;
+      do {
+        state = enrollmentState.get();
+      } while (!enrollmentState.compareAndSet(state, advance(state, count + heldSeats)));
+    } finally {
+      seatLock.unlock();
+    }
+    enrollmentChanged();
+    promoteWaiters();
+  }
+
+  /**
+   * Sets the enrolled count and the version to the values of a logged state of the course,
+   * used when the mutation log is replayed.
+   *
+   * @param count   the logged enrollment count
+   * @param version the logged version
+   */
+  public void restoreEnrollment(int count, int version) {
+    seatLock.lock();
+    try {
+      enrollmentState.set(pack(version, count + heldSeats) | (hasWaiters() ? WAITING : 0));
+    } finally {
+      seatLock.unlock();
+    }
+    enrollmentChanged();
+  }
+
+  /**
+   * Restores the waitlist to a logged state of the course, used when the mutation log or a
+   * snapshot is read. No tickets are promoted.
+   *
+   * @param head the number of the last ticket promoted
+   * @param tail the number of the last ticket issued
+   */
+  public void restoreWaitlist(int head, int tail) {
+    seatLock.lock();
+    try {
+      this.waitlistHead = head;
+      this.waitlistTail = tail;
+      long state;
+      do {
+        state = enrollmentState.get();
+      } while (!enrollmentState.compareAndSet(state,
+          (state & ~WAITING) | (hasWaiters() ? WAITING : 0)));
+    } finally {
+      seatLock.unlock();
+    }
+  }
+
+  /**
+   * Enrolls a student right away if a seat is free and nobody is waiting, or otherwise issues
+   * the student the next ticket on the waitlist.
+   *
+   * @return the number of the ticket, or 0 if the student was enrolled right away
+   */
+  public int joinWaitlist() {
+    int ticket = 0;
+    seatLock.lock();
+    try {
+      if (hasWaiters() || !reserveSeat()) {
+        ticket = waitlistTail + 1;
+        waitlistTail = ticket;
+        // From here on, drops promote the ticket and enrollments leave the seat to it.
+        long state;
+        do {
+          state = enrollmentState.get();
+        } while (!enrollmentState.compareAndSet(state,
+            advance(state, countOf(state)) | WAITING));
+        // A seat freed after the check above found nobody to promote, so it is still free.
+        promoteWaiters();
+      }
+    } finally {
+      seatLock.unlock();
+    }
+    enrollmentChanged();
+    return ticket;
+  }
+
+  /**
+   * Gets the position of a ticket on the waitlist.
+   *
+   * @param ticket the number of the ticket
+   * @return the position of the ticket, starting at 1 for the next one to be promoted, 0 if the
+   *         ticket has already been promoted, or -1 if no such ticket has been issued
+   */
+  public int getWaitlistPosition(int ticket) {
+    if (ticket <= 0 || ticket > waitlistTail) {
+      return -1;
+    }
+    return Math.max(0, ticket - waitlistHead);
+  }
+
+  /**
+   * Gets the number of tickets waiting for a seat.
+   *
+   * @return the length of the waitlist
+   */
+  public int getWaitlistLength() {
+    return waitlistTail - waitlistHead;
+  }
+
+  /**
+   * Holds a free seat for a student who has yet to confirm. Seats are not held while students
+   * are on the waitlist.
+   *
+   * @return true if a seat is now held, false if the course is full
+   */
+  public boolean holdSeat() {
+    if (hasWaiters()) {
+      promoteWaiters();
+    }
+    seatLock.lock();
+    try {
+      if (hasWaiters()) {
+        return false;
+      }
+      // Counted as held before the seat is taken, so a drop never mistakes it for a student.
+      heldSeats++;
+      if (!reserveSeat()) {
+        heldSeats--;
+        return false;
+      }
+    } finally {
+      seatLock.unlock();
+    }
+    enrollmentChanged();
+    return true;
+  }
+
+  /**
+   * Turns a held seat into an enrolled student. Must only be called once for each successful
+   * call to {@link #holdSeat()} and not after releasing the seat.
+   */
+  public void confirmHeldSeat() {
+    seatLock.lock();
+    try {
+      heldSeats--;
+      advanceVersion();
+    } finally {
+      seatLock.unlock();
+    }
+    enrollmentChanged();
+  }
+
+  /**
+   * Frees a held seat and gives it to the oldest ticket on the waitlist, if any. Must only be
+   * called once for each successful call to {@link #holdSeat()} and not after confirming it.
+   *
+   * @return true if the seat went to a ticket on the waitlist, which changes the enrolled count
+   */
+  public boolean releaseHeldSeat() {
+    seatLock.lock();
+    try {
+      long state;
+      do {
+        state = enrollmentState.get();
+      } while (!enrollmentState.compareAndSet(state, advance(state, countOf(state) - 1)));
+      // Counted as held until the seat is free, for the same reason as in holdSeat().
+      heldSeats--;
+      enrollmentChanged();
+      return promoteWaiters() > 0;
+    } finally {
+      seatLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the enrolled count, version and waitlist of the course as one consistent copy, for
+   * writing them to the mutation log or a snapshot.
+   *
+   * @return the state of the course
+   */
+  public State getState() {
+    seatLock.lock();
+    try {
+      return new State(enrollmentState.get(), heldSeats, waitlistHead, waitlistTail);
+    } finally {
+      seatLock.unlock();
+    }
   }
 
   public boolean isCourseFull() {
-    return enrollmentCapacity <= enrolledStudentCount;
+    return enrollmentCapacity <= countOf(enrollmentState.get());
+  }
+
+  /**
+   * Records the department the course belongs to, which is told whenever the course changes.
+   * Called by {@link Department#addCourse}.
+   *
+   * @param department the department offering the course
+   */
+  void setDepartment(Department department) {
+    this.department = department;
+  }
+
+  private void detailsChanged() {
+    Department owner = department;
+    if (owner != null) {
+      owner.courseChanged();
+    }
+  }
+
+  private void enrollmentChanged() {
+    Department owner = department;
+    if (owner != null) {
+      owner.enrollmentChanged();
+    }
   }
 
-  @Serial
-  private static final long serialVersionUID = 123456L;
+  private boolean hasWaiters() {
+    return waitlistHead != waitlistTail;
+  }
+
+  /**
+   * Drops a student while seats are held, which is done under the lock so the held count
+   * cannot change.
+   *
+   * @return whether a student was dropped
+   */
+  private boolean dropHoldingLock() {
+    seatLock.lock();
+    try {
+      while (true) {
+        long state = enrollmentState.get();
+        int count = countOf(state);
+        if (count - heldSeats <= 0) {
+          return false;
+        }
+        if (enrollmentState.compareAndSet(state, advance(state, count - 1))) {
+          break;
+        }
+      }
+      enrollmentChanged();
+      promoteWaiters();
+      return true;
+    } finally {
+      seatLock.unlock();
+    }
+  }
+
+  /**
+   * Gives free seats to the tickets on the waitlist, oldest first, until either runs out.
+   *
+   * @return the number of tickets promoted
+   */
+  private int promoteWaiters() {
+    if (!hasWaiters()) {
+      return 0;
+    }
+    int promoted = 0;
+    seatLock.lock();
+    try {
+      while (hasWaiters() && reserveSeat()) {
+        waitlistHead++;
+        promoted++;
+      }
+      if (!hasWaiters()) {
+        long state;
+        do {
+          state = enrollmentState.get();
+        } while (isWaiting(state) && !enrollmentState.compareAndSet(state, state & ~WAITING));
+      }
+    } finally {
+      seatLock.unlock();
+    }
+    if (promoted > 0) {
+      enrollmentChanged();
+    }
+    return promoted;
+  }
+
+  /**
+   * Takes a free seat for a promoted ticket or a hold. Must be called while holding the seat
+   * lock.
+   *
+   * @return whether a seat was free
+   */
+  private boolean reserveSeat() {
+    while (true) {
+      long state = enrollmentState.get();
+      int count = countOf(state);
+      if (count >= enrollmentCapacity) {
+        return false;
+      }
+      if (enrollmentState.compareAndSet(state, advance(state, count + 1))) {
+        return true;
+      }
+    }
+  }
+
+  private boolean commit(FlightEvents.EnrollmentEvent event, String operation, boolean succeeded,
+                         int enrolled, int retries) {
+    event.end();
+    if (event.shouldCommit()) {
+      Department owner = department;
+      event.department = owner == null ? null : owner.getDeptCode();
+      event.operation = operation;
+      event.succeeded = succeeded;
+      event.enrolled = enrolled;
+      event.capacity = enrollmentCapacity;
+      event.retries = retries;
+      event.commit();
+    }
+    return succeeded;
+  }
+
+  private void advanceVersion() {
+    long state;
+    do {
+      state = enrollmentState.get();
+    } while (!enrollmentState.compareAndSet(state, advance(state, countOf(state))));
+  }
+
+  private static long pack(int version, int count) {
+    return ((long) version << 32) | (count & COUNT_MASK);
+  }
+
+  /**
+   * Builds the state that follows a state with the given count, keeping its waiting flag.
+   */
+  private static long advance(long state, int count) {
+    return pack(versionOf(state) + 1, count) | (state & WAITING);
+  }
+
+  private static boolean isWaiting(long state) {
+    return (state & WAITING) != 0;
+  }
+
+  /**
+   * A consistent copy of the enrolled count, version and waitlist of a course. Held seats are
+   * not part of it.
+   */
+  public static final class State {
+
+    State(long enrollmentState, int heldSeats, int waitlistHead, int waitlistTail) {
+      this.enrollmentState = enrollmentState;
+      this.heldSeats = heldSeats;
+      this.waitlistHead = waitlistHead;
+      this.waitlistTail = waitlistTail;
+    }
+
+    public int getEnrolledCount() {
+      return countOf(this.enrollmentState) - this.heldSeats;
+    }
+
+    public int getVersion() {
+      return versionOf(this.enrollmentState);
+    }
+
+    public int getWaitlistHead() {
+      return this.waitlistHead;
+    }
+
+    public int getWaitlistTail() {
+      return this.waitlistTail;
+    }
+
+    private final long enrollmentState;
+    private final int heldSeats;
+    private final int waitlistHead;
+    private final int waitlistTail;
+  }
+
+  /** The bits of the state holding the number of taken seats. */
+  private static final long COUNT_MASK = 0x7FFFFFFFL;
+
+  /** The bit of the state that is set while tickets are on the waitlist. */
+  private static final long WAITING = 0x80000000L;
+
+  private static final String ENROLL = "enroll";
+  private static final String DROP = "drop";
+
   private final int enrollmentCapacity;
-  private int enrolledStudentCount;
-  private String courseLocation;
-  private String instructorName;
-  private String courseTimeSlot;
+  private final AtomicLong enrollmentState;
+  private final ReentrantLock seatLock = new ReentrantLock();
+  private volatile int heldSeats;
+  private volatile int waitlistHead;
+  private volatile int waitlistTail;
+  private volatile String courseLocation;
+  private volatile String instructorName;
+  private volatile String courseTimeSlot;
+  private volatile Department department;
 }
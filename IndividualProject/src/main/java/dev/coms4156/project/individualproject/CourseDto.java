@@ -0,0 +1,89 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+
+/**
+ * The JSON form of a course: a consistent copy of its details taken when the response is
+ * created, written as
+ * <pre>{"deptCode":"COMS","courseId":"4156","instructorName":"Gail Kaiser",
+ * "courseLocation":"501 NWC","courseTimeSlot":"10:10-11:25","enrollmentCapacity":120,
+ * "enrolledStudentCount":109}</pre>
+ */
+public final class CourseDto implements JsonBody {
+
+  private CourseDto(String deptCode, String courseId, String instructorName,
+                    String courseLocation, String courseTimeSlot, int enrollmentCapacity,
+                    int enrolledStudentCount) {
+    this.deptCode = deptCode;
+    this.courseId = courseId;
+    this.instructorName = instructorName;
+    this.courseLocation = courseLocation;
+    this.courseTimeSlot = courseTimeSlot;
+    this.enrollmentCapacity = enrollmentCapacity;
+    this.enrolledStudentCount = enrolledStudentCount;
+  }
+
+  /**
+   * Copies the details of a course.
+   *
+   * @param deptCode the code of the department offering the course
+   * @param courseId the ID of the course within the department
+   * @param course   the course
+   * @return the JSON form of the course
+   */
+  public static CourseDto of(String deptCode, String courseId, Course course) {
+    return new CourseDto(deptCode, courseId, course.getInstructorName(),
+        course.getCourseLocation(), course.getCourseTimeSlot(), course.getEnrollmentCapacity(),
+        course.getEnrolledStudentCount());
+  }
+
+  @Override
+  public void writeTo(JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("deptCode", deptCode);
+    generator.writeStringField("courseId", courseId);
+    generator.writeStringField("instructorName", instructorName);
+    generator.writeStringField("courseLocation", courseLocation);
+    generator.writeStringField("courseTimeSlot", courseTimeSlot);
+    generator.writeNumberField("enrollmentCapacity", enrollmentCapacity);
+    generator.writeNumberField("enrolledStudentCount", enrolledStudentCount);
+    generator.writeEndObject();
+  }
+
+  public String getDeptCode() {
+    return this.deptCode;
+  }
+
+  public String getCourseId() {
+    return this.courseId;
+  }
+
+  public String getInstructorName() {
+    return this.instructorName;
+  }
+
+  public String getCourseLocation() {
+    return this.courseLocation;
+  }
+
+  public String getCourseTimeSlot() {
+    return this.courseTimeSlot;
+  }
+
+  public int getEnrollmentCapacity() {
+    return this.enrollmentCapacity;
+  }
+
+  public int getEnrolledStudentCount() {
+    return this.enrolledStudentCount;
+  }
+
+  private final String deptCode;
+  private final String courseId;
+  private final String instructorName;
+  private final String courseLocation;
+  private final String courseTimeSlot;
+  private final int enrollmentCapacity;
+  private final int enrolledStudentCount;
+}
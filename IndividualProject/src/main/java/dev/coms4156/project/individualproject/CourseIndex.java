@@ -0,0 +1,52 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * An inverted index from course ID to every department offering a course with that ID, so that
+ * courses can be found across departments with a single lookup. Departments added to the index
+ * report every course added to them afterwards through {@link Department#addCourse}.
+ */
+public class CourseIndex {
+
+  /**
+   * Adds every course of a department to the index and keeps the index up to date as courses
+   * are added to the department.
+   *
+   * @param department the department to index
+   */
+  public void addDepartment(Department department) {
+    department.setCourseIndex(this);
+  }
+
+  /**
+   * Records that a department offers a course with the given ID, replacing any course the
+   * department offered under that ID before.
+   *
+   * @param deptCode the code of the department
+   * @param courseId the ID of the course within the department
+   * @param course   the course
+   */
+  public void addCourse(String deptCode, String courseId, Course course) {
+    coursesById.computeIfAbsent(courseId, id -> new ConcurrentSkipListMap<>())
+        .put(deptCode, course);
+  }
+
+  /**
+   * Finds every course with the given ID.
+   *
+   * @param courseId the ID of the course
+   * @return a read-only map of department codes, in order, to the course each department
+   *         offers with that ID; empty if no department offers it
+   */
+  public Map<String, Course> findCourses(String courseId) {
+    Map<String, Course> courses = coursesById.get(courseId);
+    return courses == null ? Collections.emptyMap() : Collections.unmodifiableMap(courses);
+  }
+
+  private final ConcurrentHashMap<String, ConcurrentSkipListMap<String, Course>> coursesById =
+      new ConcurrentHashMap<>();
+}
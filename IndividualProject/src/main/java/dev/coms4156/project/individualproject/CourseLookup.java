@@ -0,0 +1,173 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.Locale;
+
+/**
+ * The result of resolving a department code and course code to a course. Every endpoint that
+ * works on a course resolves it once through {@link #resolve(MyFileDatabase, String, int)} and
+ * then uses the department, course and normalized codes held by the result.
+ */
+public final class CourseLookup {
+
+  /**
+   * The outcome of resolving a course.
+   */
+  public enum Outcome {
+    /** The department and the course were found. */
+    FOUND,
+    /** No department has the requested code. */
+    DEPARTMENT_NOT_FOUND,
+    /** The department exists but has no course with the requested code. */
+    COURSE_NOT_FOUND
+  }
+
+  private CourseLookup(Outcome outcome, String deptCode, String courseId, Department department,
+                       Course course) {
+    this.outcome = outcome;
+    this.deptCode = deptCode;
+    this.courseId = courseId;
+    this.department = department;
+    this.course = course;
+  }
+
+  /**
+   * Resolves a course in the given database.
+   *
+   * @param database   the database to look the course up in
+   * @param deptCode   the department code as requested, in any case
+   * @param courseCode the course code as requested
+   * @return the result of the lookup
+   * @throws NullPointerException if {@code deptCode} is null
+   */
+  public static CourseLookup resolve(MyFileDatabase database, String deptCode, int courseCode) {
+    FlightEvents.LookupEvent event = new FlightEvents.LookupEvent();
+    event.begin();
+    String normalizedCode = normalizeDeptCode(deptCode);
+    String courseId = courseId(courseCode);
+    Department department = database.getDepartment(normalizedCode);
+    if (department == null) {
+      return commit(event,
+          new CourseLookup(Outcome.DEPARTMENT_NOT_FOUND, normalizedCode, courseId, null, null));
+    }
+    Course course = department.getCourseSelection().get(courseId);
+    if (course == null) {
+      return commit(event, new CourseLookup(Outcome.COURSE_NOT_FOUND, normalizedCode, courseId,
+          department, null));
+    }
+    return commit(event,
+        new CourseLookup(Outcome.FOUND, normalizedCode, courseId, department, course));
+  }
+
+  /**
+   * Resolves a course written as a key: the department code and the course code separated by a
+   * colon, such as {@code COMS:4156}.
+   *
+   * @param database the database to look the course up in
+   * @param key      the key of the course
+   * @return the result of the lookup, or null if the key is malformed
+   */
+  public static CourseLookup resolve(MyFileDatabase database, String key) {
+    int separator = key.indexOf(KEY_SEPARATOR);
+    if (separator <= 0) {
+      return null;
+    }
+    int courseCode;
+    try {
+      courseCode = Integer.parseInt(key.substring(separator + 1).trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return resolve(database, key.substring(0, separator).trim(), courseCode);
+  }
+
+  /**
+   * Converts a requested department code to the form used as a key in the database. No new
+   * string is created if the code is already in upper case.
+   *
+   * @param deptCode the department code as requested
+   * @return the department code in upper case
+   * @throws NullPointerException if {@code deptCode} is null
+   */
+  public static String normalizeDeptCode(String deptCode) {
+    return deptCode.toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * Converts a course code to the course ID used as a key within a department. IDs of the
+   * four-digit codes used by the catalog are created once and shared.
+   *
+   * @param courseCode the course code
+   * @return the course ID
+   */
+  public static String courseId(int courseCode) {
+    if (courseCode < 0 || courseCode >= COURSE_ID_CACHE_SIZE) {
+      return Integer.toString(courseCode);
+    }
+    String courseId = COURSE_IDS[courseCode];
+    if (courseId == null) {
+      courseId = Integer.toString(courseCode);
+      COURSE_IDS[courseCode] = courseId;
+    }
+    return courseId;
+  }
+
+  private static CourseLookup commit(FlightEvents.LookupEvent event, CourseLookup lookup) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.department = lookup.deptCode;
+      event.course = lookup.courseId;
+      event.outcome = lookup.outcome.name();
+      event.commit();
+    }
+    return lookup;
+  }
+
+  /**
+   * Gets the key of the resolved course in normalized form, which is equal for all the keys that
+   * resolve to the same course.
+   *
+   * @return the department code and course ID separated by a colon
+   */
+  public String getKey() {
+    return this.deptCode + KEY_SEPARATOR + this.courseId;
+  }
+
+  public Outcome getOutcome() {
+    return this.outcome;
+  }
+
+  public boolean isFound() {
+    return this.outcome == Outcome.FOUND;
+  }
+
+  public String getDeptCode() {
+    return this.deptCode;
+  }
+
+  public String getCourseId() {
+    return this.courseId;
+  }
+
+  public Department getDepartment() {
+    return this.department;
+  }
+
+  public Course getCourse() {
+    return this.course;
+  }
+
+  private static final char KEY_SEPARATOR = ':';
+  private static final int COURSE_ID_CACHE_SIZE = 10000;
+
+  /**
+   * Shared course IDs. Entries are filled in lazily; a racing thread at worst creates an equal
+   * string, which is harmless because strings are immutable.
+   */
+  private static final String[] COURSE_IDS = new String[COURSE_ID_CACHE_SIZE];
+
+  private final Outcome outcome;
+  private final String deptCode;
+  private final String courseId;
+  private final Department department;
+  private final Course course;
+}
@@ -0,0 +1,169 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bulk read of selected attributes of many courses, written as one JSON response.
+ *
+ * <p>Every key is resolved exactly once when the query is created, and keys that name the same
+ * course are merged, so invalid keys are reported before anything is written. The attributes
+ * are read while the response is written, which streams the courses one by one to the client.
+ * The response has the form
+ * <pre>{"courses":[{"key":"COMS:4156","status":"FOUND","location":"501 NWC",...},...]}</pre>
+ * where the status is the {@link CourseLookup.Outcome} of the key, and only courses that were
+ * found have attributes.
+ */
+public final class CourseQuery implements JsonBody {
+
+  /**
+   * The attributes of a course that can be selected.
+   */
+  public enum Field {
+    INSTRUCTOR("instructor"),
+    LOCATION("location"),
+    TIME("time"),
+    CAPACITY("capacity"),
+    ENROLLED("enrolled"),
+    FULL("full");
+
+    Field(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets the field with the given name.
+     *
+     * @param name the name of the field, in any case
+     * @return the field, or null if no field has the name
+     */
+    public static Field ofName(String name) {
+      String lowerCase = name.trim().toLowerCase(Locale.ROOT);
+      for (Field field : values()) {
+        if (field.name.equals(lowerCase)) {
+          return field;
+        }
+      }
+      return null;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    private final String name;
+  }
+
+  private CourseQuery(List<CourseLookup> lookups, Set<Field> fields) {
+    this.lookups = lookups;
+    this.fields = fields;
+  }
+
+  /**
+   * Resolves the keys of a bulk read.
+   *
+   * @param database the database to look the courses up in
+   * @param keys     the keys of the courses, each written as the department code and the course
+   *                 code separated by a colon
+   * @param fields   the names of the attributes to return, or an empty list for all of them
+   * @return the query, ready to be written
+   * @throws IllegalArgumentException if there are no keys or too many, or if a key or a field
+   *                                  is malformed
+   */
+  public static CourseQuery resolve(MyFileDatabase database, List<String> keys,
+                                    List<String> fields) {
+    if (keys.isEmpty() || keys.size() > MAX_KEYS) {
+      throw new IllegalArgumentException("Between 1 and " + MAX_KEYS
+          + " courses must be given.");
+    }
+    Set<Field> selected = EnumSet.noneOf(Field.class);
+    for (String name : fields) {
+      Field field = Field.ofName(name);
+      if (field == null) {
+        throw new IllegalArgumentException("Invalid field: " + name);
+      }
+      selected.add(field);
+    }
+    if (selected.isEmpty()) {
+      selected = EnumSet.allOf(Field.class);
+    }
+
+    Map<String, CourseLookup> lookups = new LinkedHashMap<>();
+    for (String key : keys) {
+      CourseLookup lookup = CourseLookup.resolve(database, key);
+      if (lookup == null) {
+        throw new IllegalArgumentException("Invalid course: " + key);
+      }
+      lookups.putIfAbsent(lookup.getKey(), lookup);
+    }
+    return new CourseQuery(new ArrayList<>(lookups.values()), selected);
+  }
+
+  /**
+   * Gets the number of distinct courses in the query.
+   *
+   * @return the number of courses
+   */
+  public int size() {
+    return lookups.size();
+  }
+
+  @Override
+  public void writeTo(JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    generator.writeArrayFieldStart("courses");
+    for (CourseLookup lookup : lookups) {
+      generator.writeStartObject();
+      generator.writeStringField("key", lookup.getKey());
+      generator.writeStringField("status", lookup.getOutcome().name());
+      if (lookup.isFound()) {
+        writeFields(generator, lookup.getCourse());
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  private void writeFields(JsonGenerator generator, Course course) throws IOException {
+    // Read once, so the count and fullness agree with each other; held seats make a course
+    // full but are not enrolled students.
+    int taken = Course.countOf(course.getEnrollmentState());
+    int enrolled = Math.max(0, taken - course.getHeldSeatCount());
+    for (Field field : fields) {
+      switch (field) {
+        case INSTRUCTOR:
+          generator.writeStringField(field.name, course.getInstructorName());
+          break;
+        case LOCATION:
+          generator.writeStringField(field.name, course.getCourseLocation());
+          break;
+        case TIME:
+          generator.writeStringField(field.name, course.getCourseTimeSlot());
+          break;
+        case CAPACITY:
+          generator.writeNumberField(field.name, course.getEnrollmentCapacity());
+          break;
+        case ENROLLED:
+          generator.writeNumberField(field.name, enrolled);
+          break;
+        default:
+          generator.writeBooleanField(field.name, taken >= course.getEnrollmentCapacity());
+          break;
+      }
+    }
+  }
+
+  /** The largest number of keys accepted in one query. */
+  public static final int MAX_KEYS = 1000;
+
+  private final List<CourseLookup> lookups;
+  private final Set<Field> fields;
+}
@@ -0,0 +1,251 @@
+package dev.coms4156.project.individualproject;
+
+import jakarta.annotation.PreDestroy;
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies changes to the enrollment of courses on a few event-loop threads instead of on the
+ * request threads, so that a course everybody is trying to enroll in at once has a single
+ * writer rather than every request thread retrying its compare-and-set.
+ *
+ * <p>Every course is pinned to one loop by its key, and each loop owns a ring buffer of
+ * {@link #RING_SIZE} preallocated slots in the style of a disruptor. A request thread claims the
+ * next sequence number of the ring, waiting while the ring is full, stores its change in the
+ * slot of that number and publishes it by writing the number into the slot. The loop takes the
+ * changes out of their slots in sequence order, which frees each slot for the next lap, runs
+ * them and hands each result back to the thread that submitted it. Request threads spin briefly
+ * and then park while they wait, so a request on a virtual thread unmounts from its carrier.
+ *
+ * <p>A course stays safe to change from other threads, such as a batch enrollment or an
+ * expiring hold, and readers such as {@link Course#isCourseFull()} keep reading its published
+ * state without going through the sequencer. With no loops, the sequencer is disabled and
+ * applies every change on the calling thread.
+ */
+@Component
+public class CourseSequencer implements Closeable {
+
+  /**
+   * Creates the sequencer with the configured number of loops.
+   *
+   * @param threads the number of event-loop threads, or 0 to apply changes on the calling
+   *                thread
+   */
+  @Autowired
+  public CourseSequencer(@Value("${individualproject.course-sequencer-threads:0}") int threads) {
+    if (threads < 0) {
+      throw new IllegalArgumentException("The number of threads must not be negative.");
+    }
+    this.loops = new Loop[threads];
+    for (int i = 0; i < threads; i++) {
+      loops[i] = new Loop("course-sequencer-" + i);
+    }
+  }
+
+  /**
+   * Checks whether changes are applied on event-loop threads.
+   *
+   * @return true if the sequencer has loops, false if it applies changes on the calling thread
+   */
+  public boolean isEnabled() {
+    return loops.length > 0;
+  }
+
+  /**
+   * Applies a change to a course on the loop the course is pinned to, and waits for its result.
+   *
+   * @param lookup the resolved course, which must be found
+   * @param change the change to apply, which must be short and must not wait for other courses
+   * @param <T>    the type of the result of the change
+   * @return the result of the change
+   * @throws IllegalStateException if the sequencer is closed
+   */
+  public <T> T apply(CourseLookup lookup, Function<Course, T> change) {
+    if (loops.length == 0) {
+      return change.apply(lookup.getCourse());
+    }
+    Loop loop = loops[Math.floorMod(lookup.getKey().hashCode(), loops.length)];
+    Task<T> task = new Task<>(lookup.getCourse(), change);
+    loop.publish(task);
+    return task.await();
+  }
+
+  /**
+   * Stops the loops once they have applied every change already submitted. Changes submitted
+   * afterwards are rejected.
+   */
+  @PreDestroy
+  @Override
+  public void close() {
+    for (Loop loop : loops) {
+      loop.close();
+    }
+  }
+
+  /**
+   * A change waiting to be applied, through which its result is handed back.
+   */
+  private static final class Task<T> {
+
+    Task(Course course, Function<Course, T> change) {
+      this.course = course;
+      this.change = change;
+      this.waiter = Thread.currentThread();
+    }
+
+    /**
+     * Applies the change. Called on the thread of the loop.
+     */
+    void run() {
+      try {
+        result = change.apply(course);
+      } catch (RuntimeException | Error e) {
+        failure = e;
+      }
+      done = true;
+      LockSupport.unpark(waiter);
+    }
+
+    T await() {
+      for (int spins = 0; !done; spins++) {
+        if (spins < SPIN_LIMIT) {
+          Thread.onSpinWait();
+        } else {
+          LockSupport.park(this);
+        }
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure != null) {
+        throw (Error) failure;
+      }
+      return result;
+    }
+
+    private final Course course;
+    private final Function<Course, T> change;
+    private final Thread waiter;
+    // Written before done, so reading done first makes them visible.
+    private T result;
+    private Throwable failure;
+    private volatile boolean done;
+  }
+
+  /**
+   * A slot of a ring, which holds the task published under a sequence number.
+   */
+  private static final class Slot {
+
+    private Task<?> task;
+    private volatile long sequence = -1;
+  }
+
+  /**
+   * An event-loop thread and the ring it takes its tasks from.
+   */
+  private static final class Loop {
+
+    Loop(String name) {
+      this.slots = new Slot[RING_SIZE];
+      for (int i = 0; i < RING_SIZE; i++) {
+        slots[i] = new Slot();
+      }
+      this.thread = new Thread(this::run, name);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+
+    /**
+     * Claims the next sequence number, waits until its slot is free and publishes a task in it.
+     */
+    void publish(Task<?> task) {
+      long sequence;
+      do {
+        sequence = claimed.get();
+        if (sequence < 0) {
+          throw new IllegalStateException("The course sequencer is closed.");
+        }
+      } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+      for (int spins = 0; sequence - RING_SIZE > applied; spins++) {
+        // The ring is full: wait for the loop to apply the task published a lap ago.
+        if (spins < SPIN_LIMIT) {
+          Thread.onSpinWait();
+        } else {
+          LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+        }
+      }
+      Slot slot = slots[(int) sequence & (RING_SIZE - 1)];
+      slot.task = task;
+      slot.sequence = sequence;
+      if (sleeping) {
+        LockSupport.unpark(thread);
+      }
+    }
+
+    /**
+     * Stops claiming sequence numbers, leaving the loop to finish the ones already claimed.
+     */
+    void close() {
+      long sequence;
+      do {
+        sequence = claimed.get();
+      } while (sequence >= 0 && !claimed.compareAndSet(sequence, CLOSED | sequence));
+      LockSupport.unpark(thread);
+    }
+
+    private void run() {
+      long next = 0;
+      int spins = 0;
+      while (true) {
+        Slot slot = slots[(int) next & (RING_SIZE - 1)];
+        if (slot.sequence == next) {
+          Task<?> task = slot.task;
+          slot.task = null;
+          applied = next;
+          next++;
+          spins = 0;
+          task.run();
+          continue;
+        }
+        if (claimed.get() == (CLOSED | next)) {
+          return;
+        }
+        if (spins++ < SPIN_LIMIT) {
+          Thread.onSpinWait();
+          continue;
+        }
+        // Check again after announcing the sleep, so a task published meanwhile is not missed.
+        sleeping = true;
+        if (slot.sequence != next && claimed.get() != (CLOSED | next)) {
+          LockSupport.park(this);
+        }
+        sleeping = false;
+      }
+    }
+
+    private final Slot[] slots;
+    private final Thread thread;
+    // The next sequence number to claim, with the sign bit set once the loop is closed.
+    private final AtomicLong claimed = new AtomicLong();
+    // The last sequence number taken out of its slot, whose slot may be published into again.
+    private volatile long applied = -1;
+    private volatile boolean sleeping;
+  }
+
+  /** The number of slots in the ring of each loop, which is a power of two. */
+  public static final int RING_SIZE = 1024;
+
+  private static final int SPIN_LIMIT = 100;
+
+  private static final long FULL_RING_PARK_NANOS = 1_000;
+
+  private static final long CLOSED = Long.MIN_VALUE;
+
+  private final Loop[] loops;
+}
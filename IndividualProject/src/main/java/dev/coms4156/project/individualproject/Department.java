@@ -1,64 +1,92 @@
 package dev.coms4156.project.individualproject;
 
-import java.io.Serial;
-import java.io.Serializable;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a department within an educational institution.
  * This class stores information about the department, including its code,
  * courses offered, department chair, and number of majors.
+ *
+ * <p>Courses are held in a concurrent map, so request threads can look up courses while others
+ * add them. The map is only exposed through a read-only view. The department also keeps two
+ * versions: one that increases on every change of the department or of one of its courses,
+ * which clients can use to tell whether anything changed since they last read it, and one that
+ * changes only when its rendered text might, which is when a course is added or the
+ * instructor, location or time slot of one of its courses changes.
+ *
+ * <p>The number of majors is a {@link StripedCounter}, so many students can declare or drop the
+ * major at once without contending and without ever taking the count below zero. Its changes,
+ * and the enrollments and drops of the department's courses, are counted in {@link LongAdder}s
+ * that are added to the version when it is read, so that they do not all increment one shared
+ * version either, even when they are made in different courses.
  */
-public class Department implements Serializable {
+public class Department {
 
   /**
    * Constructs a new Department object with the given parameters.
    *
    * @param deptCode        The code of the department.
-   * @param courses         A HashMap containing courses offered by the department.
+   * @param courses         A map containing courses offered by the department, which is copied.
    * @param departmentChair The name of the department chair.
    * @param numberOfMajors  The number of majors in the department.
    */
-  public Department(String deptCode, HashMap<String, Course> courses, String departmentChair,
+  public Department(String deptCode, Map<String, Course> courses, String departmentChair,
                     int numberOfMajors) {
     if (deptCode == null || deptCode.trim().isEmpty()) {
       this.deptCode = "TBD";
-      System.out.println("Warning: Invalid department code. Default value TBD assigned.");
+      EventLog.log(EventLog.Event.INVALID_DEPT_CODE);
     } else {
       this.deptCode = deptCode;
     }
 
     if (courses == null) {
-      this.courses = new HashMap<>();
-      System.out.println("Warning: Courses map is null. Empty map assigned.");
+      this.courses = new ConcurrentHashMap<>();
+      EventLog.log(EventLog.Event.NULL_COURSES);
     } else {
-      this.courses = courses;
+      this.courses = new ConcurrentHashMap<>(SnapshotReader.capacityFor(courses.size()));
+      for (Map.Entry<String, Course> entry : courses.entrySet()) {
+        addCourse(entry.getKey(), entry.getValue());
+      }
     }
+    this.courseView = Collections.unmodifiableMap(this.courses);
 
     if (departmentChair == null || departmentChair.trim().isEmpty()) {
       this.departmentChair = "TBD";
-      System.out.println("Warning: Invalid department chair name. Default value TBD assigned.");
+      EventLog.log(EventLog.Event.INVALID_CHAIR);
     } else {
       this.departmentChair = departmentChair;
     }
 
     if (numberOfMajors < 0) {
-      this.numberOfMajors = 0;
-      System.out.println("Warning: Invalid number of majors. Default value 0 assigned.");
+      this.majors = new StripedCounter(0);
+      EventLog.log(EventLog.Event.INVALID_MAJORS);
     } else {
-      this.numberOfMajors = numberOfMajors;
+      this.majors = new StripedCounter(numberOfMajors);
     }
   }
 
+  /**
+   * Gets the code of the department.
+   *
+   * @return The department code.
+   */
+  public String getDeptCode() {
+    return this.deptCode;
+  }
+
   /**
    * Gets the number of majors in the department.
    *
    * @return The number of majors.
    */
   public int getNumberOfMajors() {
-    return this.numberOfMajors;
+    return (int) majors.sum();
   }
 
   /**
@@ -73,28 +101,105 @@ public class Department implements Serializable {
   /**
    * Gets the courses offered by the department.
    *
-   * @return A HashMap containing courses offered by the department.
+   * @return A read-only view of the courses offered by the department.
+   */
+  public Map<String, Course> getCourseSelection() {
+    return this.courseView;
+  }
+
+  /**
+   * Gets the lock that serializes batch enrollments in the courses of the department with each
+   * other. Changes to the number of majors are logged in order under {@link DepartmentLocks}.
+   * It is a {@link ReentrantLock} rather than the monitor of the department, so that a request
+   * running on a virtual thread unmounts from its carrier while it waits for the lock.
+   *
+   * @return The update lock of the department.
+   */
+  public Lock getUpdateLock() {
+    return this.updateLock;
+  }
+
+  /**
+   * Gets the version of the department, which increases whenever its number of majors changes,
+   * a course is added to it, or one of its courses is reassigned or enrolls or drops a student.
+   *
+   * @return The version of the department.
+   */
+  public long getVersion() {
+    // All only ever grow, and a change of the majors or of an enrollment is counted after the
+    // change itself, so a version read before a body is never newer than the body.
+    return version.get() + majorChanges.sum() + enrollmentChanges.sum();
+  }
+
+  /**
+   * Gets the version of the rendered text of the department, which changes whenever a course is
+   * added to it or one of its courses is reassigned.
+   *
+   * @return The version of the department's details.
+   */
+  public long getDetailsVersion() {
+    return detailsVersion.get();
+  }
+
+  /**
+   * Records that the details of one of the department's courses changed.
+   */
+  void courseChanged() {
+    detailsVersion.incrementAndGet();
+    version.incrementAndGet();
+  }
+
+  /**
+   * Records that the enrolled count of one of the department's courses changed.
+   */
+  void enrollmentChanged() {
+    enrollmentChanges.increment();
+  }
+
+  /**
+   * Adds every course of the department to the given index, and reports courses added later
+   * to it as well. A department reports to one index at a time.
+   *
+   * @param index the index to keep up to date
    */
-  public HashMap<String, Course> getCourseSelection() {
-    return this.courses;
+  public void setCourseIndex(CourseIndex index) {
+    this.courseIndex = index;
+    for (Map.Entry<String, Course> entry : courses.entrySet()) {
+      index.addCourse(deptCode, entry.getKey(), entry.getValue());
+    }
   }
 
   /**
    * Increases the number of majors in the department by one.
    */
   public void addPersonToMajor() {
-    numberOfMajors++;
+    majors.increment();
+    majorChanges.increment();
   }
 
   /**
    * Decreases the number of majors in the department by one if it's greater than zero.
    */
   public void dropPersonFromMajor() {
-    if (numberOfMajors > 0) {
-      numberOfMajors--;
+    if (majors.tryDecrement()) {
+      majorChanges.increment();
     }
   }
 
+  /**
+   * Sets the number of majors in the department.
+   * If the provided count is negative, the assignment is not made.
+   *
+   * @param count the new number of majors for the department
+   */
+  public void setNumberOfMajors(int count) {
+    if (count < 0) {
+      return;
+    }
+    majors.set(count);
+    version.incrementAndGet();
+  }
+
   /**
    * Adds a new course to the department's course selection.
    *
@@ -109,7 +214,14 @@ public class Department implements Serializable {
       return;
     }
 
+    course.setDepartment(this);
     courses.put(courseId, course);
+    detailsVersion.incrementAndGet();
+    version.incrementAndGet();
+    CourseIndex index = courseIndex;
+    if (index != null) {
+      index.addCourse(deptCode, courseId, course);
+    }
   }
 
   /**
@@ -145,7 +257,7 @@ public class Department implements Serializable {
       Course newCourse = new Course(instructorName, courseLocation, courseTimeSlot, capacity);
       addCourse(courseId, newCourse);
     } else {
-      System.out.println("Invalid course. Course not created nor added.");
+      EventLog.log(EventLog.Event.INVALID_COURSE);
     }
   }
 
@@ -165,10 +277,15 @@ public class Department implements Serializable {
     return result.toString();
   }
 
-  @Serial
-  private static final long serialVersionUID = 234567L;
-  private HashMap<String, Course> courses;
-  private String departmentChair;
-  private String deptCode;
-  private int numberOfMajors;
+  private final ConcurrentHashMap<String, Course> courses;
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicLong detailsVersion = new AtomicLong();
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private final Map<String, Course> courseView;
+  private final String departmentChair;
+  private final String deptCode;
+  private final StripedCounter majors;
+  private final LongAdder majorChanges = new LongAdder();
+  private final LongAdder enrollmentChanges = new LongAdder();
+  private volatile CourseIndex courseIndex;
 }
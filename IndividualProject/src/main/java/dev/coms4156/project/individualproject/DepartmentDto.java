@@ -0,0 +1,79 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON form of a department: a copy of its details and of each of its courses, sorted by
+ * course ID, written as
+ * <pre>{"deptCode":"COMS","departmentChair":"Luca Carloni","numberOfMajors":2700,
+ * "courses":[...]}</pre>
+ * where each course has the form written by {@link CourseDto}.
+ */
+public final class DepartmentDto implements JsonBody {
+
+  private DepartmentDto(String deptCode, String departmentChair, int numberOfMajors,
+                        List<CourseDto> courses) {
+    this.deptCode = deptCode;
+    this.departmentChair = departmentChair;
+    this.numberOfMajors = numberOfMajors;
+    this.courses = courses;
+  }
+
+  /**
+   * Copies the details of a department and its courses.
+   *
+   * @param department the department
+   * @return the JSON form of the department
+   */
+  public static DepartmentDto of(Department department) {
+    String deptCode = department.getDeptCode();
+    List<CourseDto> courses = new ArrayList<>(department.getCourseSelection().size());
+    for (Map.Entry<String, Course> entry : department.getCourseSelection().entrySet()) {
+      courses.add(CourseDto.of(deptCode, entry.getKey(), entry.getValue()));
+    }
+    courses.sort(Comparator.comparing(CourseDto::getCourseId));
+    return new DepartmentDto(deptCode, department.getDepartmentChair(),
+        department.getNumberOfMajors(), Collections.unmodifiableList(courses));
+  }
+
+  @Override
+  public void writeTo(JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("deptCode", deptCode);
+    generator.writeStringField("departmentChair", departmentChair);
+    generator.writeNumberField("numberOfMajors", numberOfMajors);
+    generator.writeArrayFieldStart("courses");
+    for (CourseDto course : courses) {
+      course.writeTo(generator);
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  public String getDeptCode() {
+    return this.deptCode;
+  }
+
+  public String getDepartmentChair() {
+    return this.departmentChair;
+  }
+
+  public int getNumberOfMajors() {
+    return this.numberOfMajors;
+  }
+
+  public List<CourseDto> getCourses() {
+    return this.courses;
+  }
+
+  private final String deptCode;
+  private final String departmentChair;
+  private final int numberOfMajors;
+  private final List<CourseDto> courses;
+}
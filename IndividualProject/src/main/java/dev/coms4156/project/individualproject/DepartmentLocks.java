@@ -0,0 +1,97 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes changes to the details of departments and their courses with reads that need
+ * several of those details to agree, such as rendering a department.
+ *
+ * <p>Departments are spread by their code over {@link #STRIPES} {@link StampedLock}s, so changes
+ * to different departments rarely wait for each other, while changes to the same department
+ * happen one at a time and can be logged in the order they were made. Reads first run without
+ * taking the lock and only check afterwards that no change was made meanwhile; only if one was
+ * are they run again under the read lock. A read therefore costs two volatile reads of the lock
+ * unless it races with a change.
+ *
+ * <p>Enrollments take no stripe, because the enrolled count of a course is changed together
+ * with its version in one atomic word, and neither do changes to the number of majors, which is
+ * a {@link StripedCounter}, or reads of a single field, which is always volatile. Changes to
+ * the number of majors are only logged under the write lock, so they are logged in order.
+ */
+@Component
+public class DepartmentLocks {
+
+  /**
+   * Creates the locks.
+   */
+  public DepartmentLocks() {
+    this.stripes = new StampedLock[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new StampedLock();
+    }
+  }
+
+  /**
+   * Runs a read of the details of a department or of its courses so that it sees no change
+   * made halfway. The read may run more than once and may see a change in progress on its first
+   * run, so it must have no side effects and must not fail on inconsistent details.
+   *
+   * @param deptCode the code of the department, in upper case
+   * @param reader   the read to run
+   * @param <T>      the type of the result of the read
+   * @return the result of a run of the read that saw no change in progress
+   */
+  public <T> T read(String deptCode, Supplier<T> reader) {
+    StampedLock lock = stripeFor(deptCode);
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        T result = reader.get();
+        if (lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return reader.get();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Runs a change to the details of a department or of its courses while no other change to
+   * the department and no locked read of it runs.
+   *
+   * @param deptCode the code of the department, in upper case
+   * @param writer   the change to run, which should also log it
+   * @param <T>      the type of the result of the change
+   * @return the result of the change
+   */
+  public <T> T write(String deptCode, Supplier<T> writer) {
+    StampedLock lock = stripeFor(deptCode);
+    long stamp = lock.writeLock();
+    try {
+      return writer.get();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private StampedLock stripeFor(String deptCode) {
+    int hash = deptCode.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+  }
+
+  /** The number of locks the departments are spread over, which is a power of two. */
+  public static final int STRIPES = 64;
+
+  private final StampedLock[] stripes;
+}
@@ -0,0 +1,139 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Starts, downloads and stops a Java Flight Recorder recording of the running service, so that
+ * latency spikes can be correlated with garbage collection and lock contention without
+ * attaching a profiler. Like those of the {@link RouteController}, the messages it responds with
+ * are sent as JSON strings to clients that ask for JSON, by the {@link JsonMessageAdvice}.
+ */
+@RestController
+public class DiagnosticsController {
+
+  /**
+   * Creates the controller.
+   *
+   * @param recording the recording to control
+   */
+  public DiagnosticsController(FlightRecording recording) {
+    this.recording = recording;
+  }
+
+  /**
+   * Starts a recording that keeps only its most recent data.
+   *
+   * @param maxAgeSeconds    A {@code long} representing how many seconds of data to keep, at
+   *                         most one hour.
+   *
+   * @param maxSizeMegabytes A {@code long} representing how many megabytes of data to keep, at
+   *                         most 256.
+   *
+   * @return                 A {@code ResponseEntity} object containing an HTTP 200 response if
+   *                         the recording was started, an HTTP 409 response if one is already
+   *                         running, or an HTTP 400 response if a bound is out of range.
+   */
+  @PostMapping(value = "/diagnostics/recording",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> startRecording(
+      @RequestParam(value = "maxAgeSeconds", defaultValue = "300") long maxAgeSeconds,
+      @RequestParam(value = "maxSizeMegabytes", defaultValue = "64") long maxSizeMegabytes) {
+    if (maxAgeSeconds <= 0 || maxAgeSeconds > MAX_AGE_SECONDS
+        || maxSizeMegabytes <= 0 || maxSizeMegabytes > MAX_SIZE_MEGABYTES) {
+      return new ResponseEntity<>("The age must be between 1 and " + MAX_AGE_SECONDS
+          + " seconds and the size between 1 and " + MAX_SIZE_MEGABYTES + " megabytes.",
+          HttpStatus.BAD_REQUEST);
+    }
+    try {
+      if (recording.start(Duration.ofSeconds(maxAgeSeconds), maxSizeMegabytes * MEGABYTE)) {
+        return new ResponseEntity<>("Recording started.", HttpStatus.OK);
+      }
+      return new ResponseEntity<>("A recording is already running.", HttpStatus.CONFLICT);
+    } catch (IOException | ParseException | RuntimeException e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Downloads the data of the running recording, which keeps running.
+   *
+   * @return A {@code ResponseEntity} object containing an HTTP 200 response with the recording
+   *         as a JFR file, or an HTTP 404 response if no recording is running.
+   */
+  @GetMapping(value = "/diagnostics/recording")
+  public ResponseEntity<?> dumpRecording() {
+    Path file;
+    try {
+      file = recording.dump();
+    } catch (IOException | RuntimeException e) {
+      return handleException(e);
+    }
+    if (file == null) {
+      return new ResponseEntity<>(NO_RECORDING, HttpStatus.NOT_FOUND);
+    }
+    try {
+      long size = Files.size(file);
+      // The file is deleted once the response has been written and the stream is closed.
+      InputStream in = Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .contentLength(size)
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recording.jfr\"")
+          .body(new InputStreamResource(in));
+    } catch (IOException e) {
+      deleteQuietly(file);
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Stops and discards the running recording.
+   *
+   * @return A {@code ResponseEntity} object containing an HTTP 200 response if the recording
+   *         was stopped, or an HTTP 404 response if no recording is running.
+   */
+  @DeleteMapping(value = "/diagnostics/recording",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> stopRecording() {
+    if (recording.stop()) {
+      return new ResponseEntity<>("Recording stopped.", HttpStatus.OK);
+    }
+    return new ResponseEntity<>(NO_RECORDING, HttpStatus.NOT_FOUND);
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      file.toFile().deleteOnExit();
+    }
+  }
+
+  private ResponseEntity<?> handleException(Exception e) {
+    EventLog.log(EventLog.Event.RECORDING_FAILED, e);
+    return new ResponseEntity<>("An Error has occurred", HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  private static final String NO_RECORDING = "No recording is running.";
+  private static final long MAX_AGE_SECONDS = 3600;
+  private static final long MAX_SIZE_MEGABYTES = 256;
+  private static final long MEGABYTE = 1024 * 1024;
+
+  private final FlightRecording recording;
+}
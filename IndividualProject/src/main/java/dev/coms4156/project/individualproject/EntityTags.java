@@ -0,0 +1,60 @@
+package dev.coms4156.project.individualproject;
+
+/**
+ * Builds and compares the entity tags of department and course responses.
+ *
+ * <p>A tag is derived from the version of the department or course the response was built from,
+ * so it can be checked without building the response. Versions start over when the service
+ * restarts, so every tag also contains a value chosen when the service starts, which keeps a
+ * tag from before a restart from matching a different state after it. The tags are weak because
+ * the JSON and the plain text responses of the same version share one tag, which is why the
+ * responses that carry a tag also carry {@code Vary: Accept}: a cache then keeps the two
+ * representations apart and only revalidates a copy with requests for the same one.
+ */
+public final class EntityTags {
+
+  private EntityTags() {
+  }
+
+  /**
+   * Builds the tag of a version.
+   *
+   * @param version the version of the department or course
+   * @return the weak entity tag, quoted as in an {@code ETag} header
+   */
+  public static String of(long version) {
+    return WEAK_PREFIX + '"' + EPOCH + '-' + Long.toString(version, Character.MAX_RADIX) + '"';
+  }
+
+  /**
+   * Checks whether an {@code If-None-Match} header matches a tag, using the weak comparison
+   * that the header calls for.
+   *
+   * @param ifNoneMatch the value of the header, or null if the request has none
+   * @param tag         the current tag, as built by {@link #of(long)}
+   * @return true if the client's copy is current and a 304 response may be sent
+   */
+  public static boolean matches(String ifNoneMatch, String tag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = opaque(tag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*") || opaque(trimmed).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(String tag) {
+    return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+  }
+
+  private static final String WEAK_PREFIX = "W/";
+
+  /** Distinguishes the versions of this run of the service from those of earlier runs. */
+  private static final String EPOCH =
+      Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+}
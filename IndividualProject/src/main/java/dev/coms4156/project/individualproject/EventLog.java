@@ -0,0 +1,263 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the warnings and errors of the service without blocking the thread that reports them.
+ *
+ * <p>Every kind of message is an {@link Event} whose text is fixed, so reporting one only counts
+ * it and, unless it is being rate limited, queues it for a background thread that writes it to
+ * the {@link Logger} of the class that reported it. Each event is written at most
+ * {@link #LIMIT_PER_WINDOW} times per window of about a second; the occurrences beyond that are
+ * only counted, and their number is appended to the next line written for the event. Reporting
+ * a suppressed event therefore allocates nothing and takes no lock, which keeps loading a
+ * catalog full of defaulted fields from being dominated by console output.
+ */
+public final class EventLog {
+
+  /**
+   * The messages reported by the service.
+   */
+  public enum Event {
+    INVALID_INSTRUCTOR(Level.WARN, Course.class,
+        "Invalid instructor name. Default value TBD assigned."),
+    INVALID_LOCATION(Level.WARN, Course.class, "Invalid location. Default value TBD assigned."),
+    INVALID_TIME_SLOT(Level.WARN, Course.class, "Invalid time slot. Default value TBD assigned."),
+    INVALID_CAPACITY(Level.WARN, Course.class,
+        "Invalid enrollment capacity. Default value 10 assigned."),
+    INVALID_DEPT_CODE(Level.WARN, Department.class,
+        "Invalid department code. Default value TBD assigned."),
+    NULL_COURSES(Level.WARN, Department.class, "Courses map is null. Empty map assigned."),
+    INVALID_CHAIR(Level.WARN, Department.class,
+        "Invalid department chair name. Default value TBD assigned."),
+    INVALID_MAJORS(Level.WARN, Department.class,
+        "Invalid number of majors. Default value 0 assigned."),
+    INVALID_COURSE(Level.WARN, Department.class, "Invalid course. Course not created nor added."),
+    SNAPSHOT_SAVED(Level.INFO, MyFileDatabase.class, "Snapshot saved successfully."),
+    SNAPSHOT_SAVE_FAILED(Level.ERROR, MyFileDatabase.class, "Snapshot could not be saved."),
+    SNAPSHOT_READ_FAILED(Level.ERROR, MyFileDatabase.class,
+        "Snapshot could not be read. Starting with an empty catalog."),
+    SNAPSHOT_MIGRATED(Level.INFO, MyFileDatabase.class,
+        "Migrated legacy data file to the snapshot format."),
+    SNAPSHOT_NOT_MAPPED(Level.WARN, MyFileDatabase.class,
+        "Snapshot cannot be mapped, reading it in full."),
+    REPLAY_FAILED(Level.ERROR, MyFileDatabase.class,
+        "Segments or mutation log could not be replayed."),
+    LOG_CLOSE_FAILED(Level.ERROR, MyFileDatabase.class, "Mutation log could not be closed."),
+    LOG_WRITE_FAILED(Level.ERROR, MutationLog.class,
+        "Mutation log could not be written. Changes are refused until the service restarts."),
+    CHECKPOINT_FAILED(Level.ERROR, Checkpointer.class, "Background checkpoint failed."),
+    REQUEST_FAILED(Level.ERROR, RouteController.class, "Request failed."),
+    RECORDING_FAILED(Level.ERROR, FlightRecording.class, "Flight recording failed."),
+    TIMER_TASK_FAILED(Level.ERROR, TimingWheel.class, "Scheduled task failed.");
+
+    Event(Level level, Class<?> source, String message) {
+      this.level = level;
+      this.logger = LoggerFactory.getLogger(source);
+      this.message = message;
+    }
+
+    public String getMessage() {
+      return this.message;
+    }
+
+    /**
+     * Takes one of the lines the event may write in the current window.
+     *
+     * @return whether the event may be written
+     */
+    private boolean tryAcquire() {
+      long now = System.nanoTime() >> WINDOW_SHIFT;
+      if (now != window) {
+        // Racing threads may both reset the count, which lets a few extra lines through.
+        window = now;
+        written.set(0);
+      }
+      return written.incrementAndGet() <= LIMIT_PER_WINDOW;
+    }
+
+    private final Level level;
+    private final Logger logger;
+    private final String message;
+    private final LongAdder occurrences = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final AtomicInteger written = new AtomicInteger();
+    private volatile long window;
+  }
+
+  private EventLog() {
+  }
+
+  /**
+   * Reports an event.
+   *
+   * @param event the event
+   */
+  public static void log(Event event) {
+    log(event, null, null);
+  }
+
+  /**
+   * Reports an event with a detail that is appended to its message.
+   *
+   * @param event  the event
+   * @param detail the detail
+   */
+  public static void log(Event event, String detail) {
+    log(event, detail, null);
+  }
+
+  /**
+   * Reports an event caused by an exception, which is written with its stack trace.
+   *
+   * @param event the event
+   * @param cause the exception
+   */
+  public static void log(Event event, Throwable cause) {
+    log(event, null, cause);
+  }
+
+  /**
+   * Gets the number of times an event has been reported, including the times it was not written.
+   *
+   * @param event the event
+   * @return the number of times the event has been reported
+   */
+  public static long count(Event event) {
+    return event.occurrences.sum();
+  }
+
+  /**
+   * Waits until every event reported so far has been written.
+   *
+   * @param timeoutMillis how long to wait at most
+   * @return whether every event has been written
+   */
+  public static boolean flush(long timeoutMillis) {
+    long target = ENQUEUED.sum();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    while (WRITTEN.sum() < target) {
+      if (System.nanoTime() - deadline >= 0) {
+        return false;
+      }
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void log(Event event, String detail, Throwable cause) {
+    event.occurrences.increment();
+    if (!event.tryAcquire()) {
+      event.suppressed.increment();
+      return;
+    }
+    Writer.ensureStarted();
+    if (QUEUE.offer(new Entry(event, detail, cause))) {
+      ENQUEUED.increment();
+    } else {
+      event.suppressed.increment();
+    }
+  }
+
+  private static void write(Entry entry) {
+    Event event = entry.event;
+    StringBuilder line = new StringBuilder(event.message);
+    if (entry.detail != null) {
+      line.append(' ').append(entry.detail);
+    }
+    long suppressed = event.suppressed.sumThenReset();
+    if (suppressed > 0) {
+      line.append(" (").append(suppressed).append(" similar messages suppressed)");
+    }
+    String text = line.toString();
+    switch (event.level) {
+      case INFO:
+        event.logger.info(text, entry.cause);
+        break;
+      case WARN:
+        event.logger.warn(text, entry.cause);
+        break;
+      default:
+        event.logger.error(text, entry.cause);
+        break;
+    }
+  }
+
+  private enum Level {
+    INFO,
+    WARN,
+    ERROR
+  }
+
+  /**
+   * An event waiting to be written.
+   */
+  private static final class Entry {
+
+    Entry(Event event, String detail, Throwable cause) {
+      this.event = event;
+      this.detail = detail;
+      this.cause = cause;
+    }
+
+    private final Event event;
+    private final String detail;
+    private final Throwable cause;
+  }
+
+  /**
+   * Holds the background thread that writes the queued events, which is started on first use.
+   */
+  private static final class Writer {
+
+    static void ensureStarted() {
+      // Initializing this class starts the thread exactly once.
+    }
+
+    private static void run() {
+      while (true) {
+        try {
+          Entry entry = QUEUE.take();
+          try {
+            write(entry);
+          } catch (RuntimeException e) {
+            // A failing appender must not stop the writer.
+          } finally {
+            WRITTEN.increment();
+          }
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+
+    static {
+      Thread thread = new Thread(Writer::run, "event-log");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /** The number of times each event is written per window at most. */
+  public static final int LIMIT_PER_WINDOW = 10;
+
+  /** Windows last 2^30 nanoseconds, about 1.07 seconds. */
+  private static final int WINDOW_SHIFT = 30;
+
+  private static final int QUEUE_CAPACITY = 4096;
+
+  private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private static final LongAdder ENQUEUED = new LongAdder();
+  private static final LongAdder WRITTEN = new LongAdder();
+}
@@ -0,0 +1,137 @@
+package dev.coms4156.project.individualproject;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events emitted by the service, so that the latency of enrollment,
+ * lookups, requests and persistence can be correlated with garbage collection and lock
+ * contention in the same recording.
+ *
+ * <p>While no recording enables an event, creating and committing it is reduced by the JIT to a
+ * check of a flag. The events on request paths record no stack trace, which keeps their cost
+ * low when they are enabled.
+ */
+public final class FlightEvents {
+
+  private FlightEvents() {
+  }
+
+  /**
+   * An attempt to enroll a student in or drop a student from a course.
+   */
+  @Name(PREFIX + "Enrollment")
+  @Label("Enrollment")
+  @Category({CATEGORY, "Course"})
+  @Description("An attempt to enroll a student in or drop a student from a course")
+  @StackTrace(false)
+  public static class EnrollmentEvent extends Event {
+
+    @Label("Department")
+    String department;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    @Label("Enrolled Count")
+    @Description("The number of enrolled students after the attempt")
+    int enrolled;
+
+    @Label("Capacity")
+    int capacity;
+
+    @Label("Retries")
+    @Description("The number of times the update lost a race with another thread")
+    int retries;
+  }
+
+  /**
+   * The resolution of a department code and course code to a course.
+   */
+  @Name(PREFIX + "CourseLookup")
+  @Label("Course Lookup")
+  @Category({CATEGORY, "Request"})
+  @StackTrace(false)
+  public static class LookupEvent extends Event {
+
+    @Label("Department")
+    String department;
+
+    @Label("Course")
+    String course;
+
+    @Label("Outcome")
+    String outcome;
+  }
+
+  /**
+   * A request handled by the {@link RouteController}.
+   */
+  @Name(PREFIX + "Request")
+  @Label("Request")
+  @Category({CATEGORY, "Request"})
+  @StackTrace(false)
+  public static class RequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Outcome")
+    String outcome;
+  }
+
+  /**
+   * The load of the snapshot file, including the replay of the segments and the mutation log.
+   */
+  @Name(PREFIX + "SnapshotLoad")
+  @Label("Snapshot Load")
+  @Category({CATEGORY, "Persistence"})
+  public static class SnapshotLoadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Mode")
+    @Description("full when the file is decoded at once, mapped when it is decoded lazily")
+    String mode;
+
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Departments")
+    int departments;
+  }
+
+  /**
+   * A full save of the snapshot file.
+   */
+  @Name(PREFIX + "SnapshotSave")
+  @Label("Snapshot Save")
+  @Category({CATEGORY, "Persistence"})
+  public static class SnapshotSaveEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Succeeded")
+    boolean succeeded;
+  }
+
+  /** The prefix of the names of the events. */
+  public static final String PREFIX = "dev.coms4156.project.individualproject.";
+
+  private static final String CATEGORY = "Individual Project";
+}
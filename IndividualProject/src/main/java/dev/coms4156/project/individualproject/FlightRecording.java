@@ -0,0 +1,119 @@
+package dev.coms4156.project.individualproject;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs at most one flight recording on demand. The recording uses the low-overhead
+ * {@code default} settings of the JDK together with every event in {@link FlightEvents}, and is
+ * bounded by age and size so that it can run indefinitely; only its most recent data is kept.
+ */
+@Component
+public class FlightRecording {
+
+  /**
+   * Starts a recording unless one is already running.
+   *
+   * @param maxAge   how long data is kept in the recording
+   * @param maxBytes how many bytes of data are kept in the recording
+   * @return true if the recording was started, false if one is already running
+   * @throws IOException    if the recording cannot be created
+   * @throws ParseException if the settings of the JDK cannot be read
+   */
+  public boolean start(Duration maxAge, long maxBytes) throws IOException, ParseException {
+    lock.lock();
+    try {
+      if (recording != null) {
+        return false;
+      }
+      Recording created = new Recording(Configuration.getConfiguration("default"));
+      created.setName(NAME);
+      created.setToDisk(true);
+      created.setMaxAge(maxAge);
+      created.setMaxSize(maxBytes);
+      created.enable(FlightEvents.EnrollmentEvent.class);
+      created.enable(FlightEvents.LookupEvent.class);
+      created.enable(FlightEvents.RequestEvent.class);
+      created.enable(FlightEvents.SnapshotLoadEvent.class);
+      created.enable(FlightEvents.SnapshotSaveEvent.class);
+      created.start();
+      recording = created;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the data of the running recording to a new temporary file, which the caller must
+   * delete. The recording keeps running.
+   *
+   * @return the file, or null if no recording is running
+   * @throws IOException if the file cannot be written
+   */
+  public Path dump() throws IOException {
+    lock.lock();
+    try {
+      if (recording == null) {
+        return null;
+      }
+      Path file = Files.createTempFile(NAME, ".jfr");
+      try {
+        recording.dump(file);
+      } catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(file);
+        throw e;
+      }
+      return file;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stops and discards the running recording.
+   *
+   * @return true if a recording was stopped, false if none is running
+   */
+  @PreDestroy
+  public boolean stop() {
+    lock.lock();
+    try {
+      if (recording == null) {
+        return false;
+      }
+      recording.close();
+      recording = null;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks whether a recording is running.
+   *
+   * @return true if a recording is running
+   */
+  public boolean isRunning() {
+    lock.lock();
+    try {
+      return recording != null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final String NAME = "individualproject-diagnostics";
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private Recording recording;
+}
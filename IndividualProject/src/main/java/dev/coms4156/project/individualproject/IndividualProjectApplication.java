@@ -1,7 +1,10 @@
 package dev.coms4156.project.individualproject;
 
 import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -30,20 +33,35 @@ public class IndividualProjectApplication implements CommandLineRunner {
    * This contains all the setup logic, it will mainly be focused
    * on loading up and creating an instance of the database based
    * off a saved file or will create a fresh database if the file
-   * is not present.
+   * is not present. Passing {@code lazy} memory-maps the saved file and decodes
+   * departments on demand, so the service can answer requests right away.
+   * Changed departments are checkpointed every
+   * {@code individualproject.checkpoint-interval-seconds} seconds.
+   * Passing {@code generate <departments> <coursesPerDepartment> [seed]} first
+   * replaces the saved file with a synthetic catalog of that size.
    *
    * @param args A {@code String[]} of any potential runtime args
    */
-  public void run(String[] args) {
-    for (String arg : args) {
+  public void run(String[] args) throws IOException {
+    int flag = 0;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
       if (arg.equals("setup")) {
         myFileDatabase = new MyFileDatabase(1, "./data.txt");
         resetDataFile();
         System.out.println("System Setup");
         return;
       }
+      if (arg.equals("generate")) {
+        i += generateDataFile(args, i + 1);
+      }
+      if (arg.equals("lazy")) {
+        flag = 2;
+      }
     }
-    myFileDatabase = new MyFileDatabase(0, "./data.txt");
+    myFileDatabase = new MyFileDatabase(flag, "./data.txt");
+    myFileDatabase.openMutationLog();
+    myFileDatabase.startCheckpointer(checkpointIntervalSeconds);
     System.out.println("Start up");
   }
 
@@ -57,6 +75,39 @@ public class IndividualProjectApplication implements CommandLineRunner {
     saveData = false;
   }
 
+  /**
+   * Replaces the saved file with a generated catalog, discarding any changes logged against the
+   * old one.
+   *
+   * @param args  A {@code String[]} of the runtime args
+   * @param start The index of the first argument after {@code generate}.
+   * @return The number of arguments consumed.
+   */
+  private static int generateDataFile(String[] args, int start) throws IOException {
+    if (args.length < start + 2) {
+      throw new IllegalArgumentException(
+          "Usage: generate <departments> <coursesPerDepartment> [seed]");
+    }
+    int departments = Integer.parseInt(args[start]);
+    int coursesPerDepartment = Integer.parseInt(args[start + 1]);
+    int consumed = 2;
+    long seed = CatalogGenerator.DEFAULT_SEED;
+    if (args.length > start + 2 && args[start + 2].matches("-?\\d+")) {
+      seed = Long.parseLong(args[start + 2]);
+      consumed = 3;
+    }
+    if (departments < 0 || coursesPerDepartment < 0) {
+      throw new IllegalArgumentException("Catalog sizes must not be negative.");
+    }
+
+    MyFileDatabase.deleteChanges("./data.txt");
+    long size = new CatalogGenerator(seed)
+        .writeSnapshot(Paths.get("./data.txt"), departments, coursesPerDepartment);
+    System.out.println("Generated " + departments + " departments with " + coursesPerDepartment
+        + " courses each (seed " + seed + ", " + size + " bytes).");
+    return consumed;
+  }
+
   /**
    * Allows for data to be reset in event of errors.
    */
@@ -294,10 +345,18 @@ public class IndividualProjectApplication implements CommandLineRunner {
     if (saveData) {
       myFileDatabase.saveContentsToFile();
     }
+    myFileDatabase.closeMutationLog();
+    EventLog.flush(TERMINATION_FLUSH_MILLIS);
   }
 
 
   //Database Instance
   public static MyFileDatabase myFileDatabase;
   private static boolean saveData = true;
+
+  /** How long termination waits for the queued log messages to be written. */
+  private static final long TERMINATION_FLUSH_MILLIS = 1000;
+
+  @Value("${individualproject.checkpoint-interval-seconds:30}")
+  private long checkpointIntervalSeconds = 30;
 }
@@ -0,0 +1,21 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+
+/**
+ * A response body that writes itself as JSON. It is written by {@link JsonBodyMessageConverter}
+ * through a generator on the output stream of the response, so no intermediate string is built
+ * and a large body is sent while it is still being written.
+ */
+@FunctionalInterface
+public interface JsonBody {
+
+  /**
+   * Writes the body as one JSON value.
+   *
+   * @param generator the generator to write to
+   * @throws IOException if the body cannot be written
+   */
+  void writeTo(JsonGenerator generator) throws IOException;
+}
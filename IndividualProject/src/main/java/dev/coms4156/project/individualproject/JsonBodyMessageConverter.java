@@ -0,0 +1,92 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes a {@link JsonBody} with a streaming generator directly on the output stream of the
+ * response. A {@link NegotiatedBody} is written in its text form instead when the client asked
+ * for plain text, and its JSON form is copied as it is if it was rendered in advance.
+ */
+public class JsonBodyMessageConverter extends AbstractHttpMessageConverter<JsonBody> {
+
+  /**
+   * Creates a converter that writes JSON bodies as {@code application/json}, and negotiated
+   * bodies also as {@code text/plain}.
+   */
+  public JsonBodyMessageConverter() {
+    super(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return JsonBody.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    if (mediaType != null && isText(mediaType)) {
+      return NegotiatedBody.class.isAssignableFrom(clazz);
+    }
+    return super.canWrite(clazz, mediaType);
+  }
+
+  @Override
+  protected void addDefaultHeaders(HttpHeaders headers, JsonBody body, MediaType contentType)
+      throws IOException {
+    if (contentType != null && isText(contentType) && contentType.getCharset() == null) {
+      contentType = new MediaType(contentType, StandardCharsets.UTF_8);
+    }
+    super.addDefaultHeaders(headers, body, contentType);
+  }
+
+  @Override
+  protected JsonBody readInternal(Class<? extends JsonBody> clazz,
+                                  HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("JSON bodies cannot be read.", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(JsonBody body, HttpOutputMessage outputMessage)
+      throws IOException {
+    MediaType contentType = outputMessage.getHeaders().getContentType();
+    if (body instanceof NegotiatedBody negotiated) {
+      if (contentType != null && isText(contentType)) {
+        outputMessage.getBody().write(negotiated.getText().getBytes());
+        return;
+      }
+      if (negotiated.getJson() == null) {
+        outputMessage.getBody().write(negotiated.getRenderedJson().getBytes());
+        return;
+      }
+    }
+    try (JsonGenerator generator =
+             JSON_FACTORY.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+      body.writeTo(generator);
+    }
+  }
+
+  private static boolean isText(MediaType mediaType) {
+    return MediaType.TEXT_PLAIN.isCompatibleWith(mediaType) && !mediaType.isWildcardType();
+  }
+
+  /** Shared by every response; the factory is thread-safe and recycles generator buffers. */
+  static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+      .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+      .build();
+}
@@ -0,0 +1,52 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sends the plain messages returned by the {@link RouteController} and the
+ * {@link DiagnosticsController}, such as {@code Course Not Found}, as JSON strings when the
+ * response is JSON, so that every JSON response of the controllers can be parsed. Clients that
+ * ask for plain text get the messages as they are.
+ */
+@ControllerAdvice(assignableTypes = {RouteController.class, DiagnosticsController.class})
+public class JsonMessageAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(MethodParameter returnType,
+                          Class<? extends HttpMessageConverter<?>> converterType) {
+    return StringHttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType,
+                                MediaType selectedContentType,
+                                Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                ServerHttpRequest request, ServerHttpResponse response) {
+    if (body instanceof String message
+        && MediaType.APPLICATION_JSON.isCompatibleWith(selectedContentType)
+        && !selectedContentType.isWildcardType()) {
+      return toJsonString(message);
+    }
+    return body;
+  }
+
+  /**
+   * Quotes a message as a JSON string.
+   *
+   * @param message the message
+   * @return the message as a JSON string literal
+   */
+  public static String toJsonString(String message) {
+    StringBuilder json = new StringBuilder(message.length() + 2).append('"');
+    JsonStringEncoder.getInstance().quoteAsString(message, json);
+    return json.append('"').toString();
+  }
+}
@@ -0,0 +1,165 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A department mapping backed by a {@link MappedSnapshot}. Departments are decoded the first
+ * time they are looked up, or ahead of time by {@link #warmUp()}, and are kept afterwards so
+ * that changes made to them are not lost.
+ */
+public class LazyDepartmentMap extends AbstractMap<String, Department> {
+
+  /**
+   * Creates a mapping holding every department of the given snapshot.
+   *
+   * @param snapshot the mapped snapshot to decode departments from
+   */
+  public LazyDepartmentMap(MappedSnapshot snapshot) {
+    this.snapshot = snapshot;
+    this.deptCodes.addAll(snapshot.getDeptCodes());
+  }
+
+  @Override
+  public Department get(Object key) {
+    if (!(key instanceof String deptCode) || !deptCodes.contains(deptCode)) {
+      return null;
+    }
+    Department department = departments.get(deptCode);
+    if (department != null) {
+      return department;
+    }
+    boolean[] decoded = new boolean[1];
+    department = departments.computeIfAbsent(deptCode, code -> {
+      decoded[0] = true;
+      return decode(code);
+    });
+    if (decoded[0]) {
+      notifyListener(department);
+    }
+    return department;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && deptCodes.contains(key);
+  }
+
+  @Override
+  public Department put(String deptCode, Department department) {
+    Department previous = get(deptCode);
+    departments.put(deptCode, department);
+    deptCodes.add(deptCode);
+    notifyListener(department);
+    return previous;
+  }
+
+  @Override
+  public Department remove(Object key) {
+    Department previous = get(key);
+    if (deptCodes.remove(key)) {
+      departments.remove(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return deptCodes.size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Department>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<String, Department>> iterator() {
+        Iterator<String> codes = deptCodes.iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return codes.hasNext();
+          }
+
+          @Override
+          public Map.Entry<String, Department> next() {
+            String deptCode = codes.next();
+            return new AbstractMap.SimpleImmutableEntry<>(deptCode, get(deptCode));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return deptCodes.size();
+      }
+    };
+  }
+
+  /**
+   * Decodes every department that has not been looked up yet.
+   */
+  public void warmUp() {
+    for (String deptCode : deptCodes) {
+      get(deptCode);
+    }
+  }
+
+  /**
+   * Gets the number of departments that have been decoded so far.
+   *
+   * @return the number of decoded departments
+   */
+  public int getDecodedCount() {
+    return departments.size();
+  }
+
+  /**
+   * Checks whether every department has been decoded.
+   *
+   * @return true if no department is left to decode
+   */
+  public boolean isFullyDecoded() {
+    return departments.size() >= deptCodes.size();
+  }
+
+  /**
+   * Sets an action to perform with every department once it is decoded or put into the
+   * mapping. The action is also performed right away with every department decoded so far, and
+   * may be performed more than once for the same department.
+   *
+   * @param listener the action to perform with each department
+   */
+  public void setDecodeListener(Consumer<Department> listener) {
+    this.listener = listener;
+    for (Department department : departments.values()) {
+      listener.accept(department);
+    }
+  }
+
+  private void notifyListener(Department department) {
+    Consumer<Department> current = listener;
+    if (current != null && department != null) {
+      current.accept(department);
+    }
+  }
+
+  private Department decode(String deptCode) {
+    try {
+      return snapshot.decode(deptCode);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private final MappedSnapshot snapshot;
+  private final Set<String> deptCodes = ConcurrentHashMap.newKeySet();
+  private final ConcurrentHashMap<String, Department> departments = new ConcurrentHashMap<>();
+  private volatile Consumer<Department> listener;
+}
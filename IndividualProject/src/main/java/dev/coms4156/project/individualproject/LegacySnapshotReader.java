@@ -0,0 +1,140 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads data files written with Java serialization by earlier versions of the service, so that
+ * they can be migrated to the binary snapshot format. The serialized {@code Course} and
+ * {@code Department} objects are read into private classes that mirror their original fields,
+ * which leaves the live classes free to change shape.
+ */
+public final class LegacySnapshotReader {
+
+  private LegacySnapshotReader() {
+  }
+
+  /**
+   * Checks whether the file at the given path is a Java serialization stream.
+   *
+   * @param path the path of the data file
+   * @return true if the file starts with the Java serialization magic number
+   * @throws IOException if the file cannot be read
+   */
+  public static boolean isLegacySnapshot(Path path) throws IOException {
+    if (!Files.exists(path) || Files.size(path) < 2) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+      return in.readShort() == ObjectStreamConstants.STREAM_MAGIC;
+    }
+  }
+
+  /**
+   * Reads the department mapping from a legacy data file.
+   *
+   * @param path the path of the data file
+   * @return the mapping of department codes to Department objects
+   * @throws IOException if the file does not hold a legacy department mapping
+   */
+  public static HashMap<String, Department> read(Path path) throws IOException {
+    try (InputStream fileIn = Files.newInputStream(path);
+         ObjectInputStream in = new LegacyObjectInputStream(new BufferedInputStream(fileIn))) {
+      Object obj = in.readObject();
+      if (!(obj instanceof Map<?, ?> legacyMapping)) {
+        throw new IOException("Invalid object type in file.");
+      }
+      HashMap<String, Department> mapping = new HashMap<>();
+      for (Map.Entry<?, ?> entry : legacyMapping.entrySet()) {
+        LegacyDepartment legacy = (LegacyDepartment) entry.getValue();
+        mapping.put((String) entry.getKey(), legacy.toDepartment());
+      }
+      return mapping;
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Invalid object type in file.", e);
+    }
+  }
+
+  /**
+   * An object stream that substitutes the legacy mirror classes for the serialized model
+   * classes and refuses any other application class.
+   */
+  private static final class LegacyObjectInputStream extends ObjectInputStream {
+
+    LegacyObjectInputStream(InputStream in) throws IOException {
+      super(in);
+      setObjectInputFilter(ObjectInputFilter.Config.createFilter(
+          "java.util.HashMap;java.util.Map$Entry;java.lang.String;"
+              + LegacyCourse.class.getName() + ";" + LegacyDepartment.class.getName()
+              + ";maxdepth=8;!*"));
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      ObjectStreamClass descriptor = super.readClassDescriptor();
+      if (COURSE_CLASS.equals(descriptor.getName())) {
+        return ObjectStreamClass.lookup(LegacyCourse.class);
+      } else if (DEPARTMENT_CLASS.equals(descriptor.getName())) {
+        return ObjectStreamClass.lookup(LegacyDepartment.class);
+      }
+      return descriptor;
+    }
+  }
+
+  /**
+   * Mirrors the serialized fields of {@code Course}.
+   */
+  private static final class LegacyCourse implements Serializable {
+
+    Course toCourse() {
+      Course course = new Course(instructorName, courseLocation, courseTimeSlot,
+          enrollmentCapacity);
+      course.setEnrolledStudentCount(enrolledStudentCount);
+      return course;
+    }
+
+    @Serial
+    private static final long serialVersionUID = 123456L;
+    private int enrollmentCapacity;
+    private int enrolledStudentCount;
+    private String courseLocation;
+    private String instructorName;
+    private String courseTimeSlot;
+  }
+
+  /**
+   * Mirrors the serialized fields of {@code Department}.
+   */
+  private static final class LegacyDepartment implements Serializable {
+
+    Department toDepartment() {
+      HashMap<String, Course> converted = new HashMap<>();
+      for (Map.Entry<String, LegacyCourse> entry : courses.entrySet()) {
+        converted.put(entry.getKey(), entry.getValue().toCourse());
+      }
+      return new Department(deptCode, converted, departmentChair, numberOfMajors);
+    }
+
+    @Serial
+    private static final long serialVersionUID = 234567L;
+    private HashMap<String, LegacyCourse> courses;
+    private String departmentChair;
+    private String deptCode;
+    private int numberOfMajors;
+  }
+
+  private static final String COURSE_CLASS = Course.class.getName();
+  private static final String DEPARTMENT_CLASS = Department.class.getName();
+}
@@ -0,0 +1,24 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Thrown when a change cannot be accepted because the mutation log could not be written. The
+ * log has already reported the write failure when this is thrown, and every later change is
+ * refused the same way until the service is restarted.
+ */
+public class LogUnavailableException extends UncheckedIOException {
+
+  /**
+   * Creates the exception for the given write failure.
+   *
+   * @param cause the failure that stopped the mutation log from being written
+   */
+  public LogUnavailableException(IOException cause) {
+    super("Mutation log could not be written.", cause);
+  }
+
+  private static final long serialVersionUID = 1L;
+
+}
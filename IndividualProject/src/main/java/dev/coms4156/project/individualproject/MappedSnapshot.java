@@ -0,0 +1,119 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A snapshot file opened with a {@link MappedByteBuffer}. Only the header and the department
+ * index are read when the snapshot is opened; each department block is checked and decoded when
+ * it is requested.
+ */
+public final class MappedSnapshot {
+
+  private MappedSnapshot(MappedByteBuffer buffer, short formatVersion,
+                         Map<String, long[]> index) {
+    this.buffer = buffer;
+    this.formatVersion = formatVersion;
+    this.index = index;
+  }
+
+  /**
+   * Maps the snapshot at the given path and reads its department index.
+   *
+   * @param path the path of the snapshot file
+   * @return the mapped snapshot
+   * @throws IOException if the file is not a snapshot with a department index
+   */
+  public static MappedSnapshot open(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot is too large to be mapped: " + path);
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    if (buffer.capacity() < SnapshotWriter.HEADER_SIZE
+        || buffer.getInt(0) != SnapshotWriter.MAGIC) {
+      throw new IOException("Not a snapshot file: " + path);
+    }
+    short formatVersion = buffer.getShort(4);
+    if (formatVersion < SnapshotReader.INDEXED_FORMAT_VERSION
+        || formatVersion > SnapshotWriter.FORMAT_VERSION) {
+      throw new IOException("Snapshot has no department index: " + path);
+    }
+    int departmentCount = buffer.getInt(6);
+    long indexOffset = buffer.getLong(10);
+
+    byte[] indexBytes = readBlock(buffer, indexOffset);
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(indexBytes));
+    if (in.readInt() != departmentCount) {
+      throw new IOException("Department index does not match the snapshot header.");
+    }
+    Map<String, long[]> index = new LinkedHashMap<>(SnapshotReader.capacityFor(departmentCount));
+    for (int i = 0; i < departmentCount; i++) {
+      index.put(in.readUTF(), new long[] {in.readLong(), in.readInt()});
+    }
+    return new MappedSnapshot(buffer, formatVersion, index);
+  }
+
+  /**
+   * Gets the codes of every department in the snapshot.
+   *
+   * @return the department codes in the order they were written
+   */
+  public Set<String> getDeptCodes() {
+    return index.keySet();
+  }
+
+  /**
+   * Decodes one department from the snapshot.
+   *
+   * @param deptCode the code of the department
+   * @return the decoded department, or null if the snapshot has no such department
+   * @throws IOException if the department block is corrupted
+   */
+  public Department decode(String deptCode) throws IOException {
+    long[] entry = index.get(deptCode);
+    if (entry == null) {
+      return null;
+    }
+    byte[] block = readBlock(buffer, entry[0]);
+    return SnapshotReader.decodeDepartment(
+        new DataInputStream(new ByteArrayInputStream(block)), formatVersion);
+  }
+
+  private static byte[] readBlock(ByteBuffer buffer, long offset) throws IOException {
+    if (offset < 0 || offset + SnapshotWriter.FRAME_HEADER_SIZE > buffer.capacity()) {
+      throw new IOException("Block offset is outside of the snapshot.");
+    }
+    int length = buffer.getInt((int) offset);
+    int checksum = buffer.getInt((int) offset + 4);
+    int start = (int) offset + SnapshotWriter.FRAME_HEADER_SIZE;
+    if (length < 0 || start + (long) length > buffer.capacity()) {
+      throw new IOException("Block length is outside of the snapshot.");
+    }
+    byte[] block = new byte[length];
+    buffer.get(start, block);
+    CRC32 crc = new CRC32();
+    crc.update(block);
+    if ((int) crc.getValue() != checksum) {
+      throw new IOException("Checksum mismatch in snapshot block at offset " + offset + ".");
+    }
+    return block;
+  }
+
+  private final MappedByteBuffer buffer;
+  private final short formatVersion;
+  private final Map<String, long[]> index;
+}
@@ -0,0 +1,36 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes the metrics collected by {@link ServiceMetrics}, in the manner of a Spring Boot
+ * Actuator endpoint.
+ */
+@RestController
+public class MetricsController {
+
+  /**
+   * Creates the controller.
+   *
+   * @param metrics the metrics to expose
+   */
+  public MetricsController(ServiceMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns every metric: per-endpoint request counts and durations in microseconds by outcome,
+   * catalog gauges, and persistence statistics.
+   *
+   * @return the metrics as JSON
+   */
+  @GetMapping(value = "/actuator/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+  public Map<String, Object> metrics() {
+    return metrics.snapshot();
+  }
+
+  private final ServiceMetrics metrics;
+}
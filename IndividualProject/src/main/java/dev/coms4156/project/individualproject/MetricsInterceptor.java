@@ -0,0 +1,79 @@
+package dev.coms4156.project.individualproject;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every request handled by the {@link RouteController} and records it in
+ * {@link ServiceMetrics} under the path pattern of its endpoint, and as a
+ * {@link FlightEvents.RequestEvent} while a flight recording enables it.
+ */
+public class MetricsInterceptor implements HandlerInterceptor {
+
+  /**
+   * Creates an interceptor that records into the given metrics.
+   *
+   * @param metrics the metrics to record requests in
+   */
+  public MetricsInterceptor(ServiceMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                           Object handler) {
+    if (handler instanceof HandlerMethod method && method.getBean() instanceof RouteController) {
+      ServiceMetrics.takeCourseFullMark();
+      FlightEvents.RequestEvent event = new FlightEvents.RequestEvent();
+      if (event.isEnabled()) {
+        event.begin();
+        request.setAttribute(EVENT_ATTRIBUTE, event);
+      }
+      request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                              Object handler, Exception ex) {
+    Object start = request.getAttribute(START_ATTRIBUTE);
+    if (start == null) {
+      return;
+    }
+    // Removed so that an error dispatch of the same request is not recorded again.
+    request.removeAttribute(START_ATTRIBUTE);
+    long duration = System.nanoTime() - (Long) start;
+    ServiceMetrics.Outcome outcome;
+    if (ServiceMetrics.takeCourseFullMark()) {
+      outcome = ServiceMetrics.Outcome.COURSE_FULL;
+    } else if (ex != null) {
+      outcome = ServiceMetrics.Outcome.SERVER_ERROR;
+    } else {
+      outcome = ServiceMetrics.Outcome.ofStatus(response.getStatus());
+    }
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+    metrics.record(endpoint, outcome, duration);
+
+    Object event = request.getAttribute(EVENT_ATTRIBUTE);
+    if (event != null) {
+      request.removeAttribute(EVENT_ATTRIBUTE);
+      FlightEvents.RequestEvent requestEvent = (FlightEvents.RequestEvent) event;
+      requestEvent.end();
+      if (requestEvent.shouldCommit()) {
+        requestEvent.endpoint = endpoint;
+        requestEvent.outcome = outcome.getLabel();
+        requestEvent.commit();
+      }
+    }
+  }
+
+  private static final String START_ATTRIBUTE = MetricsInterceptor.class.getName() + ".start";
+  private static final String EVENT_ATTRIBUTE = MetricsInterceptor.class.getName() + ".event";
+
+  private final ServiceMetrics metrics;
+}
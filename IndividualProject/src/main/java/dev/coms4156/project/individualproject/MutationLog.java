@@ -0,0 +1,531 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents an append-only, durable log of mutations made to the database.
+ * Records are framed as {@code [length][crc32][payload]} so that a torn write at the end of the
+ * file is detected and discarded on recovery. Appends only buffer the record; a single flusher
+ * thread writes every buffered record and calls {@code force} once per batch, so concurrent
+ * writers waiting in {@link #awaitDurable(long)} share one fsync (group commit).
+ *
+ * <p>The log is split into numbered generations stored next to each other as
+ * {@code <path>.<generation>}. Each generation remembers which departments its records touched,
+ * so that after {@link #rotate()} the caller can save just those departments and then
+ * {@link #discard(Rotation)} the closed generations.
+ *
+ * <p>If a batch cannot be written, the log stops for good: the flusher reports the failure to
+ * the {@link EventLog} and exits, every waiter and every later append fails, and callers can
+ * {@link #checkWritable()} before they change anything they would have to log. Writing the batch
+ * again is not attempted, since part of it may already be in the file.
+ *
+ * <p>All waiting is done on {@link ReentrantLock} conditions rather than object monitors, so a
+ * request running on a virtual thread unmounts from its carrier while it waits for the fsync.
+ */
+public class MutationLog implements Closeable {
+
+  /**
+   * Opens the log with the given base path. Existing generations are kept, with any incomplete
+   * or corrupted records at their end truncated, and new records are written to a fresh
+   * generation.
+   *
+   * @param path the base path of the log files
+   * @throws IOException if the log files cannot be opened
+   */
+  public MutationLog(Path path) throws IOException {
+    this.path = path;
+    long nextNumber = 1;
+    for (Map.Entry<Long, Path> entry : listGenerations(path).entrySet()) {
+      Generation generation = new Generation(entry.getKey(), entry.getValue(), null);
+      long validLength = replay(generation.file,
+          record -> addDeptCodes(generation.deptCodes, record));
+      try (FileChannel channel = FileChannel.open(generation.file, StandardOpenOption.WRITE)) {
+        channel.truncate(validLength);
+      }
+      closedGenerations.add(generation);
+      nextNumber = entry.getKey() + 1;
+    }
+    this.current = openGeneration(nextNumber);
+    this.flusher = new Thread(this::flushLoop, "mutation-log-flusher");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Reads every complete record of every generation of the log with the given base path, oldest
+   * generation first.
+   *
+   * @param path     the base path of the log files
+   * @param consumer the action to perform for each record
+   * @throws IOException if a log file exists but cannot be read
+   */
+  public static void replayAll(Path path, Consumer<MutationRecord> consumer) throws IOException {
+    for (Path file : listGenerations(path).values()) {
+      replay(file, consumer);
+    }
+  }
+
+  /**
+   * Deletes every generation of the log with the given base path. The log must not be open.
+   *
+   * @param path the base path of the log files
+   * @throws IOException if a log file cannot be deleted
+   */
+  public static void deleteAll(Path path) throws IOException {
+    for (Path file : listGenerations(path).values()) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Reads every complete record of a single log file in the order it was written.
+   * Reading stops at the first incomplete or corrupted record.
+   *
+   * @param file     the path of the log file
+   * @param consumer the action to perform for each record
+   * @return the length in bytes of the valid prefix of the log file
+   * @throws IOException if the log file exists but cannot be read
+   */
+  public static long replay(Path file, Consumer<MutationRecord> consumer) throws IOException {
+    if (!Files.exists(file)) {
+      return 0;
+    }
+    long validLength = 0;
+    try (InputStream fileIn = Files.newInputStream(file);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+      while (true) {
+        byte[] payload;
+        int checksum;
+        try {
+          int length = in.readInt();
+          checksum = in.readInt();
+          if (length <= 0 || length > MAX_RECORD_SIZE) {
+            break;
+          }
+          payload = new byte[length];
+          in.readFully(payload);
+        } catch (EOFException e) {
+          break;
+        }
+        if (checksum(payload) != checksum) {
+          break;
+        }
+        consumer.accept(MutationRecord.readFrom(
+            new DataInputStream(new ByteArrayInputStream(payload))));
+        validLength += FRAME_HEADER_SIZE + payload.length;
+      }
+    }
+    return validLength;
+  }
+
+  /**
+   * Buffers a record for writing. The record is not durable until
+   * {@link #awaitDurable(long)} returns for the returned sequence number. Callers that need
+   * records for the same entity to be logged in order must append them while holding a lock
+   * on that entity.
+   *
+   * @param record the record to append
+   * @return the sequence number of the record
+   * @throws LogUnavailableException if an earlier batch could not be written
+   */
+  public long append(MutationRecord record) {
+    byte[] frame = encode(record);
+    lock.lock();
+    try {
+      if (failure != null) {
+        throw new LogUnavailableException(failure);
+      }
+      if (closed) {
+        throw new IllegalStateException("Mutation log is closed.");
+      }
+      pending.add(new PendingFrame(frame, current));
+      addDeptCodes(current.deptCodes, record);
+      lastSequence++;
+      framesPending.signal();
+      return lastSequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks that records can still be appended, so that a change can be refused before it is
+   * made rather than made and then not logged.
+   *
+   * @throws LogUnavailableException if a batch could not be written
+   */
+  public void checkWritable() {
+    IOException current = failure;
+    if (current != null) {
+      throw new LogUnavailableException(current);
+    }
+  }
+
+  /**
+   * Blocks until the record with the given sequence number, and every record before it, has been
+   * written and forced to disk.
+   *
+   * @param sequence the sequence number returned by {@link #append(MutationRecord)}
+   * @throws LogUnavailableException if the log could not be written
+   */
+  public void awaitDurable(long sequence) {
+    lock.lock();
+    try {
+      while (durableSequence < sequence) {
+        if (failure != null) {
+          throw new LogUnavailableException(failure);
+        }
+        if (closed) {
+          throw new IllegalStateException("Mutation log is closed.");
+        }
+        try {
+          flushed.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for the mutation log.", e);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the current generation and starts writing new records to the next one. Returns once
+   * every record of the closed generations is durable.
+   *
+   * @return the closed generations and the departments their records touched
+   * @throws IOException if the next generation cannot be created or a batch could not be
+   *                     written
+   */
+  public Rotation rotate() throws IOException {
+    long sequence;
+    Rotation rotation;
+    lock.lock();
+    try {
+      if (failure != null) {
+        throw new IOException("Mutation log could not be written.", failure);
+      }
+      if (closed) {
+        throw new IllegalStateException("Mutation log is closed.");
+      }
+      Generation next = openGeneration(current.number + 1);
+      closedGenerations.add(current);
+      current = next;
+      sequence = lastSequence;
+
+      Set<String> deptCodes = new HashSet<>();
+      for (Generation generation : closedGenerations) {
+        deptCodes.addAll(generation.deptCodes);
+      }
+      rotation = new Rotation(new ArrayList<>(closedGenerations), deptCodes);
+    } finally {
+      lock.unlock();
+    }
+    awaitDurable(sequence);
+    return rotation;
+  }
+
+  /**
+   * Deletes the generations closed by the given rotation. This should only be called once the
+   * departments returned by {@link Rotation#getDeptCodes()} have been saved.
+   *
+   * @param rotation the rotation returned by {@link #rotate()}
+   * @throws IOException if a log file cannot be deleted
+   */
+  public void discard(Rotation rotation) throws IOException {
+    for (Generation generation : rotation.generations) {
+      lock.lock();
+      try {
+        closedGenerations.remove(generation);
+      } finally {
+        lock.unlock();
+      }
+      ioLock.lock();
+      try {
+        if (generation.channel != null) {
+          generation.channel.close();
+        }
+      } finally {
+        ioLock.unlock();
+      }
+      Files.deleteIfExists(generation.file);
+    }
+  }
+
+  /**
+   * Gets the sequence number of the most recently appended record.
+   *
+   * @return the last sequence number, or 0 if nothing has been appended
+   */
+  public long getLastSequence() {
+    lock.lock();
+    try {
+      return this.lastSequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flushes any buffered records and closes the log files.
+   *
+   * @throws IOException if a log file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      framesPending.signal();
+      flushed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    ioLock.lock();
+    try {
+      for (Generation generation : closedGenerations) {
+        if (generation.channel != null) {
+          generation.channel.close();
+        }
+      }
+      current.channel.close();
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  private Generation openGeneration(long number) throws IOException {
+    Path file = path.resolveSibling(path.getFileName() + "." + number);
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    return new Generation(number, file, channel);
+  }
+
+  /**
+   * Adds the departments a record touches, which for a batch are those of its entries.
+   */
+  private static void addDeptCodes(Set<String> deptCodes, MutationRecord record) {
+    if (record.getType() == MutationRecord.COURSE_BATCH) {
+      for (MutationRecord entry : record.getEntries()) {
+        deptCodes.add(entry.getDeptCode());
+      }
+    } else {
+      deptCodes.add(record.getDeptCode());
+    }
+  }
+
+  private static TreeMap<Long, Path> listGenerations(Path path) throws IOException {
+    TreeMap<Long, Path> generations = new TreeMap<>();
+    if (Files.exists(path)) {
+      generations.put(0L, path);
+    }
+    Path directory = path.toAbsolutePath().getParent();
+    if (directory == null || !Files.isDirectory(directory)) {
+      return generations;
+    }
+    String prefix = path.getFileName() + ".";
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+      for (Path file : files) {
+        String suffix = file.getFileName().toString().substring(prefix.length());
+        if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+          generations.put(Long.parseLong(suffix), path.resolveSibling(file.getFileName()));
+        }
+      }
+    }
+    return generations;
+  }
+
+  private void flushLoop() {
+    while (true) {
+      List<PendingFrame> batch;
+      long batchSequence;
+      lock.lock();
+      try {
+        while (pending.isEmpty() && !closed) {
+          try {
+            framesPending.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        pending = new ArrayList<>();
+        batchSequence = lastSequence;
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        writeBatch(batch);
+      } catch (IOException e) {
+        lock.lock();
+        try {
+          failure = e;
+          // Nothing will write them, and append() refuses new ones from now on.
+          pending = new ArrayList<>();
+          flushed.signalAll();
+        } finally {
+          lock.unlock();
+        }
+        EventLog.log(EventLog.Event.LOG_WRITE_FAILED, e);
+        return;
+      }
+
+      lock.lock();
+      try {
+        durableSequence = batchSequence;
+        flushed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void writeBatch(List<PendingFrame> batch) throws IOException {
+    ioLock.lock();
+    try {
+      Set<FileChannel> written = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (PendingFrame frame : batch) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame.bytes);
+        while (buffer.hasRemaining()) {
+          frame.generation.channel.write(buffer);
+        }
+        written.add(frame.generation.channel);
+      }
+      for (FileChannel channel : written) {
+        channel.force(false);
+      }
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  private static byte[] encode(MutationRecord record) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      record.writeTo(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] payload = bytes.toByteArray();
+    return ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length)
+        .putInt(payload.length)
+        .putInt(checksum(payload))
+        .put(payload)
+        .array();
+  }
+
+  private static int checksum(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * The result of {@link #rotate()}: the generations that were closed and the codes of the
+   * departments their records touched.
+   */
+  public static final class Rotation {
+
+    private Rotation(List<Generation> generations, Set<String> deptCodes) {
+      this.generations = generations;
+      this.deptCodes = deptCodes;
+    }
+
+    public Set<String> getDeptCodes() {
+      return this.deptCodes;
+    }
+
+    private final List<Generation> generations;
+    private final Set<String> deptCodes;
+  }
+
+  /**
+   * One log file and the departments touched by the records written to it.
+   */
+  private static final class Generation {
+
+    Generation(long number, Path file, FileChannel channel) {
+      this.number = number;
+      this.file = file;
+      this.channel = channel;
+    }
+
+    private final long number;
+    private final Path file;
+    private final FileChannel channel;
+    private final Set<String> deptCodes = new HashSet<>();
+  }
+
+  /**
+   * An encoded record waiting to be written to its generation.
+   */
+  private static final class PendingFrame {
+
+    PendingFrame(byte[] bytes, Generation generation) {
+      this.bytes = bytes;
+      this.generation = generation;
+    }
+
+    private final byte[] bytes;
+    private final Generation generation;
+  }
+
+  private static final int FRAME_HEADER_SIZE = 8;
+  private static final int MAX_RECORD_SIZE = 1 << 20;
+
+  private final Path path;
+  private final Thread flusher;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition framesPending = lock.newCondition();
+  private final Condition flushed = lock.newCondition();
+  private final ReentrantLock ioLock = new ReentrantLock();
+  private final List<Generation> closedGenerations = new ArrayList<>();
+  private Generation current;
+  private List<PendingFrame> pending = new ArrayList<>();
+  private long lastSequence;
+  private long durableSequence;
+  // Written under the lock, but also read without it by checkWritable().
+  private volatile IOException failure;
+  private boolean closed;
+}
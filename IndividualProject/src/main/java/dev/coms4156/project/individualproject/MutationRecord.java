@@ -0,0 +1,270 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a single entry of the mutation log.
+ * Each record carries the full mutable state of one course or one department after the change,
+ * so replaying a record is idempotent and the latest record for an entity always wins.
+ * Course records also carry the version of the course, because updates to a course are not
+ * serialized and may reach the log out of order; a course record is only applied if its version
+ * is newer than the version of the course. A batch record groups the versioned states of several
+ * courses that were changed together, so that either all or none of them are replayed. Course
+ * records written since waitlists were added also carry the waitlist of the course.
+ */
+public final class MutationRecord {
+
+  /** Record type holding the mutable state of a course. */
+  public static final byte COURSE_STATE = 1;
+
+  /** Record type holding the mutable state of a department. */
+  public static final byte DEPARTMENT_STATE = 2;
+
+  /** Record type holding the mutable state of a course and its version. */
+  public static final byte VERSIONED_COURSE_STATE = 3;
+
+  /** Record type holding the versioned states of several courses changed together. */
+  public static final byte COURSE_BATCH = 4;
+
+  /** Record type holding the mutable state of a course, its version and its waitlist. */
+  public static final byte WAITLISTED_COURSE_STATE = 5;
+
+  private MutationRecord(byte type, String deptCode, String courseId, String instructorName,
+                         String courseLocation, String courseTimeSlot, int count) {
+    this(type, deptCode, courseId, instructorName, courseLocation, courseTimeSlot, count, 0);
+  }
+
+  private MutationRecord(byte type, String deptCode, String courseId, String instructorName,
+                         String courseLocation, String courseTimeSlot, int count, int version) {
+    this(type, deptCode, courseId, instructorName, courseLocation, courseTimeSlot, count, version,
+        Collections.emptyList());
+  }
+
+  private MutationRecord(byte type, String deptCode, String courseId, String instructorName,
+                         String courseLocation, String courseTimeSlot, int count, int version,
+                         List<MutationRecord> entries) {
+    this(type, deptCode, courseId, instructorName, courseLocation, courseTimeSlot, count, version,
+        0, 0, entries);
+  }
+
+  private MutationRecord(byte type, String deptCode, String courseId, String instructorName,
+                         String courseLocation, String courseTimeSlot, int count, int version,
+                         int waitlistHead, int waitlistTail, List<MutationRecord> entries) {
+    this.type = type;
+    this.deptCode = deptCode;
+    this.courseId = courseId;
+    this.instructorName = instructorName;
+    this.courseLocation = courseLocation;
+    this.courseTimeSlot = courseTimeSlot;
+    this.count = count;
+    this.version = version;
+    this.waitlistHead = waitlistHead;
+    this.waitlistTail = waitlistTail;
+    this.entries = entries;
+  }
+
+  /**
+   * Creates a record capturing the current state of a course.
+   *
+   * @param deptCode The code of the department containing the course.
+   * @param courseId The ID of the course within the department.
+   * @param course   The course whose state is recorded.
+   * @return A new {@code MutationRecord} describing the course.
+   */
+  public static MutationRecord courseState(String deptCode, String courseId, Course course) {
+    Course.State state = course.getState();
+    return new MutationRecord(WAITLISTED_COURSE_STATE, deptCode, courseId,
+        course.getInstructorName(), course.getCourseLocation(), course.getCourseTimeSlot(),
+        state.getEnrolledCount(), state.getVersion(), state.getWaitlistHead(),
+        state.getWaitlistTail(), Collections.emptyList());
+  }
+
+  /**
+   * Creates a record grouping the states of several courses, each created with
+   * {@link #courseState(String, String, Course)}.
+   *
+   * @param entries The course records to group.
+   * @return A new {@code MutationRecord} holding the course records.
+   */
+  public static MutationRecord courseBatch(List<MutationRecord> entries) {
+    return new MutationRecord(COURSE_BATCH, "", "", "", "", "", entries.size(), 0,
+        Collections.unmodifiableList(new ArrayList<>(entries)));
+  }
+
+  /**
+   * Creates a record capturing the current state of a department.
+   *
+   * @param deptCode   The code of the department.
+   * @param department The department whose state is recorded.
+   * @return A new {@code MutationRecord} describing the department.
+   */
+  public static MutationRecord departmentState(String deptCode, Department department) {
+    return new MutationRecord(DEPARTMENT_STATE, deptCode, "", "", "", "",
+        department.getNumberOfMajors());
+  }
+
+  /**
+   * Reads a record previously written with {@link #writeTo(DataOutput)}.
+   *
+   * @param in the input to read the record from
+   * @return the decoded record
+   * @throws IOException if the input is truncated or holds an unknown record type
+   */
+  public static MutationRecord readFrom(DataInput in) throws IOException {
+    byte type = in.readByte();
+    if (type == COURSE_STATE) {
+      return new MutationRecord(type, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+          in.readUTF(), in.readInt());
+    } else if (type == DEPARTMENT_STATE) {
+      return new MutationRecord(type, in.readUTF(), "", "", "", "", in.readInt());
+    } else if (type == VERSIONED_COURSE_STATE) {
+      return new MutationRecord(type, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+          in.readUTF(), in.readInt(), in.readInt());
+    } else if (type == WAITLISTED_COURSE_STATE) {
+      return new MutationRecord(type, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+          in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+          Collections.emptyList());
+    } else if (type == COURSE_BATCH) {
+      int size = in.readInt();
+      List<MutationRecord> entries = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        MutationRecord entry = readFrom(in);
+        if (!entry.isVersioned()) {
+          throw new IOException("Unexpected record type in batch: " + entry.type);
+        }
+        entries.add(entry);
+      }
+      return courseBatch(entries);
+    }
+    throw new IOException("Unknown mutation record type: " + type);
+  }
+
+  /**
+   * Writes this record in its binary form.
+   *
+   * @param out the output to write the record to
+   * @throws IOException if the output cannot be written
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(type);
+    if (type == COURSE_BATCH) {
+      out.writeInt(entries.size());
+      for (MutationRecord entry : entries) {
+        entry.writeTo(out);
+      }
+      return;
+    }
+    out.writeUTF(deptCode);
+    if (type != DEPARTMENT_STATE) {
+      out.writeUTF(courseId);
+      out.writeUTF(instructorName);
+      out.writeUTF(courseLocation);
+      out.writeUTF(courseTimeSlot);
+    }
+    out.writeInt(count);
+    if (isVersioned()) {
+      out.writeInt(version);
+    }
+    if (type == WAITLISTED_COURSE_STATE) {
+      out.writeInt(waitlistHead);
+      out.writeInt(waitlistTail);
+    }
+  }
+
+  /**
+   * Applies this record to the given department mapping. Records referring to departments or
+   * courses that do not exist in the mapping, and versioned course records that are not newer
+   * than the course, are ignored. Versions are compared with wrap-around.
+   *
+   * @param mapping the mapping of department codes to Department objects
+   */
+  public void applyTo(Map<String, Department> mapping) {
+    if (type == COURSE_BATCH) {
+      for (MutationRecord entry : entries) {
+        entry.applyTo(mapping);
+      }
+      return;
+    }
+    Department department = mapping.get(deptCode);
+    if (department == null) {
+      return;
+    }
+    if (type == DEPARTMENT_STATE) {
+      department.setNumberOfMajors(count);
+      return;
+    }
+    Course course = department.getCourseSelection().get(courseId);
+    if (course == null) {
+      return;
+    }
+    if (isVersioned() && version - Course.versionOf(course.getEnrollmentState()) <= 0) {
+      return;
+    }
+    course.reassignInstructor(instructorName);
+    course.reassignLocation(courseLocation);
+    course.reassignTime(courseTimeSlot);
+    if (type == WAITLISTED_COURSE_STATE) {
+      course.restoreWaitlist(waitlistHead, waitlistTail);
+    }
+    if (isVersioned()) {
+      course.restoreEnrollment(count, version);
+    } else {
+      course.setEnrolledStudentCount(count);
+    }
+  }
+
+  public byte getType() {
+    return this.type;
+  }
+
+  public String getDeptCode() {
+    return this.deptCode;
+  }
+
+  public String getCourseId() {
+    return this.courseId;
+  }
+
+  public int getVersion() {
+    return this.version;
+  }
+
+  public int getWaitlistHead() {
+    return this.waitlistHead;
+  }
+
+  public int getWaitlistTail() {
+    return this.waitlistTail;
+  }
+
+  /**
+   * Gets the course records grouped by a batch record.
+   *
+   * @return the grouped records, or an empty list if this is not a batch record
+   */
+  public List<MutationRecord> getEntries() {
+    return this.entries;
+  }
+
+  private boolean isVersioned() {
+    return type == VERSIONED_COURSE_STATE || type == WAITLISTED_COURSE_STATE;
+  }
+
+  private final byte type;
+  private final String deptCode;
+  private final String courseId;
+  private final String instructorName;
+  private final String courseLocation;
+  private final String courseTimeSlot;
+  private final int count;
+  private final int version;
+  private final int waitlistHead;
+  private final int waitlistTail;
+  private final List<MutationRecord> entries;
+}
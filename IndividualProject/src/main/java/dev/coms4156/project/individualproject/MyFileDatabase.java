@@ -1,80 +1,433 @@
 package dev.coms4156.project.individualproject;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This class represents a file-based database containing department mappings.
+ *
+ * <p>Departments are held in a concurrent map published through a volatile field, so request
+ * threads always see a fully built mapping, including after {@link #setMapping(Map)}.
  */
 public class MyFileDatabase {
 
   /**
    * Constructs a MyFileDatabase object and loads up the data structure with
-   * the contents of the file.
+   * the contents of the file. With flag 0 the whole file is decoded before the constructor
+   * returns. With flag 2 the file is memory-mapped and each department is decoded on first
+   * access, while a background thread decodes the rest. Any other flag leaves the database
+   * empty until {@link #setMapping(Map)} is called.
    *
    * @param flag     used to distinguish mode of database
    * @param filePath the path to the file containing the entries of the database
    */
   public MyFileDatabase(int flag, String filePath) {
+    FlightEvents.SnapshotLoadEvent event = new FlightEvents.SnapshotLoadEvent();
+    event.begin();
+    long start = System.nanoTime();
     this.filePath = filePath;
+    this.logPath = Paths.get(filePath + ".wal");
+    this.segmentDir = Paths.get(filePath + ".segments");
     if (flag == 0) {
-      this.departmentMapping = deSerializeObjectFromFile();
+      this.departmentMapping = readSnapshotFromFile();
+      replayMutationLog();
+    } else if (flag == 2) {
+      this.departmentMapping = mapSnapshotFromFile();
+      replayMutationLog();
+    } else {
+      this.departmentMapping = new ConcurrentHashMap<>();
     }
+    indexCourses();
+    this.loadDurationNanos = System.nanoTime() - start;
+    event.end();
+    if (flag == 0 || flag == 2) {
+      long size = 0;
+      try {
+        this.snapshotTimeMillis = Files.getLastModifiedTime(Paths.get(filePath)).toMillis();
+        size = Files.size(Paths.get(filePath));
+      } catch (IOException e) {
+        this.snapshotTimeMillis = -1;
+      }
+      if (event.shouldCommit()) {
+        event.path = filePath;
+        event.mode = flag == 0 ? "full" : "mapped";
+        event.bytes = size;
+        event.departments = departmentMapping.size();
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Opens the mutation log so that every change recorded through
+   * {@link #logCourseUpdate(String, String, Course)} and
+   * {@link #logDepartmentUpdate(String, Department)} survives a crash. The log is replayed on
+   * top of the snapshot the next time the database is loaded.
+   *
+   * @throws IOException if the log file cannot be opened
+   */
+  public void openMutationLog() throws IOException {
+    lifecycleLock.lock();
+    try {
+      if (mutationLog == null) {
+        mutationLog = new MutationLog(logPath);
+        checkpointer = new Checkpointer(mutationLog, segmentDir, this::getDepartmentMapping);
+      }
+    } finally {
+      lifecycleLock.unlock();
+    }
+  }
+
+  /**
+   * Starts saving the departments changed through the mutation log to segment files at a fixed
+   * interval, so the log does not grow until the next full save. Does nothing if the mutation
+   * log is not open or the checkpointer is already running.
+   *
+   * @param intervalSeconds the number of seconds between checkpoints
+   */
+  public void startCheckpointer(long intervalSeconds) {
+    lifecycleLock.lock();
+    try {
+      if (checkpointer != null) {
+        checkpointer.start(intervalSeconds);
+      }
+    } finally {
+      lifecycleLock.unlock();
+    }
+  }
+
+  /**
+   * Saves the departments changed since the last checkpoint to their segment files right away.
+   *
+   * @return the number of departments written, or 0 if the mutation log is not open
+   * @throws IOException if a segment or log file cannot be written
+   */
+  public int checkpoint() throws IOException {
+    Checkpointer current = checkpointer;
+    return current == null ? 0 : current.checkpoint();
+  }
+
+  /**
+   * Stops the checkpointer and closes the mutation log if it is open.
+   */
+  public void closeMutationLog() {
+    lifecycleLock.lock();
+    try {
+      if (checkpointer != null) {
+        checkpointer.close();
+        checkpointer = null;
+      }
+      if (mutationLog == null) {
+        return;
+      }
+      try {
+        mutationLog.close();
+      } catch (IOException e) {
+        EventLog.log(EventLog.Event.LOG_CLOSE_FAILED, e);
+      }
+      mutationLog = null;
+    } finally {
+      lifecycleLock.unlock();
+    }
+  }
+
+  /**
+   * Records the current state of a course in the mutation log. This must be called after the
+   * course was changed; the record carries the version of the course, so records for the same
+   * course may be logged out of order by concurrent requests without holding any lock.
+   *
+   * @param deptCode the code of the department containing the course
+   * @param courseId the ID of the course within the department
+   * @param course   the course that was changed
+   * @return the sequence number to pass to {@link #awaitDurable(long)}, or 0 if the mutation
+   *         log is not open
+   */
+  public long logCourseUpdate(String deptCode, String courseId, Course course) {
+    if (mutationLog == null) {
+      return 0;
+    }
+    return mutationLog.append(MutationRecord.courseState(deptCode, courseId, course));
   }
 
   /**
-   * Sets the department mapping of the database.
+   * Records the current states of several courses in the mutation log as a single record, so
+   * that either all or none of them are replayed.
+   *
+   * @param lookups the resolved courses that were changed
+   * @return the sequence number to pass to {@link #awaitDurable(long)}, or 0 if the mutation
+   *         log is not open
+   */
+  public long logCourseBatch(List<CourseLookup> lookups) {
+    if (mutationLog == null) {
+      return 0;
+    }
+    List<MutationRecord> entries = new ArrayList<>(lookups.size());
+    for (CourseLookup lookup : lookups) {
+      entries.add(MutationRecord.courseState(lookup.getDeptCode(), lookup.getCourseId(),
+          lookup.getCourse()));
+    }
+    return mutationLog.append(MutationRecord.courseBatch(entries));
+  }
+
+  /**
+   * Records the current state of a department in the mutation log. The caller must hold the
+   * write lock of the department in {@link DepartmentLocks} so that updates to the same
+   * department are logged in order.
+   *
+   * @param deptCode   the code of the department
+   * @param department the department that was changed
+   * @return the sequence number to pass to {@link #awaitDurable(long)}, or 0 if the mutation
+   *         log is not open
+   */
+  public long logDepartmentUpdate(String deptCode, Department department) {
+    if (mutationLog == null) {
+      return 0;
+    }
+    return mutationLog.append(MutationRecord.departmentState(deptCode, department));
+  }
+
+  /**
+   * Checks that changes can still be logged. Requests call this before they change anything,
+   * so that a change is refused rather than kept in memory without being logged.
+   *
+   * @throws LogUnavailableException if the mutation log could not be written
+   */
+  public void checkWritable() {
+    MutationLog current = mutationLog;
+    if (current != null) {
+      current.checkWritable();
+    }
+  }
+
+  /**
+   * Blocks until the logged update with the given sequence number is durable on disk.
+   *
+   * @param sequence the sequence number returned when the update was logged
+   */
+  public void awaitDurable(long sequence) {
+    if (mutationLog != null && sequence > 0) {
+      mutationLog.awaitDurable(sequence);
+    }
+  }
+
+  /**
+   * Sets the department mapping of the database. The mapping is copied, so later changes to
+   * it are not seen by the database.
    *
    * @param mapping the mapping of department names to Department objects
    */
-  public void setMapping(HashMap<String, Department> mapping) {
-    this.departmentMapping = mapping;
+  public void setMapping(Map<String, Department> mapping) {
+    this.departmentMapping = new ConcurrentHashMap<>(mapping);
+    indexCourses();
   }
 
   /**
-   * Deserializes the object from the file and returns the department mapping.
+   * Gets a single department without going through the read-only view of the mapping.
    *
-   * @return the deserialized department mapping or an empty collection if deserialization fails
+   * @param deptCode the code of the department, in upper case
+   * @return the department, or null if there is no department with that code
    */
-  private HashMap<String, Department> deSerializeObjectFromFile() {
-    try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filePath))) {
-      Object obj = in.readObject();
-      if (obj instanceof HashMap) {
-        return (HashMap<String, Department>) obj;
-      } else {
-        throw new IllegalArgumentException("Invalid object type in file.");
+  public Department getDepartment(String deptCode) {
+    return departmentMapping.get(deptCode);
+  }
+
+  /**
+   * Finds every course with the given ID across all departments.
+   *
+   * @param courseId the ID of the course
+   * @return a read-only map of department codes, in order, to the course each department
+   *         offers with that ID
+   */
+  public Map<String, Course> findCourses(String courseId) {
+    if (departmentMapping instanceof LazyDepartmentMap lazyMapping
+        && !lazyMapping.isFullyDecoded()) {
+      lazyMapping.warmUp();
+    }
+    return courseIndex.findCourses(courseId);
+  }
+
+  /**
+   * Builds the course index for the current mapping. Departments of a lazily decoded mapping
+   * are indexed as they are decoded.
+   */
+  private void indexCourses() {
+    CourseIndex index = new CourseIndex();
+    Map<String, Department> mapping = departmentMapping;
+    if (mapping instanceof LazyDepartmentMap lazyMapping) {
+      lazyMapping.setDecodeListener(index::addDepartment);
+    } else {
+      for (Department department : mapping.values()) {
+        index.addDepartment(department);
       }
-    } catch (IOException | ClassNotFoundException e) {
-      e.printStackTrace();
-      return new HashMap<>();
+    }
+    this.courseIndex = index;
+  }
+
+  /**
+   * Reads the snapshot from the file and returns the department mapping. A file written with
+   * Java serialization by an earlier version is read once and rewritten in the binary snapshot
+   * format.
+   *
+   * @return the department mapping or an empty collection if the file cannot be read
+   */
+  private ConcurrentHashMap<String, Department> readSnapshotFromFile() {
+    Path path = Paths.get(filePath);
+    try {
+      if (LegacySnapshotReader.isLegacySnapshot(path)) {
+        HashMap<String, Department> mapping = LegacySnapshotReader.read(path);
+        SnapshotWriter.write(path, mapping);
+        EventLog.log(EventLog.Event.SNAPSHOT_MIGRATED);
+        return new ConcurrentHashMap<>(mapping);
+      }
+      return new ConcurrentHashMap<>(SnapshotReader.read(path));
+    } catch (IOException e) {
+      EventLog.log(EventLog.Event.SNAPSHOT_READ_FAILED, e);
+      return new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Maps the snapshot file so that departments are decoded lazily, and starts a background
+   * thread that decodes every department ahead of its first request. Falls back to reading the
+   * whole file if it has no department index.
+   *
+   * @return the lazily decoded department mapping
+   */
+  private Map<String, Department> mapSnapshotFromFile() {
+    Path path = Paths.get(filePath);
+    MappedSnapshot snapshot;
+    try {
+      if (LegacySnapshotReader.isLegacySnapshot(path)) {
+        return readSnapshotFromFile();
+      }
+      snapshot = MappedSnapshot.open(path);
+    } catch (IOException e) {
+      EventLog.log(EventLog.Event.SNAPSHOT_NOT_MAPPED, e.getMessage());
+      return readSnapshotFromFile();
+    }
+
+    LazyDepartmentMap mapping = new LazyDepartmentMap(snapshot);
+    Thread warmUp = new Thread(mapping::warmUp, "snapshot-warmup");
+    warmUp.setDaemon(true);
+    warmUp.start();
+    return mapping;
+  }
+
+  /**
+   * Applies the segments written by the checkpointer and then the mutation log, if they exist,
+   * on top of the loaded snapshot.
+   */
+  private void replayMutationLog() {
+    try {
+      Checkpointer.loadSegments(segmentDir, departmentMapping);
+      MutationLog.replayAll(logPath, record -> record.applyTo(departmentMapping));
+    } catch (IOException e) {
+      EventLog.log(EventLog.Event.REPLAY_FAILED, e);
     }
   }
 
   /**
    * Saves the contents of the internal data structure to the file. Contents of the file are
-   * overwritten with this operation.
+   * overwritten with this operation. The snapshot is written to a temporary file first and then
+   * renamed over the old one, after which the segments and the mutation log are removed.
    */
   public void saveContentsToFile() {
-    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filePath))) {
-      out.writeObject(departmentMapping);
-      System.out.println("Object serialized successfully.");
+    FlightEvents.SnapshotSaveEvent event = new FlightEvents.SnapshotSaveEvent();
+    event.begin();
+    event.path = filePath;
+    try {
+      long start = System.nanoTime();
+      long size;
+      Checkpointer current = checkpointer;
+      if (current != null) {
+        size = current.saveAll(Paths.get(filePath));
+      } else {
+        size = SnapshotWriter.write(Paths.get(filePath), departmentMapping);
+        Checkpointer.deleteSegments(segmentDir);
+        if (mutationLog == null) {
+          MutationLog.deleteAll(logPath);
+        }
+      }
+      lastSaveDurationNanos = System.nanoTime() - start;
+      bytesWritten.addAndGet(size);
+      snapshotTimeMillis = System.currentTimeMillis();
+      event.bytes = size;
+      event.succeeded = true;
+      EventLog.log(EventLog.Event.SNAPSHOT_SAVED);
     } catch (IOException e) {
-      e.printStackTrace();
+      EventLog.log(EventLog.Event.SNAPSHOT_SAVE_FAILED, e);
     }
+    event.commit();
+  }
+
+  /**
+   * Deletes the segments and the mutation log kept next to the file at the given path, so that
+   * none of their changes are applied when a snapshot that replaced the file is loaded. The
+   * mutation log must not be open.
+   *
+   * @param filePath the path to the file containing the entries of the database
+   * @throws IOException if a segment or log file cannot be deleted
+   */
+  public static void deleteChanges(String filePath) throws IOException {
+    Checkpointer.deleteSegments(Paths.get(filePath + ".segments"));
+    MutationLog.deleteAll(Paths.get(filePath + ".wal"));
+  }
+
+  /**
+   * Gets how long the constructor took to load the database. With flag 2 this excludes the
+   * departments decoded later.
+   *
+   * @return the load duration in nanoseconds
+   */
+  public long getLoadDurationNanos() {
+    return this.loadDurationNanos;
+  }
+
+  /**
+   * Gets how long the most recent {@link #saveContentsToFile()} took.
+   *
+   * @return the save duration in nanoseconds, or 0 if nothing has been saved
+   */
+  public long getLastSaveDurationNanos() {
+    return this.lastSaveDurationNanos;
+  }
+
+  /**
+   * Gets the total size of the snapshots written by {@link #saveContentsToFile()}.
+   *
+   * @return the number of bytes written
+   */
+  public long getBytesWritten() {
+    return this.bytesWritten.get();
+  }
+
+  /**
+   * Gets when the snapshot file was last written, either by this database or, for a loaded
+   * snapshot, before it was loaded.
+   *
+   * @return the time in milliseconds since the epoch, or -1 if unknown
+   */
+  public long getSnapshotTimeMillis() {
+    return this.snapshotTimeMillis;
   }
 
   /**
    * Gets the department mapping of the database.
    *
-   * @return the department mapping
+   * @return a read-only view of the department mapping
    */
-  public HashMap<String, Department> getDepartmentMapping() {
-    return this.departmentMapping;
+  public Map<String, Department> getDepartmentMapping() {
+    return Collections.unmodifiableMap(this.departmentMapping);
   }
 
   /**
@@ -98,8 +451,47 @@ public class MyFileDatabase {
    */
   private final String filePath;
 
+  /**
+   * The path to the mutation log kept next to the file.
+   */
+  private final Path logPath;
+
+  /**
+   * The directory of per-department segments written by the checkpointer.
+   */
+  private final Path segmentDir;
+
+  /**
+   * The mutation log, or null if changes are only saved at shutdown.
+   */
+  private volatile MutationLog mutationLog;
+
+  /**
+   * The checkpointer of the mutation log, or null if the log is not open.
+   */
+  private volatile Checkpointer checkpointer;
+
   /**
    * The mapping of department names to Department objects.
    */
-  private HashMap<String, Department> departmentMapping;
+  private volatile Map<String, Department> departmentMapping;
+
+  /**
+   * The index of courses by course ID across all departments.
+   */
+  private volatile CourseIndex courseIndex;
+
+  /**
+   * Guards opening and closing the mutation log. A {@link ReentrantLock} rather than a monitor,
+   * since closing the log blocks on file I/O and may run on a virtual thread.
+   */
+  private final ReentrantLock lifecycleLock = new ReentrantLock();
+
+  /**
+   * Timings and sizes reported by the metrics endpoint.
+   */
+  private final long loadDurationNanos;
+  private volatile long lastSaveDurationNanos;
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private volatile long snapshotTimeMillis = -1;
 }
@@ -0,0 +1,94 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * A response body with a JSON form and a plain text form, between which the client chooses
+ * with its {@code Accept} header. The JSON form is either streamed from a typed DTO or rendered
+ * in advance, typically from a {@link ResponseCache}; the text form is the body the endpoint
+ * returned before it produced JSON. A form is only rendered if it is requested. Both are
+ * written by {@link JsonBodyMessageConverter}.
+ */
+public final class NegotiatedBody implements JsonBody {
+
+  /**
+   * Creates a body whose JSON form is streamed.
+   *
+   * @param json the JSON form
+   * @param text supplies the rendered text form
+   */
+  public NegotiatedBody(JsonBody json, Supplier<RenderedBody> text) {
+    this(json, null, text);
+  }
+
+  private NegotiatedBody(JsonBody json, Supplier<RenderedBody> renderedJson,
+                         Supplier<RenderedBody> text) {
+    this.json = json;
+    this.renderedJson = renderedJson;
+    this.text = text;
+  }
+
+  /**
+   * Creates a body whose JSON form is rendered in advance.
+   *
+   * @param json supplies the rendered JSON form
+   * @param text supplies the rendered text form
+   * @return the body
+   */
+  public static NegotiatedBody rendered(Supplier<RenderedBody> json,
+                                        Supplier<RenderedBody> text) {
+    return new NegotiatedBody(null, json, text);
+  }
+
+  @Override
+  public void writeTo(JsonGenerator generator) throws IOException {
+    if (json != null) {
+      json.writeTo(generator);
+    } else {
+      generator.writeRawValue(getRenderedJson().toString());
+    }
+  }
+
+  /**
+   * Gets the streamed JSON form of the body.
+   *
+   * @return the DTO written as JSON, or null if the JSON form is rendered in advance
+   */
+  public JsonBody getJson() {
+    return this.json;
+  }
+
+  /**
+   * Renders the JSON form of the body.
+   *
+   * @return the rendered JSON
+   */
+  public RenderedBody getRenderedJson() {
+    return json != null ? RenderedBody.ofJson(json) : renderedJson.get();
+  }
+
+  /**
+   * Renders the text form of the body.
+   *
+   * @return the rendered text
+   */
+  public RenderedBody getText() {
+    return this.text.get();
+  }
+
+  /**
+   * Renders the text form of the body.
+   *
+   * @return the text
+   */
+  @Override
+  public String toString() {
+    return getText().toString();
+  }
+
+  private final JsonBody json;
+  private final Supplier<RenderedBody> renderedJson;
+  private final Supplier<RenderedBody> text;
+}
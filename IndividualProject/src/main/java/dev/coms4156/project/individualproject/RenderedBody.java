@@ -0,0 +1,68 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A response body that was rendered and encoded to UTF-8 once, so it can be written to any
+ * number of responses without being encoded again. It is written by
+ * {@link RenderedBodyMessageConverter}, or by {@link JsonBodyMessageConverter} when it is the
+ * JSON form of a {@link NegotiatedBody}.
+ */
+public final class RenderedBody {
+
+  /**
+   * Encodes the given text.
+   *
+   * @param text the text of the response body
+   */
+  public RenderedBody(String text) {
+    this.bytes = text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private RenderedBody(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Writes a JSON body and keeps the encoded result.
+   *
+   * @param json the body to write
+   * @return the rendered JSON
+   */
+  public static RenderedBody ofJson(JsonBody json) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (JsonGenerator generator =
+             JsonBodyMessageConverter.JSON_FACTORY.createGenerator(bytes, JsonEncoding.UTF8)) {
+      json.writeTo(generator);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new RenderedBody(bytes.toByteArray());
+  }
+
+  /**
+   * Gets the encoded body. The returned array must not be modified.
+   *
+   * @return the UTF-8 bytes of the body
+   */
+  public byte[] getBytes() {
+    return this.bytes;
+  }
+
+  /**
+   * Decodes the body back to text.
+   *
+   * @return the text of the body
+   */
+  @Override
+  public String toString() {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private final byte[] bytes;
+}
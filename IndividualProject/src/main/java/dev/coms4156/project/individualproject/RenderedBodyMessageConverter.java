@@ -0,0 +1,48 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes a {@link RenderedBody} by copying its bytes to the response as they are.
+ */
+public class RenderedBodyMessageConverter extends AbstractHttpMessageConverter<RenderedBody> {
+
+  /**
+   * Creates a converter that writes rendered bodies for every media type.
+   */
+  public RenderedBodyMessageConverter() {
+    super(MediaType.ALL);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return RenderedBody.class == clazz;
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected RenderedBody readInternal(Class<? extends RenderedBody> clazz,
+                                      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Rendered bodies cannot be read.", inputMessage);
+  }
+
+  @Override
+  protected Long getContentLength(RenderedBody body, MediaType contentType) {
+    return (long) body.getBytes().length;
+  }
+
+  @Override
+  protected void writeInternal(RenderedBody body, HttpOutputMessage outputMessage)
+      throws IOException {
+    outputMessage.getBody().write(body.getBytes());
+  }
+}
@@ -0,0 +1,232 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of rendered department and course responses, in both their text and their
+ * JSON form.
+ *
+ * <p>Entries are keyed by the Department or Course object they were rendered from and remember
+ * what the rendering depended on: the details version of a department, which changes when a
+ * course is added to it or one of its courses is reassigned, or the instructor, location and
+ * time slot of a course. An entry is only returned while those are unchanged, so every change
+ * invalidates exactly the entries it affects, including changes that race with the rendering.
+ * Enrollment changes do not show up in the rendered text and therefore keep the entries valid.
+ * The JSON form does include the enrolled counts and the number of majors, so its entries
+ * remember the full version of the department or course instead, which every change advances.
+ *
+ * <p>The cache is split into segments, each an access-ordered map guarded by its own lock, and
+ * the least recently used entry of a segment is evicted once the segment is full.
+ */
+public class ResponseCache {
+
+  /** The number of entries kept by default. */
+  public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+  /**
+   * Creates a cache holding at most about the given number of entries.
+   *
+   * @param maxEntries the maximum number of entries
+   */
+  public ResponseCache(int maxEntries) {
+    int segmentCapacity = Math.max(1, maxEntries / SEGMENT_COUNT);
+    this.segments = new Segment[SEGMENT_COUNT];
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+  }
+
+  /**
+   * Gets the rendered details of a department, rendering them if they are not cached.
+   *
+   * @param department the department
+   * @return the body of the {@code /retrieveDept} response
+   */
+  public RenderedBody department(Department department) {
+    Segment segment = segmentFor(department);
+    long version = department.getDetailsVersion();
+    Entry entry = segment.get(department);
+    if (entry != null && entry.version == version) {
+      return entry.body;
+    }
+    RenderedBody body = new RenderedBody(department.toString());
+    segment.put(department, new Entry(body, version, null, null, null));
+    return body;
+  }
+
+  /**
+   * Gets the rendered details of a course, rendering them if they are not cached.
+   *
+   * @param course the course
+   * @return the body of the {@code /retrieveCourse} response
+   */
+  public RenderedBody course(Course course) {
+    Segment segment = segmentFor(course);
+    String instructorName = course.getInstructorName();
+    String courseLocation = course.getCourseLocation();
+    String courseTimeSlot = course.getCourseTimeSlot();
+    Entry entry = segment.get(course);
+    if (entry != null && entry.instructorName == instructorName
+        && entry.courseLocation == courseLocation && entry.courseTimeSlot == courseTimeSlot) {
+      return entry.body;
+    }
+    RenderedBody body = new RenderedBody(course.toString());
+    segment.put(course, new Entry(body, 0, instructorName, courseLocation, courseTimeSlot));
+    return body;
+  }
+
+  /**
+   * Gets the JSON form of a department, writing it if it is not cached. The department must be
+   * read under the read lock of {@link DepartmentLocks}, so its courses agree with each other.
+   *
+   * @param department the department
+   * @return the JSON body of the {@code /retrieveDept} response
+   */
+  public RenderedBody departmentJson(Department department) {
+    Segment segment = segmentFor(department);
+    JsonKey key = new JsonKey(department);
+    // Read before the body is written, so a change that races with it invalidates the entry.
+    long version = department.getVersion();
+    Entry entry = segment.get(key);
+    if (entry != null && entry.version == version) {
+      return entry.body;
+    }
+    RenderedBody body = RenderedBody.ofJson(DepartmentDto.of(department));
+    segment.put(key, new Entry(body, version, null, null, null));
+    return body;
+  }
+
+  /**
+   * Gets the JSON form of a course, writing it if it is not cached.
+   *
+   * @param deptCode the code of the department offering the course
+   * @param courseId the ID of the course within the department
+   * @param course   the course
+   * @return the JSON body of the {@code /retrieveCourse} response
+   */
+  public RenderedBody courseJson(String deptCode, String courseId, Course course) {
+    Segment segment = segmentFor(course);
+    JsonKey key = new JsonKey(course);
+    long version = course.getVersion();
+    Entry entry = segment.get(key);
+    if (entry != null && entry.version == version) {
+      return entry.body;
+    }
+    RenderedBody body = RenderedBody.ofJson(CourseDto.of(deptCode, courseId, course));
+    segment.put(key, new Entry(body, version, null, null, null));
+    return body;
+  }
+
+  /**
+   * Gets the number of cached entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  private Segment segmentFor(Object key) {
+    int hash = System.identityHashCode(key);
+    return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+  }
+
+  /**
+   * The key of the JSON form of a department or course, which is the object itself for the
+   * text form.
+   */
+  private static final class JsonKey {
+
+    JsonKey(Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof JsonKey key && key.target == target;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(target);
+    }
+
+    private final Object target;
+  }
+
+  /**
+   * A rendered body together with the state it was rendered from.
+   */
+  private static final class Entry {
+
+    Entry(RenderedBody body, long version, String instructorName, String courseLocation,
+          String courseTimeSlot) {
+      this.body = body;
+      this.version = version;
+      this.instructorName = instructorName;
+      this.courseLocation = courseLocation;
+      this.courseTimeSlot = courseTimeSlot;
+    }
+
+    private final RenderedBody body;
+    private final long version;
+    private final String instructorName;
+    private final String courseLocation;
+    private final String courseTimeSlot;
+  }
+
+  /**
+   * One lock-guarded part of the cache with least-recently-used eviction.
+   */
+  private static final class Segment {
+
+    Segment(int capacity) {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+          return size() > capacity;
+        }
+      };
+    }
+
+    Entry get(Object key) {
+      lock.lock();
+      try {
+        return entries.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void put(Object key, Entry entry) {
+      lock.lock();
+      try {
+        entries.put(key, entry);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return entries.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Object, Entry> entries;
+  }
+
+  private static final int SEGMENT_COUNT = 16;
+
+  private final Segment[] segments;
+}
@@ -1,18 +1,35 @@
 package dev.coms4156.project.individualproject;
 
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * This class contains all the API routes for the system.
+ *
+ * <p>Responses are JSON by default: courses and departments are written as {@link CourseDto} and
+ * {@link DepartmentDto}, and messages as JSON strings by {@link JsonMessageAdvice}. Clients that
+ * send {@code Accept: text/plain} get the plain text bodies instead. Departments and courses are
+ * sent with an {@link EntityTags entity tag} of their version, which both representations share,
+ * and with {@code Vary: Accept}. A request whose {@code If-None-Match} header holds the current
+ * tag is answered with 304 Not Modified without building a body.
+ *
+ * <p>Changes to the details of a course are made and logged under the write lock of the
+ * department in {@link DepartmentLocks}, and the department and course responses are built
+ * under an optimistic read of it, so they never show a change made halfway. Changes to the
+ * number of majors are made without the lock and only logged under it.
  */
 @RestController
 public class RouteController {
@@ -23,6 +40,45 @@ public class RouteController {
   private static final String COURSE_CODE = "courseCode";
   private static final String COURSE_NOT_FOUND = "Course Not Found";
   private static final String ATTRIBUTE_UPDATE_SUCCESS = "Attributed was updated successfully.";
+  private static final String HOLD_ID = "holdId";
+  private static final String HOLD_NOT_FOUND = "Hold Not Found";
+  private static final String LOG_UNAVAILABLE = "Changes cannot be saved right now.";
+
+  // Rendered department and course details, kept until they change
+  private final ResponseCache responseCache = new ResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES);
+
+  // Seats held for students who have yet to confirm
+  private final SeatHolds seatHolds;
+
+  // Applies enrollment changes to each course on a single thread, if enabled
+  private final CourseSequencer courseSequencer;
+
+  // Keeps reads from seeing changes to the details of a department made halfway
+  private final DepartmentLocks departmentLocks;
+
+  /**
+   * Creates a controller whose seat holds expire after the default time to live and which
+   * applies enrollment changes on the request threads.
+   */
+  public RouteController() {
+    this(new SeatHolds(SeatHolds.DEFAULT_TTL_SECONDS), new CourseSequencer(0),
+        new DepartmentLocks());
+  }
+
+  /**
+   * Creates a controller.
+   *
+   * @param seatHolds       the seats held for students who have yet to confirm
+   * @param courseSequencer the sequencer that applies enrollment changes to courses
+   * @param departmentLocks the locks that serialize changes to the details of departments
+   */
+  @Autowired
+  public RouteController(SeatHolds seatHolds, CourseSequencer courseSequencer,
+                         DepartmentLocks departmentLocks) {
+    this.seatHolds = seatHolds;
+    this.courseSequencer = courseSequencer;
+    this.departmentLocks = departmentLocks;
+  }
 
   /**
    * Redirects to the homepage.
@@ -45,17 +101,51 @@ public class RouteController {
    * @return A {@code ResponseEntity} object containing either the details of the Department and
    *         an HTTP 200 response or, an appropriate message indicating the proper response.
    */
-  @GetMapping(value = "/retrieveDept", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<?> retrieveDepartment(@RequestParam(value = DEPT_CODE) String deptCode) {
+  public ResponseEntity<?> retrieveDepartment(String deptCode) {
+    return retrieveDepartment(deptCode, null);
+  }
+
+  /**
+   * Returns the details of the specified department, unless the client already has them.
+   *
+   * @param deptCode    A {@code String} representing the department the user wishes
+   *                    to retrieve.
+   *
+   * @param ifNoneMatch A {@code String} representing the entity tags of the copies the client
+   *                    already has, or null if it has none.
+   *
+   * @return            A {@code ResponseEntity} object containing either the details of the
+   *                    Department and an HTTP 200 response, an HTTP 304 response without a body
+   *                    if the client's copy is current, or an appropriate message indicating the
+   *                    proper response.
+   */
+  @GetMapping(value = "/retrieveDept",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> retrieveDepartment(
+      @RequestParam(value = DEPT_CODE) String deptCode,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     try {
-      HashMap<String, Department> departmentMapping;
-      departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
+      String normalizedCode = CourseLookup.normalizeDeptCode(deptCode);
+      Department department =
+          IndividualProjectApplication.myFileDatabase.getDepartment(normalizedCode);
 
-      if (!departmentMapping.containsKey(deptCode.toUpperCase(Locale.ROOT))) {
+      if (department == null) {
         return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
       } else {
-        return new ResponseEntity<>(
-            departmentMapping.get(deptCode.toUpperCase(Locale.ROOT)).toString(), HttpStatus.OK);
+        return departmentLocks.read(normalizedCode, () -> {
+          // Read before the body is built, so the tag is never newer than the body.
+          String tag = EntityTags.of(department.getVersion());
+          if (EntityTags.matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag)
+                .varyBy(HttpHeaders.ACCEPT).build();
+          }
+          NegotiatedBody body = NegotiatedBody.rendered(
+              () -> departmentLocks.read(normalizedCode,
+                  () -> responseCache.departmentJson(department)),
+              () -> departmentLocks.read(normalizedCode,
+                  () -> responseCache.department(department)));
+          return ResponseEntity.ok().eTag(tag).varyBy(HttpHeaders.ACCEPT).body(body);
+        });
       }
 
     } catch (Exception e) {
@@ -77,28 +167,57 @@ public class RouteController {
    *                   course and an HTTP 200 response or, an appropriate message indicating the
    *                   proper response.
    */
-  @GetMapping(value = "/retrieveCourse", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveCourse(String deptCode, int courseCode) {
+    return retrieveCourse(deptCode, courseCode, null);
+  }
+
+  /**
+   * Displays the details of the requested course to the user unless the client already has
+   * them, or displays the proper error message in response to the request.
+   *
+   * @param deptCode    A {@code String} representing the department the user wishes
+   *                    to find the course in.
+   *
+   * @param courseCode  A {@code int} representing the course the user wishes
+   *                    to retrieve.
+   *
+   * @param ifNoneMatch A {@code String} representing the entity tags of the copies the client
+   *                    already has, or null if it has none.
+   *
+   * @return            A {@code ResponseEntity} object containing either the details of the
+   *                    course and an HTTP 200 response, an HTTP 304 response without a body if
+   *                    the client's copy is current, or an appropriate message indicating the
+   *                    proper response.
+   */
+  @GetMapping(value = "/retrieveCourse",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> retrieveCourse(
       @RequestParam(value = DEPT_CODE) String deptCode,
-      @RequestParam(value = COURSE_CODE) int courseCode) {
+      @RequestParam(value = COURSE_CODE) int courseCode,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     try {
-      boolean doesDepartmentExists = retrieveDepartment(deptCode).getStatusCode() == HttpStatus.OK;
-      if (doesDepartmentExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
-
-        if (!coursesMapping.containsKey(Integer.toString(courseCode))) {
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
+      switch (lookup.getOutcome()) {
+        case FOUND:
+          Course course = lookup.getCourse();
+          return departmentLocks.read(lookup.getDeptCode(), () -> {
+            String tag = EntityTags.of(course.getVersion());
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+              return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag)
+                  .varyBy(HttpHeaders.ACCEPT).build();
+            }
+            NegotiatedBody body = NegotiatedBody.rendered(
+                () -> departmentLocks.read(lookup.getDeptCode(), () -> responseCache.courseJson(
+                    lookup.getDeptCode(), lookup.getCourseId(), course)),
+                () -> departmentLocks.read(lookup.getDeptCode(),
+                    () -> responseCache.course(course)));
+            return ResponseEntity.ok().eTag(tag).varyBy(HttpHeaders.ACCEPT).body(body);
+          });
+        case COURSE_NOT_FOUND:
           return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
-        } else {
-          return new ResponseEntity<>(coursesMapping.get(Integer.toString(courseCode)).toString(),
-              HttpStatus.OK);
-        }
-
+        default:
+          return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
       }
-      return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
     } catch (Exception e) {
       return handleException(e);
     }
@@ -115,31 +234,75 @@ public class RouteController {
    *                   courses found and an HTTP 200 response or an appropriate message indicating
    *                   the proper response.
    */
-  @GetMapping(value = "/retrieveCourses", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/retrieveCourses",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> retrieveCourses(@RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      HashMap<String, Department> departmentMapping;
-      departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-
-      StringBuilder result = new StringBuilder();
-
-      for (Map.Entry<String, Department> entry : departmentMapping.entrySet()) {
-        String deptCode = entry.getKey();
-        Department dept = entry.getValue();
-
-        HashMap<String, Course> coursesMapping = dept.getCourseSelection();
+      Map<String, Course> coursesMapping;
+      coursesMapping = IndividualProjectApplication.myFileDatabase
+          .findCourses(CourseLookup.courseId(courseCode));
 
-        if (coursesMapping.containsKey(Integer.toString(courseCode))) {
-          Course course = coursesMapping.get(Integer.toString(courseCode));
-          result.append(deptCode).append(" ").append(Integer.toString(courseCode)).append(":")
-              .append(course.toString()).append("\n\n");
-        }
-      }
-      if (result.length() == 0) {
+      if (coursesMapping.isEmpty()) {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
-      } else {
-        return new ResponseEntity<>(result.toString(), HttpStatus.OK);
       }
+      String courseId = CourseLookup.courseId(courseCode);
+      List<CourseDto> courses = new ArrayList<>(coursesMapping.size());
+      for (Map.Entry<String, Course> entry : coursesMapping.entrySet()) {
+        courses.add(departmentLocks.read(entry.getKey(),
+            () -> CourseDto.of(entry.getKey(), courseId, entry.getValue())));
+      }
+      JsonBody json = generator -> {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("courses");
+        for (CourseDto course : courses) {
+          course.writeTo(generator);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      };
+      return new ResponseEntity<>(new NegotiatedBody(json, () -> {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, Course> entry : coursesMapping.entrySet()) {
+          result.append(entry.getKey()).append(" ").append(courseCode).append(":")
+              .append(departmentLocks.read(entry.getKey(), entry.getValue()::toString))
+              .append("\n\n");
+        }
+        return new RenderedBody(result.toString());
+      }), HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns selected attributes of many courses in one streamed JSON response. Each distinct
+   * course is resolved once, and courses that are not found are reported with their status
+   * instead of failing the request.
+   *
+   * @param courses    A {@code List} of up to 1000 courses, each written as the department code
+   *                   and the course code separated by a colon, such as {@code COMS:4156}.
+   *
+   * @param fields     A {@code List} of the attributes to return, out of {@code instructor},
+   *                   {@code location}, {@code time}, {@code capacity}, {@code enrolled} and
+   *                   {@code full}. All of them are returned if it is omitted.
+   *
+   * @return           A {@code ResponseEntity} object containing either the attributes of the
+   *                   courses and an HTTP 200 response or, an appropriate message indicating the
+   *                   proper response.
+   */
+  @GetMapping(value = "/retrieveCourseDetails", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveCourseDetails(
+      @RequestParam(value = "courses") List<String> courses,
+      @RequestParam(value = "fields", required = false) List<String> fields) {
+    try {
+      CourseQuery query;
+      try {
+        query = CourseQuery.resolve(IndividualProjectApplication.myFileDatabase, courses,
+            fields == null ? List.of() : fields);
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+      }
+      return new ResponseEntity<>(query, HttpStatus.OK);
     } catch (Exception e) {
       return handleException(e);
     }
@@ -163,17 +326,10 @@ public class RouteController {
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
         return new ResponseEntity<>(requestedCourse.isCourseFull(), HttpStatus.OK);
       } else {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -194,15 +350,15 @@ public class RouteController {
    *                     specified department and an HTTP 200 response or, an appropriate message
    *                     indicating the proper response.
    */
-  @GetMapping(value = "/getMajorCountFromDept", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/getMajorCountFromDept",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> getMajorCtFromDept(@RequestParam(value = DEPT_CODE) String deptCode) {
     try {
-      boolean doesDepartmentExists = retrieveDepartment(deptCode).getStatusCode() == HttpStatus.OK;
-      if (doesDepartmentExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        return new ResponseEntity<>("There are: "
-            + departmentMapping.get(deptCode.toUpperCase(Locale.ROOT)).getNumberOfMajors()
+      String normalizedCode = CourseLookup.normalizeDeptCode(deptCode);
+      Department department;
+      department = IndividualProjectApplication.myFileDatabase.getDepartment(normalizedCode);
+      if (department != null) {
+        return new ResponseEntity<>("There are: " + department.getNumberOfMajors()
             + " majors in the department", HttpStatus.OK);
       }
       return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -221,15 +377,16 @@ public class RouteController {
    *                  specified department and an HTTP 200 response or, an appropriate message
    *                  indicating the proper response.
    */
-  @GetMapping(value = "/idDeptChair", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/idDeptChair",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> identifyDeptChair(@RequestParam(value = DEPT_CODE) String deptCode) {
     try {
-      boolean doesDepartmentExists = retrieveDepartment(deptCode).getStatusCode() == HttpStatus.OK;
-      if (doesDepartmentExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        return new ResponseEntity<>(departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getDepartmentChair() + " is the department chair.", HttpStatus.OK);
+      String normalizedCode = CourseLookup.normalizeDeptCode(deptCode);
+      Department department;
+      department = IndividualProjectApplication.myFileDatabase.getDepartment(normalizedCode);
+      if (department != null) {
+        return new ResponseEntity<>(department.getDepartmentChair()
+            + " is the department chair.", HttpStatus.OK);
       }
       return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
     } catch (Exception e) {
@@ -250,22 +407,16 @@ public class RouteController {
    *                   course and an HTTP 200 response or, an appropriate message indicating the
    *                   proper response.
    */
-  @GetMapping(value = "/findCourseLocation", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/findCourseLocation",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> findCourseLocation(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
-
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
         return new ResponseEntity<>(requestedCourse.getCourseLocation() + " is where the course "
             + "is located.", HttpStatus.OK);
       } else {
@@ -290,22 +441,16 @@ public class RouteController {
    *                   an HTTP 200 response or, an appropriate message indicating the proper
    *                   response.
    */
-  @GetMapping(value = "/findCourseInstructor", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/findCourseInstructor",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> findCourseInstructor(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
         return new ResponseEntity<>(requestedCourse.getInstructorName() + " is the instructor for"
             + " the course.", HttpStatus.OK);
       } else {
@@ -330,22 +475,16 @@ public class RouteController {
    *                   course timeslot and an HTTP 200 response or, an appropriate message
    *                   indicating the proper response.
    */
-  @GetMapping(value = "/findCourseTime", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping(value = "/findCourseTime",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> findCourseTime(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
         return new ResponseEntity<>("The course meets at: " + requestedCourse.getCourseTimeSlot(),
             HttpStatus.OK);
       } else {
@@ -365,16 +504,21 @@ public class RouteController {
    *                       response with an appropriate message or the proper status
    *                       code in tune with what has happened.
    */
-  @PatchMapping(value = "/addMajorToDept", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/addMajorToDept",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> addMajorToDept(@RequestParam(value = DEPT_CODE) String deptCode) {
     try {
-      boolean doesDepartmentExists = retrieveDepartment(deptCode).getStatusCode() == HttpStatus.OK;
-      if (doesDepartmentExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-
-        Department specifiedDept = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT));
-        specifiedDept.addPersonToMajor();
+      String normalizedCode = CourseLookup.normalizeDeptCode(deptCode);
+      Department department;
+      department = IndividualProjectApplication.myFileDatabase.getDepartment(normalizedCode);
+      if (department != null) {
+        checkWritable();
+        department.addPersonToMajor();
+        // The record reads the count again under the lock, so records of the department are
+        // logged in the order their counts were read, and the last one includes this change.
+        long sequence = departmentLocks.write(normalizedCode,
+            () -> logDepartmentUpdate(normalizedCode, department));
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
         return new ResponseEntity<>("Attribute was updated successfully", HttpStatus.OK);
       }
       return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -392,16 +536,19 @@ public class RouteController {
    *                       response with an appropriate message or the proper status
    *                       code in tune with what has happened.
    */
-  @PatchMapping(value = "/removeMajorFromDept", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/removeMajorFromDept",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> removeMajorFromDept(@RequestParam(value = DEPT_CODE) String deptCode) {
     try {
-      boolean doesDepartmentExists = retrieveDepartment(deptCode).getStatusCode() == HttpStatus.OK;
-      if (doesDepartmentExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-
-        Department specifiedDept = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT));
-        specifiedDept.dropPersonFromMajor();
+      String normalizedCode = CourseLookup.normalizeDeptCode(deptCode);
+      Department department;
+      department = IndividualProjectApplication.myFileDatabase.getDepartment(normalizedCode);
+      if (department != null) {
+        checkWritable();
+        department.dropPersonFromMajor();
+        long sequence = departmentLocks.write(normalizedCode,
+            () -> logDepartmentUpdate(normalizedCode, department));
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
         return new ResponseEntity<>("Attribute was updated or is at minimum", HttpStatus.OK);
       }
       return new ResponseEntity<>(DEPT_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -421,23 +568,22 @@ public class RouteController {
    *                       response with an appropriate message or the proper status
    *                       code in tune with what has happened.
    */
-  @PatchMapping(value = "/dropStudentFromCourse", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/dropStudentFromCourse",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> dropStudent(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
-
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
-        boolean isStudentDropped = requestedCourse.dropStudent();
+      if (lookup.isFound()) {
+        checkWritable();
+        boolean isStudentDropped = courseSequencer.apply(lookup, Course::dropStudent);
+        long sequence = 0;
+        if (isStudentDropped) {
+          sequence = logCourseUpdate(lookup);
+        }
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
 
         if (isStudentDropped) {
           return new ResponseEntity<>("Student has been dropped.", HttpStatus.OK);
@@ -463,28 +609,28 @@ public class RouteController {
    *                       response with an appropriate message or the proper status
    *                       code in tune with what has happened.
    */
-  @PatchMapping(value = "/enrollStudentInCourse", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/enrollStudentInCourse",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> enrollStudentInCourse(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode) {
     try {
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
-        boolean isEnrolled = requestedCourse.enrollStudent();
+      if (lookup.isFound()) {
+        checkWritable();
+        boolean isEnrolled = courseSequencer.apply(lookup, Course::enrollStudent);
+        long sequence = 0;
+        if (isEnrolled) {
+          sequence = logCourseUpdate(lookup);
+        }
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
 
         if (isEnrolled) {
           return new ResponseEntity<>("Student successfully enrolled in the course.",
               HttpStatus.OK);
         } else {
+          ServiceMetrics.markCourseFull();
           return new ResponseEntity<>("Student cannot be enrolled because the course is full.",
               HttpStatus.BAD_REQUEST);
         }
@@ -496,6 +642,244 @@ public class RouteController {
     }
   }
 
+  /**
+   * Attempts to enroll a student in several courses at once. The student is enrolled in every
+   * course or, if any course is full, in none of them, and the batch is logged as one record.
+   *
+   * @param courses        A {@code List} of courses, each written as the department code and
+   *                       the course code separated by a colon, such as {@code COMS:4156}.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with an appropriate message or the proper status
+   *                       code in tune with what has happened.
+   */
+  @PatchMapping(value = "/enrollStudentInCourses",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> enrollStudentInCourses(
+      @RequestParam(value = "courses") List<String> courses) {
+    try {
+      if (courses.isEmpty() || courses.size() > BatchEnrollment.MAX_COURSES) {
+        return new ResponseEntity<>("Between 1 and " + BatchEnrollment.MAX_COURSES
+            + " courses must be given.", HttpStatus.BAD_REQUEST);
+      }
+      List<CourseLookup> lookups = new ArrayList<>(courses.size());
+      Set<String> seen = new HashSet<>();
+      for (String course : courses) {
+        CourseLookup lookup = lookupCourse(course);
+        if (lookup == null) {
+          return new ResponseEntity<>("Invalid course: " + course, HttpStatus.BAD_REQUEST);
+        }
+        if (!lookup.isFound()) {
+          return new ResponseEntity<>(COURSE_NOT_FOUND + ": " + course, HttpStatus.NOT_FOUND);
+        }
+        if (!seen.add(lookup.getKey())) {
+          return new ResponseEntity<>("Course given twice: " + course, HttpStatus.BAD_REQUEST);
+        }
+        lookups.add(lookup);
+      }
+
+      checkWritable();
+      BatchEnrollment batch =
+          BatchEnrollment.enroll(IndividualProjectApplication.myFileDatabase, lookups);
+      IndividualProjectApplication.myFileDatabase.awaitDurable(batch.getSequence());
+
+      if (batch.isEnrolled()) {
+        return new ResponseEntity<>("Student successfully enrolled in all " + lookups.size()
+            + " courses.", HttpStatus.OK);
+      } else {
+        ServiceMetrics.markCourseFull();
+        return new ResponseEntity<>("Student cannot be enrolled because "
+            + BatchEnrollment.describe(batch.getFullCourse())
+            + " is full. No seats were reserved.", HttpStatus.BAD_REQUEST);
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Puts a student on the waitlist of the specified course, or enrolls the student right away
+   * if a seat is free and nobody is waiting. Tickets on the waitlist are promoted into seats in
+   * the order they were issued whenever a student is dropped from the course.
+   *
+   * @param deptCode       A {@code String} representing the department.
+   *
+   * @param courseCode     A {@code int} representing the course within the department.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with the ticket and its position on the waitlist, or the
+   *                       proper status code in tune with what has happened.
+   */
+  @PatchMapping(value = "/joinWaitlist",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> joinWaitlist(
+      @RequestParam(value = DEPT_CODE) String deptCode,
+      @RequestParam(value = COURSE_CODE) int courseCode) {
+    try {
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
+
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
+        checkWritable();
+        int ticket = courseSequencer.apply(lookup, Course::joinWaitlist);
+        long sequence = logCourseUpdate(lookup);
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
+
+        int position = ticket == 0 ? 0 : requestedCourse.getWaitlistPosition(ticket);
+        if (position == 0) {
+          return new ResponseEntity<>("Student successfully enrolled in the course.",
+              HttpStatus.OK);
+        }
+        return new ResponseEntity<>("Student joined the waitlist with ticket " + ticket
+            + " at position " + position + ".", HttpStatus.OK);
+      } else {
+        return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Displays where a ticket stands on the waitlist of the specified course.
+   *
+   * @param deptCode       A {@code String} representing the department.
+   *
+   * @param courseCode     A {@code int} representing the course within the department.
+   *
+   * @param ticket         A {@code int} representing the ticket returned by
+   *                       {@code /joinWaitlist}.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with the position of the ticket, or whether it has been
+   *                       promoted, or the proper status code in tune with what has happened.
+   */
+  @GetMapping(value = "/getWaitlistPosition",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> getWaitlistPosition(
+      @RequestParam(value = DEPT_CODE) String deptCode,
+      @RequestParam(value = COURSE_CODE) int courseCode,
+      @RequestParam(value = "ticket") int ticket) {
+    try {
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
+
+      if (lookup.isFound()) {
+        int position = lookup.getCourse().getWaitlistPosition(ticket);
+        if (position < 0) {
+          return new ResponseEntity<>("Ticket Not Found", HttpStatus.NOT_FOUND);
+        } else if (position == 0) {
+          return new ResponseEntity<>("Ticket " + ticket + " has been promoted and the student"
+              + " is enrolled in the course.", HttpStatus.OK);
+        }
+        return new ResponseEntity<>("Ticket " + ticket + " is at position " + position
+            + " on the waitlist.", HttpStatus.OK);
+      } else {
+        return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Holds a seat in the specified course for a student who has yet to confirm. The seat counts
+   * against the capacity of the course and is freed again if the hold is neither confirmed nor
+   * released in time.
+   *
+   * @param deptCode       A {@code String} representing the department.
+   *
+   * @param courseCode     A {@code int} representing the course within the department.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with the ID of the hold, or the proper status code in tune
+   *                       with what has happened.
+   */
+  @PatchMapping(value = "/holdSeat",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> holdSeat(
+      @RequestParam(value = DEPT_CODE) String deptCode,
+      @RequestParam(value = COURSE_CODE) int courseCode) {
+    try {
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
+
+      if (lookup.isFound()) {
+        checkWritable();
+        long holdId = courseSequencer.apply(lookup, course -> seatHolds.hold(lookup));
+        if (holdId == 0) {
+          ServiceMetrics.markCourseFull();
+          return new ResponseEntity<>("Seat cannot be held because the course is full.",
+              HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>("Seat held with hold ID " + holdId + " for "
+            + seatHolds.getTtl().toSeconds() + " seconds.", HttpStatus.OK);
+      } else {
+        return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Enrolls the student a seat was held for.
+   *
+   * @param holdId         A {@code long} representing the hold returned by {@code /holdSeat}.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with an appropriate message or the proper status
+   *                       code in tune with what has happened.
+   */
+  @PatchMapping(value = "/confirmHold",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> confirmHold(@RequestParam(value = HOLD_ID) long holdId) {
+    try {
+      checkWritable();
+      CourseLookup lookup = seatHolds.take(holdId);
+      if (lookup == null) {
+        return new ResponseEntity<>(HOLD_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+      courseSequencer.apply(lookup, course -> {
+        course.confirmHeldSeat();
+        return null;
+      });
+      long sequence = logCourseUpdate(lookup);
+      IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
+      return new ResponseEntity<>("Student successfully enrolled in the course.", HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Frees a held seat without enrolling the student it was held for.
+   *
+   * @param holdId         A {@code long} representing the hold returned by {@code /holdSeat}.
+   *
+   * @return               A {@code ResponseEntity} object containing an HTTP 200
+   *                       response with an appropriate message or the proper status
+   *                       code in tune with what has happened.
+   */
+  @PatchMapping(value = "/releaseHold",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<?> releaseHold(@RequestParam(value = HOLD_ID) long holdId) {
+    try {
+      checkWritable();
+      CourseLookup lookup = seatHolds.take(holdId);
+      if (lookup == null) {
+        return new ResponseEntity<>(HOLD_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+      long sequence = 0;
+      if (courseSequencer.apply(lookup, Course::releaseHeldSeat)) {
+        // The seat went to a student on the waitlist.
+        sequence = logCourseUpdate(lookup);
+      }
+      IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
+      return new ResponseEntity<>("Hold has been released.", HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
   /**
    * Attempts to update the enrollment count for the specified course in the specified department.
    * The enrollment count can be set above the capacity of the specified course, but a warning
@@ -511,7 +895,8 @@ public class RouteController {
    *                       response with an appropriate message or the proper status
    *                       code in tune with what has happened.
    */
-  @PatchMapping(value = "/setEnrollmentCount", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/setEnrollmentCount",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> setEnrollmentCount(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode,
@@ -521,24 +906,22 @@ public class RouteController {
         return new ResponseEntity<>("Invalid enrollment count.", HttpStatus.BAD_REQUEST);
       }
 
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
-
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
+      if (lookup.isFound()) {
+        Course requestedCourse = lookup.getCourse();
+        checkWritable();
+        courseSequencer.apply(lookup, course -> {
+          course.setEnrolledStudentCount(count);
+          return null;
+        });
+        long sequence = logCourseUpdate(lookup);
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
 
         if (count > requestedCourse.getEnrollmentCapacity()) {
-          requestedCourse.setEnrolledStudentCount(count);
           return new ResponseEntity<>("Enrollment count has been set but please be aware that it"
               + " exceeds capacity of " + requestedCourse.getEnrollmentCapacity(), HttpStatus.OK);
         }
-        requestedCourse.setEnrolledStudentCount(count);
         return new ResponseEntity<>(ATTRIBUTE_UPDATE_SUCCESS, HttpStatus.OK);
       } else {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -560,7 +943,8 @@ public class RouteController {
    * @return                            a ResponseEntity with a success message if the operation is
    *                                    successful, or an error message if the course is not found
    */
-  @PatchMapping(value = "/changeCourseTime", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/changeCourseTime",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> changeCourseTime(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode,
@@ -570,18 +954,15 @@ public class RouteController {
         return new ResponseEntity<>("Invalid time slot.", HttpStatus.BAD_REQUEST);
       }
 
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
-        requestedCourse.reassignTime(time);
+      if (lookup.isFound()) {
+        checkWritable();
+        long sequence = departmentLocks.write(lookup.getDeptCode(), () -> {
+          lookup.getCourse().reassignTime(time);
+          return logCourseUpdate(lookup);
+        });
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
         return new ResponseEntity<>(ATTRIBUTE_UPDATE_SUCCESS, HttpStatus.OK);
       } else {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -604,7 +985,8 @@ public class RouteController {
    * @return                          a ResponseEntity with a success message if the operation is
    *                                  successful, or an error message if the course is not found
    */
-  @PatchMapping(value = "/changeCourseTeacher", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/changeCourseTeacher",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> changeCourseTeacher(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode,
@@ -614,18 +996,15 @@ public class RouteController {
         return new ResponseEntity<>("Invalid instructor name.", HttpStatus.BAD_REQUEST);
       }
 
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
-
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
-        requestedCourse.reassignInstructor(teacher);
+      if (lookup.isFound()) {
+        checkWritable();
+        long sequence = departmentLocks.write(lookup.getDeptCode(), () -> {
+          lookup.getCourse().reassignInstructor(teacher);
+          return logCourseUpdate(lookup);
+        });
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
         return new ResponseEntity<>(ATTRIBUTE_UPDATE_SUCCESS, HttpStatus.OK);
       } else {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -647,7 +1026,8 @@ public class RouteController {
    * @return                            a ResponseEntity with a success message if the operation is
    *                                    successful, or an error message if the course is not found
    */
-  @PatchMapping(value = "/changeCourseLocation", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PatchMapping(value = "/changeCourseLocation",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
   public ResponseEntity<?> changeCourseLocation(
       @RequestParam(value = DEPT_CODE) String deptCode,
       @RequestParam(value = COURSE_CODE) int courseCode,
@@ -657,18 +1037,15 @@ public class RouteController {
         return new ResponseEntity<>("Invalid location.", HttpStatus.BAD_REQUEST);
       }
 
-      boolean doesCourseExists;
-      doesCourseExists = retrieveCourse(deptCode, courseCode).getStatusCode() == HttpStatus.OK;
+      CourseLookup lookup = lookupCourse(deptCode, courseCode);
 
-      if (doesCourseExists) {
-        HashMap<String, Department> departmentMapping;
-        departmentMapping = IndividualProjectApplication.myFileDatabase.getDepartmentMapping();
-        HashMap<String, Course> coursesMapping;
-        coursesMapping = departmentMapping.get(deptCode.toUpperCase(Locale.ROOT))
-            .getCourseSelection();
-
-        Course requestedCourse = coursesMapping.get(Integer.toString(courseCode));
-        requestedCourse.reassignLocation(location);
+      if (lookup.isFound()) {
+        checkWritable();
+        long sequence = departmentLocks.write(lookup.getDeptCode(), () -> {
+          lookup.getCourse().reassignLocation(location);
+          return logCourseUpdate(lookup);
+        });
+        IndividualProjectApplication.myFileDatabase.awaitDurable(sequence);
         return new ResponseEntity<>(ATTRIBUTE_UPDATE_SUCCESS, HttpStatus.OK);
       } else {
         return new ResponseEntity<>(COURSE_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -678,8 +1055,67 @@ public class RouteController {
     }
   }
 
+  /**
+   * Resolves the requested course in the database.
+   *
+   * @param deptCode   the requested department code
+   * @param courseCode the requested course code
+   * @return the result of the lookup
+   */
+  private static CourseLookup lookupCourse(String deptCode, int courseCode) {
+    return CourseLookup.resolve(IndividualProjectApplication.myFileDatabase, deptCode, courseCode);
+  }
+
+  /**
+   * Records the current state of a resolved course in the mutation log. Must be called after
+   * the course was changed.
+   *
+   * @param lookup the resolved course that was changed
+   * @return the sequence number of the logged update
+   */
+  private static long logCourseUpdate(CourseLookup lookup) {
+    return IndividualProjectApplication.myFileDatabase.logCourseUpdate(
+        lookup.getDeptCode(), lookup.getCourseId(), lookup.getCourse());
+  }
+
+  /**
+   * Resolves a course written as the department code and the course code separated by a colon.
+   *
+   * @param course the course, such as {@code COMS:4156}
+   * @return the result of the lookup, or null if the course is malformed
+   */
+  private static CourseLookup lookupCourse(String course) {
+    return CourseLookup.resolve(IndividualProjectApplication.myFileDatabase, course);
+  }
+
+  /**
+   * Records the current state of a department in the mutation log. Must be called while holding
+   * the write lock of the department in {@link DepartmentLocks}.
+   *
+   * @param deptCode   the code of the department, in upper case
+   * @param department the department that was changed
+   * @return the sequence number of the logged update
+   */
+  private static long logDepartmentUpdate(String deptCode, Department department) {
+    return IndividualProjectApplication.myFileDatabase.logDepartmentUpdate(deptCode, department);
+  }
+
+  /**
+   * Refuses a change before it is made if it could not be logged. The refusal is turned into a
+   * response by {@link #handleException(Exception)}.
+   *
+   * @throws LogUnavailableException if the mutation log could not be written
+   */
+  private static void checkWritable() {
+    IndividualProjectApplication.myFileDatabase.checkWritable();
+  }
+
   private ResponseEntity<?> handleException(Exception e) {
-    System.out.println(e.toString());
+    if (e instanceof LogUnavailableException) {
+      // The mutation log has already reported why it cannot be written.
+      return new ResponseEntity<>(LOG_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    EventLog.log(EventLog.Event.REQUEST_FAILED, e);
     return new ResponseEntity<>("An Error has occurred", HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
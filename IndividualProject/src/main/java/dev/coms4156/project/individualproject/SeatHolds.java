@@ -0,0 +1,144 @@
+package dev.coms4156.project.individualproject;
+
+import jakarta.annotation.PreDestroy;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds seats for students while they confirm, and releases the seats of holds that are
+ * neither confirmed nor released in time.
+ *
+ * <p>Every hold is known by a random ID and expires after the same time to live. Expiry is
+ * scheduled on a {@link TimingWheel}, so creating and ending a hold costs the same however many
+ * holds are open. Confirming, releasing and expiring a hold all start by removing it from the
+ * table of open holds, and only the one that removes it goes on, so a held seat is confirmed or
+ * freed exactly once.
+ */
+@Component
+public class SeatHolds implements Closeable {
+
+  /**
+   * Creates the holds with the configured time to live.
+   *
+   * @param ttlSeconds the number of seconds a seat stays held unless confirmed or released
+   */
+  @Autowired
+  public SeatHolds(@Value("${individualproject.seat-hold-ttl-seconds:300}") long ttlSeconds) {
+    this(Duration.ofSeconds(ttlSeconds), DEFAULT_TICK_MILLIS);
+  }
+
+  /**
+   * Creates the holds.
+   *
+   * @param ttl        how long a seat stays held unless confirmed or released
+   * @param tickMillis the precision of the expiry in milliseconds
+   */
+  public SeatHolds(Duration ttl, long tickMillis) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("The time to live must be positive.");
+    }
+    this.ttl = ttl;
+    this.wheel = new TimingWheel(tickMillis, "seat-hold-expiry");
+  }
+
+  /**
+   * Holds a seat in a course.
+   *
+   * @param lookup the resolved course, which must be found
+   * @return the ID of the hold, or 0 if the course is full
+   */
+  public long hold(CourseLookup lookup) {
+    if (!lookup.getCourse().holdSeat()) {
+      return 0;
+    }
+    Hold hold = new Hold(lookup);
+    long holdId;
+    do {
+      holdId = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    } while (holdId == 0 || holds.putIfAbsent(holdId, hold) != null);
+    long id = holdId;
+    hold.timeout = wheel.schedule(() -> expire(id, hold), ttl.toMillis());
+    return holdId;
+  }
+
+  /**
+   * Ends an open hold so the caller can confirm or release its seat.
+   *
+   * @param holdId the ID of the hold
+   * @return the course the seat is held in, or null if no such hold is open
+   */
+  public CourseLookup take(long holdId) {
+    Hold hold = holds.remove(holdId);
+    if (hold == null) {
+      return null;
+    }
+    TimingWheel.Timeout timeout = hold.timeout;
+    if (timeout != null) {
+      timeout.cancel();
+    }
+    return hold.lookup;
+  }
+
+  /**
+   * Gets the number of open holds.
+   *
+   * @return the number of holds
+   */
+  public int size() {
+    return holds.size();
+  }
+
+  public Duration getTtl() {
+    return this.ttl;
+  }
+
+  /**
+   * Stops expiring holds.
+   */
+  @PreDestroy
+  @Override
+  public void close() {
+    wheel.close();
+  }
+
+  private void expire(long holdId, Hold hold) {
+    if (!holds.remove(holdId, hold)) {
+      return;
+    }
+    CourseLookup lookup = hold.lookup;
+    if (lookup.getCourse().releaseHeldSeat()) {
+      // The seat went to a waiting student, whose enrollment must survive a restart.
+      MyFileDatabase database = IndividualProjectApplication.myFileDatabase;
+      if (database != null) {
+        database.logCourseUpdate(lookup.getDeptCode(), lookup.getCourseId(), lookup.getCourse());
+      }
+    }
+  }
+
+  /**
+   * An open hold.
+   */
+  private static final class Hold {
+
+    Hold(CourseLookup lookup) {
+      this.lookup = lookup;
+    }
+
+    private final CourseLookup lookup;
+    private volatile TimingWheel.Timeout timeout;
+  }
+
+  /** The time to live of holds when none is configured. */
+  public static final long DEFAULT_TTL_SECONDS = 300;
+
+  private static final long DEFAULT_TICK_MILLIS = 100;
+
+  private final Duration ttl;
+  private final TimingWheel wheel;
+  private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+}
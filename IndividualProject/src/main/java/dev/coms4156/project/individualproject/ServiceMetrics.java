@@ -0,0 +1,227 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the number and duration of the requests served by each endpoint, split by outcome.
+ *
+ * <p>Recording a request costs a map lookup and a few {@link LongAdder} updates, which do not
+ * contend between threads, so the overhead per request stays well below a microsecond. The
+ * gauges describing the catalog and its persistence are only computed when
+ * {@link #snapshot()} is called.
+ */
+@Component
+public class ServiceMetrics {
+
+  /**
+   * The outcome of a request.
+   */
+  public enum Outcome {
+    OK("200"),
+    BAD_REQUEST("400"),
+    NOT_FOUND("404"),
+    SERVER_ERROR("500"),
+    COURSE_FULL("course full"),
+    OTHER("other");
+
+    Outcome(String label) {
+      this.label = label;
+    }
+
+    /**
+     * Gets the outcome of a response with the given status code.
+     *
+     * @param status the status code of the response
+     * @return the outcome
+     */
+    public static Outcome ofStatus(int status) {
+      switch (status) {
+        case 200:
+          return OK;
+        case 400:
+          return BAD_REQUEST;
+        case 404:
+          return NOT_FOUND;
+        case 500:
+          return SERVER_ERROR;
+        default:
+          return OTHER;
+      }
+    }
+
+    public String getLabel() {
+      return this.label;
+    }
+
+    private final String label;
+  }
+
+  /**
+   * Marks the request being handled by the current thread as rejected because the course is
+   * full, so it is recorded as {@link Outcome#COURSE_FULL} rather than by its status code.
+   */
+  public static void markCourseFull() {
+    COURSE_FULL_MARK.set(Boolean.TRUE);
+  }
+
+  /**
+   * Clears and returns the mark set by {@link #markCourseFull()} on the current thread.
+   *
+   * @return whether the current request was marked
+   */
+  static boolean takeCourseFullMark() {
+    if (COURSE_FULL_MARK.get() == null) {
+      return false;
+    }
+    COURSE_FULL_MARK.remove();
+    return true;
+  }
+
+  /**
+   * Records a served request.
+   *
+   * @param endpoint      the path of the endpoint
+   * @param outcome       the outcome of the request
+   * @param durationNanos how long the request took
+   */
+  public void record(String endpoint, Outcome outcome, long durationNanos) {
+    EndpointTimers timers = endpoints.get(endpoint);
+    if (timers == null) {
+      timers = endpoints.computeIfAbsent(endpoint, key -> new EndpointTimers());
+    }
+    timers.timers[outcome.ordinal()].record(durationNanos);
+  }
+
+  /**
+   * Gets the number of requests recorded for an endpoint and outcome.
+   *
+   * @param endpoint the path of the endpoint
+   * @param outcome  the outcome
+   * @return the number of requests
+   */
+  public long count(String endpoint, Outcome outcome) {
+    EndpointTimers timers = endpoints.get(endpoint);
+    return timers == null ? 0 : timers.timers[outcome.ordinal()].count.sum();
+  }
+
+  /**
+   * Takes a snapshot of every metric: the timers of each endpoint and outcome, the number of
+   * times each {@link EventLog} event was reported, gauges for the catalog held by the database,
+   * and the load and save statistics of the database.
+   *
+   * @return the metrics, as nested maps ready to be rendered as JSON
+   */
+  public Map<String, Object> snapshot() {
+    Map<String, Object> endpointMetrics = new TreeMap<>();
+    for (Map.Entry<String, EndpointTimers> endpoint : endpoints.entrySet()) {
+      Map<String, Object> outcomes = new LinkedHashMap<>();
+      for (Outcome outcome : Outcome.values()) {
+        Timer timer = endpoint.getValue().timers[outcome.ordinal()];
+        long count = timer.count.sum();
+        if (count > 0) {
+          Map<String, Object> values = new LinkedHashMap<>();
+          values.put("count", count);
+          values.put("totalMicros", timer.totalNanos.sum() / 1000);
+          values.put("meanMicros", timer.totalNanos.sum() / 1000.0 / count);
+          values.put("maxMicros", timer.maxNanos.get() / 1000.0);
+          outcomes.put(outcome.getLabel(), values);
+        }
+      }
+      endpointMetrics.put(endpoint.getKey(), outcomes);
+    }
+
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("endpoints", endpointMetrics);
+    metrics.put("events", eventCounts());
+    MyFileDatabase database = IndividualProjectApplication.myFileDatabase;
+    if (database != null) {
+      metrics.put("catalog", catalogGauges(database));
+      metrics.put("persistence", persistenceGauges(database));
+    }
+    return metrics;
+  }
+
+  private static Map<String, Object> eventCounts() {
+    Map<String, Object> counts = new TreeMap<>();
+    for (EventLog.Event event : EventLog.Event.values()) {
+      long count = EventLog.count(event);
+      if (count > 0) {
+        counts.put(event.name(), count);
+      }
+    }
+    return counts;
+  }
+
+  private static Map<String, Object> catalogGauges(MyFileDatabase database) {
+    long courses = 0;
+    long totalSeats = 0;
+    long enrolledSeats = 0;
+    Map<String, Department> mapping = database.getDepartmentMapping();
+    for (Department department : mapping.values()) {
+      for (Course course : department.getCourseSelection().values()) {
+        courses++;
+        totalSeats += course.getEnrollmentCapacity();
+        enrolledSeats += course.getEnrolledStudentCount();
+      }
+    }
+    Map<String, Object> gauges = new LinkedHashMap<>();
+    gauges.put("departments", mapping.size());
+    gauges.put("courses", courses);
+    gauges.put("totalSeats", totalSeats);
+    gauges.put("enrolledSeats", enrolledSeats);
+    return gauges;
+  }
+
+  private static Map<String, Object> persistenceGauges(MyFileDatabase database) {
+    long snapshotTime = database.getSnapshotTimeMillis();
+    Map<String, Object> gauges = new LinkedHashMap<>();
+    gauges.put("snapshotAgeSeconds",
+        snapshotTime < 0 ? -1 : (System.currentTimeMillis() - snapshotTime) / 1000.0);
+    gauges.put("loadMillis", database.getLoadDurationNanos() / 1e6);
+    gauges.put("lastSaveMillis", database.getLastSaveDurationNanos() / 1e6);
+    gauges.put("bytesWritten", database.getBytesWritten());
+    return gauges;
+  }
+
+  /**
+   * The timers of one endpoint, indexed by the ordinal of the outcome.
+   */
+  private static final class EndpointTimers {
+
+    EndpointTimers() {
+      for (int i = 0; i < timers.length; i++) {
+        timers[i] = new Timer();
+      }
+    }
+
+    private final Timer[] timers = new Timer[Outcome.values().length];
+  }
+
+  /**
+   * The number, total duration and longest duration of a kind of request.
+   */
+  private static final class Timer {
+
+    void record(long durationNanos) {
+      count.increment();
+      totalNanos.add(durationNanos);
+      if (durationNanos > maxNanos.get()) {
+        maxNanos.accumulate(durationNanos);
+      }
+    }
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  }
+
+  private static final ThreadLocal<Boolean> COURSE_FULL_MARK = new ThreadLocal<>();
+
+  private final Map<String, EndpointTimers> endpoints = new ConcurrentHashMap<>();
+}
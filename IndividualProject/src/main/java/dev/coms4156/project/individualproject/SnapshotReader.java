@@ -0,0 +1,119 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Reads department mappings written by {@link SnapshotWriter}.
+ */
+public final class SnapshotReader {
+
+  private SnapshotReader() {
+  }
+
+  /**
+   * Reads the whole snapshot at the given path. Snapshots of every supported format version
+   * are read sequentially, without using the department index.
+   *
+   * @param path the path of the snapshot file
+   * @return the mapping of department codes to Department objects
+   * @throws IOException if the file is not a valid snapshot
+   */
+  public static HashMap<String, Department> read(Path path) throws IOException {
+    try (InputStream fileIn = Files.newInputStream(path);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, BUFFER_SIZE))) {
+      int magic = in.readInt();
+      if (magic != SnapshotWriter.MAGIC) {
+        throw new IOException("Not a snapshot file: " + path);
+      }
+      short version = in.readShort();
+      int departmentCount = in.readInt();
+      if (version >= INDEXED_FORMAT_VERSION && version <= SnapshotWriter.FORMAT_VERSION) {
+        in.readLong();
+      } else if (version != FIRST_FORMAT_VERSION) {
+        throw new IOException("Unsupported snapshot format version: " + version);
+      }
+
+      HashMap<String, Department> mapping = new HashMap<>(capacityFor(departmentCount));
+      byte[] block = new byte[BUFFER_SIZE];
+      CRC32 crc = new CRC32();
+      for (int i = 0; i < departmentCount; i++) {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length < 0) {
+          throw new IOException("Corrupted department block in snapshot.");
+        }
+        if (length > block.length) {
+          block = new byte[length];
+        }
+        in.readFully(block, 0, length);
+        crc.reset();
+        crc.update(block, 0, length);
+        if ((int) crc.getValue() != checksum) {
+          throw new IOException("Checksum mismatch in department block " + i + ".");
+        }
+        Department department = decodeDepartment(
+            new DataInputStream(new ByteArrayInputStream(block, 0, length)), version);
+        mapping.put(department.getDeptCode(), department);
+      }
+      return mapping;
+    }
+  }
+
+  /**
+   * Decodes the payload of a department block written by
+   * {@link SnapshotWriter#encodeDepartment}. Course versions are only present from format
+   * version 3 and waitlists from format version 4; courses read from older snapshots start at
+   * version 0 with an empty waitlist.
+   *
+   * @param in            the input to read the payload from
+   * @param formatVersion the format version of the snapshot holding the block
+   * @return the decoded department
+   * @throws IOException if the payload is truncated
+   */
+  public static Department decodeDepartment(DataInput in, short formatVersion)
+      throws IOException {
+    String deptCode = in.readUTF();
+    String departmentChair = in.readUTF();
+    int numberOfMajors = in.readInt();
+    int courseCount = in.readInt();
+    HashMap<String, Course> courses = new HashMap<>(capacityFor(courseCount));
+    for (int i = 0; i < courseCount; i++) {
+      String courseId = in.readUTF();
+      Course course = new Course(in.readUTF(), in.readUTF(), in.readUTF(), in.readInt());
+      int enrolledCount = in.readInt();
+      int version = formatVersion >= VERSIONED_FORMAT_VERSION ? in.readInt() : 0;
+      course.restoreEnrollment(enrolledCount, version);
+      if (formatVersion >= WAITLIST_FORMAT_VERSION) {
+        course.restoreWaitlist(in.readInt(), in.readInt());
+      }
+      courses.put(courseId, course);
+    }
+    return new Department(deptCode, courses, departmentChair, numberOfMajors);
+  }
+
+  static int capacityFor(int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  /** The first version of the format, which has no department index. */
+  private static final short FIRST_FORMAT_VERSION = 1;
+
+  /** The first version of the format with a department index. */
+  static final short INDEXED_FORMAT_VERSION = 2;
+
+  /** The first version of the format that stores course versions. */
+  private static final short VERSIONED_FORMAT_VERSION = 3;
+
+  /** The first version of the format that stores course waitlists. */
+  private static final short WAITLIST_FORMAT_VERSION = 4;
+  private static final int BUFFER_SIZE = 1 << 16;
+}
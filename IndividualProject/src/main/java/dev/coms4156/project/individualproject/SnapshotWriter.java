@@ -0,0 +1,223 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Writes the department mapping in the binary snapshot format.
+ *
+ * <p>A snapshot starts with a fixed-size header of
+ * {@code [magic][format version][department count][index offset]}, followed by one block per
+ * department framed as {@code [length][crc32][payload]}. The payload holds the department code,
+ * chair, number of majors and course count, followed by each course's ID, instructor, location,
+ * time slot, capacity, enrolled count, version and waitlist. Strings are written with their
+ * length as a prefix.
+ *
+ * <p>The header points at a department index, framed the same way, that maps every department
+ * code to the offset and length of its block so a reader can decode a single department without
+ * scanning the file. Because departments are streamed, the index is written after the last block
+ * and the header is filled in once the writer finishes.
+ */
+public class SnapshotWriter {
+
+  /** The first four bytes of every snapshot file. */
+  public static final int MAGIC = 0x43533431;
+
+  /** The version of the format written by this class. */
+  public static final short FORMAT_VERSION = 4;
+
+  /** The size in bytes of the header of the current format version. */
+  public static final int HEADER_SIZE = 18;
+
+  /** The size in bytes of the {@code [length][crc32]} frame in front of every block. */
+  public static final int FRAME_HEADER_SIZE = 8;
+
+  /**
+   * Creates a writer that streams a snapshot into the given channel, starting at position 0.
+   *
+   * @param channel the channel of the file to write the snapshot to
+   * @throws IOException if the header cannot be reserved
+   */
+  public SnapshotWriter(FileChannel channel) throws IOException {
+    this.channel = channel;
+    this.channel.truncate(0);
+    this.channel.position(0);
+    this.out = new DataOutputStream(
+        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    this.out.write(new byte[HEADER_SIZE]);
+    this.position = HEADER_SIZE;
+    this.indexOut.writeInt(0);
+  }
+
+  /**
+   * Writes the whole mapping to the file at the given path. The snapshot is written to a
+   * temporary file, forced to disk and then renamed over the target, so a crash never leaves a
+   * partially written snapshot behind.
+   *
+   * @param path    the path of the snapshot file
+   * @param mapping the mapping of department codes to Department objects
+   * @return the number of bytes written
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static long write(Path path, Map<String, Department> mapping) throws IOException {
+    return write(path, mapping.entrySet().iterator());
+  }
+
+  /**
+   * Writes the departments returned by an iterator to the file at the given path, in the same
+   * way as {@link #write(Path, Map)}. Each department is written as soon as the iterator returns
+   * it, so an iterator that creates departments on demand never needs more than one in memory.
+   *
+   * @param path        the path of the snapshot file
+   * @param departments the department codes and departments to write
+   * @return the number of bytes written
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static long write(Path path, Iterator<? extends Map.Entry<String, Department>> departments)
+      throws IOException {
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    long size;
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      SnapshotWriter writer = new SnapshotWriter(channel);
+      while (departments.hasNext()) {
+        Map.Entry<String, Department> entry = departments.next();
+        writer.writeDepartment(entry.getKey(), entry.getValue());
+      }
+      size = writer.finish();
+      channel.force(true);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return size;
+  }
+
+  /**
+   * Writes one department block.
+   *
+   * @param deptCode   the code of the department
+   * @param department the department to write
+   * @throws IOException if the block cannot be written
+   */
+  public void writeDepartment(String deptCode, Department department) throws IOException {
+    block.reset();
+    encodeDepartment(blockOut, deptCode, department);
+    blockOut.flush();
+
+    indexOut.writeUTF(deptCode);
+    indexOut.writeLong(position);
+    indexOut.writeInt(block.size());
+    departmentCount++;
+
+    out.writeInt(block.size());
+    out.writeInt(block.checksum());
+    block.writeTo(out);
+    position += FRAME_HEADER_SIZE + block.size();
+  }
+
+  /**
+   * Encodes the payload of a department block.
+   *
+   * @param out        the output to write the payload to
+   * @param deptCode   the code of the department
+   * @param department the department to encode
+   * @throws IOException if the payload cannot be written
+   */
+  public static void encodeDepartment(DataOutput out, String deptCode, Department department)
+      throws IOException {
+    Map<String, Course> courses = department.getCourseSelection();
+    out.writeUTF(deptCode);
+    out.writeUTF(department.getDepartmentChair());
+    out.writeInt(department.getNumberOfMajors());
+    out.writeInt(courses.size());
+    for (Map.Entry<String, Course> entry : courses.entrySet()) {
+      Course course = entry.getValue();
+      Course.State state = course.getState();
+      out.writeUTF(entry.getKey());
+      out.writeUTF(course.getInstructorName());
+      out.writeUTF(course.getCourseLocation());
+      out.writeUTF(course.getCourseTimeSlot());
+      out.writeInt(course.getEnrollmentCapacity());
+      out.writeInt(state.getEnrolledCount());
+      out.writeInt(state.getVersion());
+      out.writeInt(state.getWaitlistHead());
+      out.writeInt(state.getWaitlistTail());
+    }
+  }
+
+  /**
+   * Writes the department index and fills in the header. The channel is left open so the caller
+   * can force it to disk.
+   *
+   * @return the total number of bytes in the snapshot
+   * @throws IOException if the index or header cannot be written
+   */
+  public long finish() throws IOException {
+    indexOut.flush();
+    byte[] index = index();
+    CRC32 crc = new CRC32();
+    crc.update(index, 0, index.length);
+    out.writeInt(index.length);
+    out.writeInt((int) crc.getValue());
+    out.write(index);
+    out.flush();
+    long indexOffset = position;
+    position += FRAME_HEADER_SIZE + index.length;
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+        .putInt(MAGIC)
+        .putShort(FORMAT_VERSION)
+        .putInt(departmentCount)
+        .putLong(indexOffset)
+        .flip();
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+    return position;
+  }
+
+  private byte[] index() {
+    byte[] index = indexBytes.toByteArray();
+    ByteBuffer.wrap(index).putInt(departmentCount);
+    return index;
+  }
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final DataOutputStream out;
+  private final BlockBuffer block = new BlockBuffer();
+  private final DataOutputStream blockOut = new DataOutputStream(block);
+  private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+  private final DataOutputStream indexOut = new DataOutputStream(indexBytes);
+  private long position;
+  private int departmentCount;
+
+  /**
+   * A reusable buffer for one department block that can checksum its contents in place.
+   */
+  private static final class BlockBuffer extends ByteArrayOutputStream {
+
+    BlockBuffer() {
+      super(BUFFER_SIZE);
+    }
+
+    int checksum() {
+      CRC32 crc = new CRC32();
+      crc.update(buf, 0, count);
+      return (int) crc.getValue();
+    }
+  }
+}
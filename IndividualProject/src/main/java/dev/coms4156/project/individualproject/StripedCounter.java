@@ -0,0 +1,152 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A count that many threads can change at once without contending, and that never goes below
+ * zero.
+ *
+ * <p>Like {@link java.util.concurrent.atomic.LongAdder}, the count starts as a single atomic
+ * base value, and the first time two threads collide on it, it is spread over a fixed number of
+ * cells, one cache line apart, each of which a thread picks by its identity. The count is the
+ * sum of the base and the cells. Unlike a {@code LongAdder}, no cell ever holds a negative
+ * value: a decrement takes one from the cell of the calling thread if it has any, and otherwise
+ * from the base or from any other cell, so the count stays at or above zero whatever the
+ * threads do. A decrement that finds every part at zero fails. While increments to other cells
+ * race with it, it may fail although the count was positive, as if it had run just before
+ * them.
+ */
+public final class StripedCounter {
+
+  /**
+   * Creates a counter.
+   *
+   * @param initial the initial count
+   * @throws IllegalArgumentException if the initial count is negative
+   */
+  public StripedCounter(long initial) {
+    if (initial < 0) {
+      throw new IllegalArgumentException("The count must not be negative.");
+    }
+    this.base = new AtomicLong(initial);
+  }
+
+  /**
+   * Adds one to the count.
+   */
+  public void increment() {
+    AtomicLongArray striped = cells;
+    if (striped == null) {
+      long value = base.get();
+      if (base.compareAndSet(value, value + 1)) {
+        return;
+      }
+      striped = inflate();
+    }
+    striped.getAndIncrement(homeIndex());
+  }
+
+  /**
+   * Takes one from the count unless it is zero.
+   *
+   * @return true if the count was decremented, false if it was zero
+   */
+  public boolean tryDecrement() {
+    AtomicLongArray striped = cells;
+    if (striped != null && decrement(striped, homeIndex())) {
+      return true;
+    }
+    while (true) {
+      long value = base.get();
+      if (value <= 0) {
+        break;
+      }
+      if (base.compareAndSet(value, value - 1)) {
+        return true;
+      }
+    }
+    if (striped != null) {
+      for (int i = 0; i < striped.length(); i += PADDING) {
+        if (decrement(striped, i)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the count. While the count changes, the result may be off by the changes made during
+   * the call, like the sum of a {@code LongAdder}.
+   *
+   * @return the count, which is never negative
+   */
+  public long sum() {
+    long sum = base.get();
+    AtomicLongArray striped = cells;
+    if (striped != null) {
+      for (int i = 0; i < striped.length(); i += PADDING) {
+        sum += striped.get(i);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Replaces the count, for example when it is restored. Changes made at the same time may be
+   * lost.
+   *
+   * @param count the new count
+   * @throws IllegalArgumentException if the count is negative
+   */
+  public void set(long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("The count must not be negative.");
+    }
+    AtomicLongArray striped = cells;
+    if (striped != null) {
+      for (int i = 0; i < striped.length(); i += PADDING) {
+        striped.set(i, 0);
+      }
+    }
+    base.set(count);
+  }
+
+  private AtomicLongArray inflate() {
+    CELLS_UPDATER.compareAndSet(this, null, new AtomicLongArray(CELLS * PADDING));
+    return cells;
+  }
+
+  private static boolean decrement(AtomicLongArray striped, int index) {
+    while (true) {
+      long value = striped.get(index);
+      if (value <= 0) {
+        return false;
+      }
+      if (striped.compareAndSet(index, value, value - 1)) {
+        return true;
+      }
+    }
+  }
+
+  private static int homeIndex() {
+    int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+    return ((hash ^ (hash >>> 16)) & (CELLS - 1)) * PADDING;
+  }
+
+  /** The number of cells, the smallest power of two that is at least the number of CPUs. */
+  private static final int CELLS =
+      Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+  /** The distance between two cells in longs, so that no two share a cache line. */
+  private static final int PADDING = 8;
+
+  private static final AtomicReferenceFieldUpdater<StripedCounter, AtomicLongArray>
+      CELLS_UPDATER = AtomicReferenceFieldUpdater.newUpdater(
+          StripedCounter.class, AtomicLongArray.class, "cells");
+
+  private final AtomicLong base;
+  private volatile AtomicLongArray cells;
+}
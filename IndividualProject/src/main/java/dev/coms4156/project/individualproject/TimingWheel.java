@@ -0,0 +1,302 @@
+package dev.coms4156.project.individualproject;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs tasks after a delay using a hierarchical timing wheel, so that scheduling and cancelling
+ * take constant time however many tasks are pending.
+ *
+ * <p>Time advances in ticks of a fixed length. The wheel has {@link #LEVELS} levels of
+ * {@link #SLOTS} slots each: level 0 holds the tasks due within the current run of
+ * {@code SLOTS} ticks, one slot per tick, and each higher level covers {@code SLOTS} times the
+ * span of the level below it. A task is placed on the lowest level whose span reaches its
+ * deadline, and whenever the ticks enter a new slot of a higher level, the tasks of that slot
+ * are moved down, so every task is moved at most {@code LEVELS - 1} times before it runs.
+ *
+ * <p>A single background thread, started on first use, owns the slots. Other threads hand it
+ * new and cancelled tasks through lock-free queues, which it drains on every tick before
+ * running the tasks that are due. Tasks run on that thread and must therefore be short.
+ */
+public final class TimingWheel implements Closeable {
+
+  /**
+   * A scheduled task, which can be cancelled until it starts running.
+   */
+  public static final class Timeout {
+
+    private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+      this.wheel = wheel;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels the task if it has not run yet.
+     *
+     * @return true if the task was cancelled, false if it already ran or was cancelled
+     */
+    public boolean cancel() {
+      if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+        return false;
+      }
+      wheel.pending.decrement();
+      wheel.cancelled.offer(this);
+      return true;
+    }
+
+    private final TimingWheel wheel;
+    private final Runnable task;
+    private final long deadline;
+    private volatile int state;
+
+    // Owned by the thread of the wheel.
+    private Bucket bucket;
+    private Timeout previous;
+    private Timeout next;
+  }
+
+  /**
+   * Creates a wheel. Its thread is only started when the first task is scheduled.
+   *
+   * @param tickMillis the length of a tick in milliseconds, which is the precision of the wheel
+   * @param name       the name of the thread of the wheel
+   */
+  public TimingWheel(long tickMillis, String name) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("The tick must be positive.");
+    }
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.name = name;
+    this.buckets = new Bucket[LEVELS][SLOTS];
+    for (Bucket[] level : buckets) {
+      for (int i = 0; i < SLOTS; i++) {
+        level[i] = new Bucket();
+      }
+    }
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Schedules a task to run once after a delay, rounded up to whole ticks.
+   *
+   * @param task        the task to run on the thread of the wheel
+   * @param delayMillis the delay in milliseconds
+   * @return the scheduled task
+   * @throws IllegalArgumentException if the delay is negative
+   * @throws IllegalStateException    if the wheel is closed
+   */
+  public Timeout schedule(Runnable task, long delayMillis) {
+    if (delayMillis < 0) {
+      throw new IllegalArgumentException("The delay must not be negative.");
+    }
+    if (closed) {
+      throw new IllegalStateException("The timing wheel is closed.");
+    }
+    long elapsed = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    Timeout timeout = new Timeout(this, task, (elapsed + tickNanos - 1) / tickNanos);
+    pending.increment();
+    added.offer(timeout);
+    ensureStarted();
+    return timeout;
+  }
+
+  /**
+   * Gets the number of tasks that have been scheduled and have neither run nor been cancelled.
+   *
+   * @return the number of pending tasks
+   */
+  public long size() {
+    return pending.sum();
+  }
+
+  /**
+   * Stops the thread of the wheel. Pending tasks never run.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    Thread owner = thread;
+    if (owner != null) {
+      owner.interrupt();
+    }
+  }
+
+  private void ensureStarted() {
+    if (thread != null) {
+      return;
+    }
+    synchronized (this) {
+      if (thread == null && !closed) {
+        Thread owner = new Thread(this::run, name);
+        owner.setDaemon(true);
+        thread = owner;
+        owner.start();
+      }
+    }
+  }
+
+  private void run() {
+    long tick = 0;
+    while (!closed) {
+      long wait = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+        if (Thread.interrupted() && closed) {
+          return;
+        }
+        continue;
+      }
+      tick++;
+      advance(tick);
+    }
+  }
+
+  /**
+   * Moves the wheel to a tick and runs the tasks that are due.
+   *
+   * @param tick the new current tick
+   */
+  private void advance(long tick) {
+    this.currentTick = tick;
+    // Higher levels first, so tasks moved down can be moved down again on the same tick.
+    for (int level = LEVELS - 1; level > 0; level--) {
+      if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+        Timeout timeout = buckets[level][slot(tick, level)].clear();
+        while (timeout != null) {
+          Timeout next = timeout.next;
+          place(timeout);
+          timeout = next;
+        }
+      }
+    }
+    Timeout timeout;
+    while ((timeout = added.poll()) != null) {
+      if (timeout.state == PENDING) {
+        place(timeout);
+      }
+    }
+    while ((timeout = cancelled.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+    timeout = buckets[0][slot(tick, 0)].clear();
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      expire(timeout);
+      timeout = next;
+    }
+  }
+
+  /**
+   * Puts a task in the slot of the lowest level whose span reaches its deadline, or in the
+   * current slot of level 0 if it is already due. Tasks further away than the top level reaches
+   * go to the top level and are placed again whenever their slot comes round.
+   */
+  private void place(Timeout timeout) {
+    long deadline = Math.max(timeout.deadline, currentTick);
+    long delta = deadline - currentTick;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    buckets[level][slot(deadline, level)].add(timeout);
+  }
+
+  private void expire(Timeout timeout) {
+    if (!STATE.compareAndSet(timeout, PENDING, EXPIRED)) {
+      return;
+    }
+    pending.decrement();
+    try {
+      timeout.task.run();
+    } catch (RuntimeException e) {
+      EventLog.log(EventLog.Event.TIMER_TASK_FAILED, e);
+    }
+  }
+
+  private static int slot(long tick, int level) {
+    return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+  }
+
+  /**
+   * The tasks in one slot of the wheel, kept in a doubly linked list so a cancelled task can be
+   * unlinked in constant time.
+   */
+  private static final class Bucket {
+
+    void add(Timeout timeout) {
+      timeout.bucket = this;
+      timeout.previous = null;
+      timeout.next = head;
+      if (head != null) {
+        head.previous = timeout;
+      }
+      head = timeout;
+    }
+
+    void remove(Timeout timeout) {
+      if (timeout.previous != null) {
+        timeout.previous.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.previous = timeout.previous;
+      }
+      timeout.bucket = null;
+      timeout.previous = null;
+      timeout.next = null;
+    }
+
+    /**
+     * Empties the slot.
+     *
+     * @return the first task that was in the slot, linked to the others through {@code next}
+     */
+    Timeout clear() {
+      Timeout first = head;
+      head = null;
+      for (Timeout timeout = first; timeout != null; timeout = timeout.next) {
+        timeout.bucket = null;
+      }
+      return first;
+    }
+
+    private Timeout head;
+  }
+
+  /** The number of slots on each level. */
+  public static final int SLOTS = 64;
+
+  /** The number of levels. */
+  public static final int LEVELS = 4;
+
+  private static final int SLOT_BITS = Integer.numberOfTrailingZeros(SLOTS);
+
+  private static final int PENDING = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+
+  private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+  private final long tickNanos;
+  private final String name;
+  private final long startNanos;
+  private final Bucket[][] buckets;
+  private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+  private final LongAdder pending = new LongAdder();
+  private volatile Thread thread;
+  private volatile boolean closed;
+
+  // Owned by the thread of the wheel.
+  private long currentTick;
+}
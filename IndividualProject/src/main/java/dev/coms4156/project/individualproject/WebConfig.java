@@ -0,0 +1,36 @@
+package dev.coms4156.project.individualproject;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the message converters and interceptors used by the {@link RouteController}.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  /**
+   * Creates the configuration.
+   *
+   * @param metrics the metrics that requests are recorded in
+   */
+  public WebConfig(ServiceMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new MetricsInterceptor(metrics));
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new RenderedBodyMessageConverter());
+    converters.add(1, new JsonBodyMessageConverter());
+  }
+
+  private final ServiceMetrics metrics;
+}
@@ -0,0 +1,120 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the BatchEnrollment class
+ * to validate that a batch enrolls a student in every course or in none.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class BatchEnrollmentUnitTests {
+
+  /** The test instances used for testing. */
+  public static MyFileDatabase testDatabase;
+
+  /**
+   * This sets up a database with two departments whose mutation log is not open.
+   */
+  @BeforeEach
+  public void setupBatchEnrollmentForTesting() {
+    HashMap<String, Course> coms = new HashMap<>();
+    coms.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120));
+    coms.put("3157", new Course("Jae Lee", "417 IAB", "4:10-5:25", 2));
+    HashMap<String, Course> ieor = new HashMap<>();
+    ieor.put("2500", new Course("Uday Menon", "627 MUDD", "11:40-12:55", 2));
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", coms, "Luca Carloni", 2700));
+    mapping.put("IEOR", new Department("IEOR", ieor, "Jay Sethuraman", 67));
+    testDatabase = new MyFileDatabase(1, "unused");
+    testDatabase.setMapping(mapping);
+  }
+
+  @Test
+  public void enrollAllTest() {
+    BatchEnrollment batch = BatchEnrollment.enroll(testDatabase,
+        List.of(lookup("IEOR", 2500), lookup("COMS", 4156), lookup("COMS", 3157)));
+    assertTrue(batch.isEnrolled());
+    assertNull(batch.getFullCourse());
+    assertEquals(1, course("IEOR", 2500).getEnrolledStudentCount());
+    assertEquals(1, course("COMS", 4156).getEnrolledStudentCount());
+    assertEquals(1, course("COMS", 3157).getEnrolledStudentCount());
+  }
+
+  @Test
+  public void enrollNoneTest() {
+    course("IEOR", 2500).setEnrolledStudentCount(2);
+    BatchEnrollment batch = BatchEnrollment.enroll(testDatabase,
+        List.of(lookup("COMS", 4156), lookup("IEOR", 2500), lookup("COMS", 3157)));
+    assertFalse(batch.isEnrolled());
+    assertEquals("IEOR 2500", BatchEnrollment.describe(batch.getFullCourse()));
+    assertEquals(0, course("COMS", 4156).getEnrolledStudentCount());
+    assertEquals(0, course("COMS", 3157).getEnrolledStudentCount());
+    assertEquals(2, course("IEOR", 2500).getEnrolledStudentCount());
+  }
+
+  @Test
+  public void invalidBatchTest() {
+    assertThrows(IllegalArgumentException.class, () -> BatchEnrollment.enroll(testDatabase,
+        List.of(lookup("COMS", 4156), lookup("COMS", 4156))));
+    assertThrows(IllegalArgumentException.class, () -> BatchEnrollment.enroll(testDatabase,
+        List.of(lookup("COMS", 4156), lookup("COMS", 9999))));
+    assertEquals(0, course("COMS", 4156).getEnrolledStudentCount());
+  }
+
+  @Test
+  public void concurrentBatchesTest() throws InterruptedException {
+    // Batches name the same courses in opposite orders; both seats are taken by the same batch.
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger enrolled = new AtomicInteger();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      List<CourseLookup> lookups = i % 2 == 0
+          ? List.of(lookup("COMS", 3157), lookup("IEOR", 2500))
+          : List.of(lookup("IEOR", 2500), lookup("COMS", 3157));
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+          if (BatchEnrollment.enroll(testDatabase, lookups).isEnrolled()) {
+            enrolled.incrementAndGet();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join(10_000);
+      assertFalse(worker.isAlive());
+    }
+    assertEquals(2, enrolled.get());
+    assertEquals(2, course("COMS", 3157).getEnrolledStudentCount());
+    assertEquals(2, course("IEOR", 2500).getEnrolledStudentCount());
+  }
+
+  private static CourseLookup lookup(String deptCode, int courseCode) {
+    return CourseLookup.resolve(testDatabase, deptCode, courseCode);
+  }
+
+  private static Course course(String deptCode, int courseCode) {
+    return lookup(deptCode, courseCode).getCourse();
+  }
+}
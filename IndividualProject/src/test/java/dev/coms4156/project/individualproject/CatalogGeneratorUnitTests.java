@@ -0,0 +1,75 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the CatalogGenerator class
+ * to validate that generated catalogs are reproducible and well formed.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class CatalogGeneratorUnitTests {
+
+  /** The directory holding the generated snapshot for each test. */
+  @TempDir
+  public Path tempDir;
+
+  @Test
+  public void sameSeedSameCatalogTest() {
+    Department first = new CatalogGenerator(7).generateDepartment(3, 20);
+    Department second = new CatalogGenerator(7).generateDepartment(3, 20);
+    assertEquals(first.toString(), second.toString());
+    assertEquals(first.getDepartmentChair(), second.getDepartmentChair());
+    assertEquals(first.getNumberOfMajors(), second.getNumberOfMajors());
+
+    Department otherSeed = new CatalogGenerator(8).generateDepartment(3, 20);
+    assertNotEquals(first.toString(), otherSeed.toString());
+  }
+
+  @Test
+  public void deptCodeTest() {
+    assertEquals("AAAA", CatalogGenerator.deptCode(0));
+    assertEquals("AABB", CatalogGenerator.deptCode(27));
+    assertEquals("ZZZZ", CatalogGenerator.deptCode(26 * 26 * 26 * 26 - 1));
+    assertEquals("BAAAA", CatalogGenerator.deptCode(26 * 26 * 26 * 26));
+  }
+
+  @Test
+  public void generatedCoursesAreValidTest() {
+    Department department = new CatalogGenerator(4156).generateDepartment(0, 500);
+    Map<String, Course> courses = department.getCourseSelection();
+    assertEquals(500, courses.size());
+    for (Map.Entry<String, Course> entry : courses.entrySet()) {
+      int courseCode = Integer.parseInt(entry.getKey());
+      assertTrue(courseCode >= 1000 && courseCode <= 4999);
+      Course course = entry.getValue();
+      assertTrue(course.getEnrolledStudentCount() <= course.getEnrollmentCapacity());
+      assertTrue(course.getEnrollmentCapacity() >= 12);
+      assertNotEquals("TBD", course.getInstructorName());
+    }
+  }
+
+  @Test
+  public void writeSnapshotTest() throws IOException {
+    Path path = tempDir.resolve("data.txt");
+    new CatalogGenerator(11).writeSnapshot(path, 30, 40);
+
+    HashMap<String, Department> read = SnapshotReader.read(path);
+    assertEquals(30, read.size());
+    Department expected = new CatalogGenerator(11).generateDepartment(29, 40);
+    Department actual = read.get(CatalogGenerator.deptCode(29));
+    assertEquals(40, actual.getCourseSelection().size());
+    assertEquals(expected.toString(), actual.toString());
+  }
+}
@@ -0,0 +1,90 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the Checkpointer class
+ * to validate that changed departments are saved to segments and recovered.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class CheckpointerUnitTests {
+
+  /** The directory holding the data files for each test. */
+  @TempDir
+  public Path tempDir;
+
+  /** The test instances used for testing. */
+  public static Path testDataPath;
+  public static MyFileDatabase testDatabase;
+
+  /**
+   * This writes a snapshot with two departments and opens a database on it.
+   */
+  @BeforeEach
+  public void setupCheckpointerForTesting() throws IOException {
+    HashMap<String, Department> mapping = new HashMap<>();
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120));
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    courses = new HashMap<>();
+    courses.put("1105", new Course("Waseem Noor", "309 HAV", "2:40-3:55", 210));
+    mapping.put("ECON", new Department("ECON", courses, "Michael Woodford", 2345));
+    testDataPath = tempDir.resolve("data.txt");
+    SnapshotWriter.write(testDataPath, mapping);
+    testDatabase = new MyFileDatabase(0, testDataPath.toString());
+    testDatabase.openMutationLog();
+  }
+
+  @Test
+  public void checkpointWritesOnlyChangedDepartmentsTest() throws IOException {
+    Department coms = testDatabase.getDepartmentMapping().get("COMS");
+    Course course = coms.getCourseSelection().get("4156");
+    course.enrollStudent();
+    testDatabase.awaitDurable(testDatabase.logCourseUpdate("COMS", "4156", course));
+
+    assertEquals(1, testDatabase.checkpoint());
+    Path segmentDir = tempDir.resolve("data.txt.segments");
+    assertTrue(Files.exists(segmentDir.resolve("COMS.snapshot")));
+    assertFalse(Files.exists(segmentDir.resolve("ECON.snapshot")));
+    assertFalse(Files.exists(tempDir.resolve("data.txt.wal.1")));
+    assertEquals(0, testDatabase.checkpoint());
+    testDatabase.closeMutationLog();
+
+    MyFileDatabase reloaded = new MyFileDatabase(0, testDataPath.toString());
+    assertEquals(1, reloaded.getDepartmentMapping().get("COMS").getCourseSelection()
+        .get("4156").getEnrolledStudentCount());
+  }
+
+  @Test
+  public void logReplayedOverSegmentsTest() throws IOException {
+    Department econ = testDatabase.getDepartmentMapping().get("ECON");
+    econ.addPersonToMajor();
+    testDatabase.awaitDurable(testDatabase.logDepartmentUpdate("ECON", econ));
+    testDatabase.checkpoint();
+    econ.addPersonToMajor();
+    testDatabase.awaitDurable(testDatabase.logDepartmentUpdate("ECON", econ));
+    testDatabase.closeMutationLog();
+
+    MyFileDatabase reloaded = new MyFileDatabase(0, testDataPath.toString());
+    assertEquals(2347, reloaded.getDepartmentMapping().get("ECON").getNumberOfMajors());
+
+    reloaded.openMutationLog();
+    reloaded.saveContentsToFile();
+    reloaded.closeMutationLog();
+    assertFalse(Files.exists(tempDir.resolve("data.txt.segments")));
+    assertEquals(2347, SnapshotReader.read(testDataPath).get("ECON").getNumberOfMajors());
+  }
+}
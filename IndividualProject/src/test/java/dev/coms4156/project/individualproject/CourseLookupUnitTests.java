@@ -0,0 +1,69 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the CourseLookup class
+ * to validate how requested courses are resolved.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class CourseLookupUnitTests {
+
+  /** The test instances used for testing. */
+  public static MyFileDatabase testDatabase;
+  public static Course testCourse;
+
+  /**
+   * This sets up a database holding a single course.
+   */
+  @BeforeEach
+  public void setupCourseLookupForTesting() {
+    testCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", testCourse);
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    testDatabase = new MyFileDatabase(1, "unused");
+    testDatabase.setMapping(mapping);
+  }
+
+  @Test
+  public void resolveFoundTest() {
+    CourseLookup lookup = CourseLookup.resolve(testDatabase, "coms", 4156);
+    assertTrue(lookup.isFound());
+    assertEquals("COMS", lookup.getDeptCode());
+    assertEquals("4156", lookup.getCourseId());
+    assertSame(testCourse, lookup.getCourse());
+  }
+
+  @Test
+  public void resolveDepartmentNotFoundTest() {
+    CourseLookup lookup = CourseLookup.resolve(testDatabase, "ECON", 4156);
+    assertEquals(CourseLookup.Outcome.DEPARTMENT_NOT_FOUND, lookup.getOutcome());
+    assertNull(lookup.getCourse());
+  }
+
+  @Test
+  public void resolveCourseNotFoundTest() {
+    CourseLookup lookup = CourseLookup.resolve(testDatabase, "COMS", 1004);
+    assertEquals(CourseLookup.Outcome.COURSE_NOT_FOUND, lookup.getOutcome());
+    assertNull(lookup.getCourse());
+  }
+
+  @Test
+  public void courseIdSharedTest() {
+    assertSame(CourseLookup.courseId(4156), CourseLookup.courseId(4156));
+    assertEquals("123456", CourseLookup.courseId(123456));
+    assertSame("COMS", CourseLookup.normalizeDeptCode("COMS"));
+  }
+}
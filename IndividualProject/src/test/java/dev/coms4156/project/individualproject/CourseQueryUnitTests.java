@@ -0,0 +1,95 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the CourseQuery class
+ * to validate how bulk reads are resolved and written.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class CourseQueryUnitTests {
+
+  /** The test instances used for testing. */
+  public static MyFileDatabase testDatabase;
+
+  /**
+   * This sets up a database with one department holding two courses.
+   */
+  @BeforeEach
+  public void setupCourseQueryForTesting() {
+    Course fullCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    fullCourse.setEnrolledStudentCount(120);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", fullCourse);
+    courses.put("3157", new Course("Jae Lee", "417 IAB", "4:10-5:25", 400));
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    testDatabase = new MyFileDatabase(1, "unused");
+    testDatabase.setMapping(mapping);
+  }
+
+  @Test
+  public void allFieldsTest() throws IOException {
+    JsonNode courses = write(CourseQuery.resolve(testDatabase, List.of("COMS:4156"), List.of()));
+    assertEquals(1, courses.size());
+    JsonNode course = courses.get(0);
+    assertEquals("COMS:4156", course.get("key").asText());
+    assertEquals("FOUND", course.get("status").asText());
+    assertEquals("Gail Kaiser", course.get("instructor").asText());
+    assertEquals("501 NWC", course.get("location").asText());
+    assertEquals("10:10-11:25", course.get("time").asText());
+    assertEquals(120, course.get("capacity").asInt());
+    assertEquals(120, course.get("enrolled").asInt());
+    assertTrue(course.get("full").asBoolean());
+  }
+
+  @Test
+  public void selectedFieldsTest() throws IOException {
+    JsonNode courses = write(CourseQuery.resolve(testDatabase,
+        List.of("COMS:3157", "coms:3157", "COMS:9999", "ECON:1105"), List.of("LOCATION", "full")));
+    assertEquals(3, courses.size());
+    assertEquals("417 IAB", courses.get(0).get("location").asText());
+    assertFalse(courses.get(0).get("full").asBoolean());
+    assertNull(courses.get(0).get("instructor"));
+    assertEquals("COURSE_NOT_FOUND", courses.get(1).get("status").asText());
+    assertNull(courses.get(1).get("location"));
+    assertEquals("ECON:1105", courses.get(2).get("key").asText());
+    assertEquals("DEPARTMENT_NOT_FOUND", courses.get(2).get("status").asText());
+  }
+
+  @Test
+  public void invalidQueryTest() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CourseQuery.resolve(testDatabase, List.of(), List.of()));
+    assertThrows(IllegalArgumentException.class,
+        () -> CourseQuery.resolve(testDatabase, List.of("COMS4156"), List.of()));
+    assertThrows(IllegalArgumentException.class,
+        () -> CourseQuery.resolve(testDatabase, List.of("COMS:4156"), List.of("room")));
+  }
+
+  private static JsonNode write(CourseQuery query) throws IOException {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+      query.writeTo(generator);
+    }
+    return new ObjectMapper().readTree(out.toString()).get("courses");
+  }
+}
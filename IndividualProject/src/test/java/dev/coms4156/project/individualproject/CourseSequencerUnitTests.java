@@ -0,0 +1,100 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the CourseSequencer class.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class CourseSequencerUnitTests {
+
+  /** The test instances used for testing. */
+  public static CourseSequencer testSequencer;
+  public static CourseLookup testLookup;
+
+  /**
+   * This sets up a sequencer with two loops and a course with 100 seats.
+   */
+  @BeforeEach
+  public void setupCourseSequencerForTesting() {
+    testSequencer = new CourseSequencer(2);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 100));
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    MyFileDatabase database = new MyFileDatabase(1, "./course-sequencer-test.txt");
+    database.setMapping(mapping);
+    testLookup = CourseLookup.resolve(database, "COMS", 4156);
+  }
+
+  @AfterEach
+  public void closeCourseSequencer() {
+    testSequencer.close();
+  }
+
+  @Test
+  public void concurrentEnrollmentTest() throws InterruptedException {
+    // More requests than the ring has slots, so some wait for the ring to free up.
+    int threads = 8;
+    int requestsPerThread = CourseSequencer.RING_SIZE;
+    AtomicInteger enrolled = new AtomicInteger();
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(() -> {
+        for (int j = 0; j < requestsPerThread; j++) {
+          if (testSequencer.apply(testLookup, Course::enrollStudent)) {
+            enrolled.incrementAndGet();
+          }
+        }
+      });
+      workers[i].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertEquals(100, enrolled.get());
+    assertEquals(100, testLookup.getCourse().getEnrolledStudentCount());
+    assertTrue(testLookup.getCourse().isCourseFull());
+  }
+
+  @Test
+  public void appliedOnLoopTest() {
+    assertTrue(testSequencer.isEnabled());
+    Thread loop = testSequencer.apply(testLookup, course -> Thread.currentThread());
+    assertNotSame(Thread.currentThread(), loop);
+    assertSame(loop, testSequencer.apply(testLookup, course -> Thread.currentThread()));
+
+    CourseSequencer disabled = new CourseSequencer(0);
+    assertFalse(disabled.isEnabled());
+    assertSame(Thread.currentThread(),
+        disabled.apply(testLookup, course -> Thread.currentThread()));
+  }
+
+  @Test
+  public void failureTest() {
+    assertThrows(IllegalArgumentException.class, () -> testSequencer.apply(testLookup, course -> {
+      throw new IllegalArgumentException();
+    }));
+    // The loop survives a change that fails.
+    assertTrue(testSequencer.apply(testLookup, Course::enrollStudent));
+
+    testSequencer.close();
+    assertThrows(IllegalStateException.class,
+        () -> testSequencer.apply(testLookup, Course::enrollStudent));
+    assertThrows(IllegalArgumentException.class, () -> new CourseSequencer(-1));
+  }
+}
@@ -4,6 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -169,6 +174,207 @@ public class CourseUnitTests {
     assertEquals(originalCount, testCourse.getEnrolledStudentCount());
   }
 
+  @Test
+  public void concurrentEnrollmentNeverExceedsCapacityTest() throws InterruptedException {
+    int threads = 16;
+    int attemptsPerThread = 1000;
+    Course hotCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 5000);
+    AtomicInteger enrolled = new AtomicInteger();
+    AtomicInteger maximumSeen = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      executor.execute(() -> {
+        awaitQuietly(start);
+        for (int j = 0; j < attemptsPerThread; j++) {
+          if (hotCourse.enrollStudent()) {
+            enrolled.incrementAndGet();
+          }
+          maximumSeen.accumulateAndGet(hotCourse.getEnrolledStudentCount(), Math::max);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(5000, enrolled.get());
+    assertEquals(5000, hotCourse.getEnrolledStudentCount());
+    assertEquals(5000, maximumSeen.get());
+  }
+
+  @Test
+  public void concurrentEnrollAndDropTest() throws InterruptedException {
+    int threads = 16;
+    int attemptsPerThread = 2000;
+    Course hotCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 100);
+    AtomicInteger enrolled = new AtomicInteger();
+    AtomicInteger dropped = new AtomicInteger();
+    AtomicInteger maximumSeen = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      boolean dropping = i % 4 == 0;
+      executor.execute(() -> {
+        awaitQuietly(start);
+        for (int j = 0; j < attemptsPerThread; j++) {
+          if (dropping ? hotCourse.dropStudent() : hotCourse.enrollStudent()) {
+            (dropping ? dropped : enrolled).incrementAndGet();
+          }
+          maximumSeen.accumulateAndGet(hotCourse.getEnrolledStudentCount(), Math::max);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertTrue(maximumSeen.get() <= 100);
+    assertEquals(enrolled.get() - dropped.get(), hotCourse.getEnrolledStudentCount());
+  }
+
+  @Test
+  public void versionAdvancesOnEveryUpdateTest() {
+    int version = Course.versionOf(testCourse.getEnrollmentState());
+    testCourse.enrollStudent();
+    testCourse.reassignTime("2:40-3:55");
+    testCourse.setEnrolledStudentCount(10);
+    testCourse.dropStudent();
+    long state = testCourse.getEnrollmentState();
+    assertEquals(version + 4, Course.versionOf(state));
+    assertEquals(9, Course.countOf(state));
+  }
+
+  @Test
+  public void joinWaitlistEnrollsWhenSeatFreeTest() {
+    assertEquals(0, testCourse.joinWaitlist());
+    assertEquals(1, testCourse.getEnrolledStudentCount());
+    assertEquals(0, testCourse.getWaitlistLength());
+  }
+
+  @Test
+  public void waitlistPromotedInOrderTest() {
+    testCourse.setEnrolledStudentCount(250);
+    assertEquals(1, testCourse.joinWaitlist());
+    assertEquals(2, testCourse.joinWaitlist());
+    assertEquals(2, testCourse.getWaitlistPosition(2));
+    assertEquals(-1, testCourse.getWaitlistPosition(3));
+
+    assertTrue(testCourse.dropStudent());
+    assertEquals(250, testCourse.getEnrolledStudentCount());
+    assertEquals(0, testCourse.getWaitlistPosition(1));
+    assertEquals(1, testCourse.getWaitlistPosition(2));
+
+    // The freed seat goes to the waiter, not to a new enrollment.
+    testCourse.setEnrolledStudentCount(248);
+    assertEquals(0, testCourse.getWaitlistPosition(2));
+    assertEquals(249, testCourse.getEnrolledStudentCount());
+    assertTrue(testCourse.enrollStudent());
+  }
+
+  @Test
+  public void enrollStudentDoesNotJumpWaitlistTest() {
+    testCourse.setEnrolledStudentCount(250);
+    testCourse.joinWaitlist();
+    testCourse.restoreEnrollment(249, Course.versionOf(testCourse.getEnrollmentState()) + 1);
+    assertFalse(testCourse.enrollStudent());
+    assertEquals(0, testCourse.getWaitlistPosition(1));
+    assertEquals(250, testCourse.getEnrolledStudentCount());
+  }
+
+  @Test
+  public void joinWaitlistChangesStateTest() {
+    testCourse.setEnrolledStudentCount(250);
+    long before = testCourse.getEnrollmentState();
+    assertEquals(1, testCourse.joinWaitlist());
+
+    // The ticket changes the state, so an enrollment that read it before cannot take a seat.
+    long waiting = testCourse.getEnrollmentState();
+    assertEquals(Course.versionOf(before) + 1, Course.versionOf(waiting));
+    assertEquals(250, Course.countOf(waiting));
+
+    assertTrue(testCourse.dropStudent());
+    assertEquals(250, Course.countOf(testCourse.getEnrollmentState()));
+    assertEquals(0, testCourse.getWaitlistLength());
+  }
+
+  @Test
+  public void concurrentWaitlistTest() throws InterruptedException {
+    int threads = 16;
+    int joinsPerThread = 500;
+    Course hotCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 100);
+    hotCourse.setEnrolledStudentCount(100);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      boolean dropping = i % 2 == 0;
+      executor.execute(() -> {
+        awaitQuietly(start);
+        for (int j = 0; j < joinsPerThread; j++) {
+          if (dropping) {
+            hotCourse.dropStudent();
+          } else {
+            hotCourse.joinWaitlist();
+          }
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    // Seats are only left free once nobody is waiting.
+    Course.State state = hotCourse.getState();
+    assertTrue(state.getEnrolledCount() <= 100);
+    assertTrue(state.getEnrolledCount() == 100
+        || state.getWaitlistHead() == state.getWaitlistTail());
+  }
+
+  @Test
+  public void concurrentEnrollmentDoesNotJumpWaitlistTest() throws InterruptedException {
+    int threads = 12;
+    int attemptsPerThread = 2000;
+    Course hotCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 100);
+    hotCourse.setEnrolledStudentCount(100);
+    AtomicInteger lastTicket = new AtomicInteger();
+    AtomicInteger jumped = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      int role = i % 3;
+      executor.execute(() -> {
+        awaitQuietly(start);
+        for (int j = 0; j < attemptsPerThread; j++) {
+          if (role == 0) {
+            lastTicket.accumulateAndGet(hotCourse.joinWaitlist(), Math::max);
+          } else if (role == 1) {
+            hotCourse.dropStudent();
+          } else {
+            // Every ticket issued before the attempt must be promoted before it may succeed.
+            int waiting = lastTicket.get();
+            if (hotCourse.enrollStudent() && hotCourse.getWaitlistPosition(waiting) > 0) {
+              jumped.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+    assertEquals(0, jumped.get());
+    assertTrue(hotCourse.getEnrolledStudentCount() <= 100);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   /** The test course instance used for testing. */
   public static Course testCourse;
 }
@@ -0,0 +1,103 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the DepartmentDto and CourseDto classes
+ * to validate the JSON written for departments and courses.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class DepartmentDtoUnitTests {
+
+  /** The test instances used for testing. */
+  public static Department testDepartment;
+
+  /**
+   * This sets up a department with two courses.
+   */
+  @BeforeEach
+  public void setupDepartmentDtoForTesting() {
+    Course course = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    course.setEnrolledStudentCount(109);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", course);
+    courses.put("3157", new Course("Jae Lee", "417 IAB", "4:10-5:25", 400));
+    testDepartment = new Department("COMS", courses, "Luca Carloni", 2700);
+  }
+
+  @Test
+  public void courseDtoTest() throws IOException {
+    CourseDto dto = CourseDto.of("COMS", "4156",
+        testDepartment.getCourseSelection().get("4156"));
+    assertEquals(109, dto.getEnrolledStudentCount());
+    JsonNode json = write(dto);
+    assertEquals("COMS", json.get("deptCode").asText());
+    assertEquals("4156", json.get("courseId").asText());
+    assertEquals("Gail Kaiser", json.get("instructorName").asText());
+    assertEquals("501 NWC", json.get("courseLocation").asText());
+    assertEquals("10:10-11:25", json.get("courseTimeSlot").asText());
+    assertEquals(120, json.get("enrollmentCapacity").asInt());
+    assertEquals(109, json.get("enrolledStudentCount").asInt());
+  }
+
+  @Test
+  public void departmentDtoTest() throws IOException {
+    JsonNode json = write(DepartmentDto.of(testDepartment));
+    assertEquals("COMS", json.get("deptCode").asText());
+    assertEquals("Luca Carloni", json.get("departmentChair").asText());
+    assertEquals(2700, json.get("numberOfMajors").asInt());
+    assertEquals(2, json.get("courses").size());
+    assertEquals("3157", json.get("courses").get(0).get("courseId").asText());
+    assertEquals("4156", json.get("courses").get(1).get("courseId").asText());
+  }
+
+  @Test
+  public void negotiatedBodyTest() throws IOException {
+    NegotiatedBody body = new NegotiatedBody(DepartmentDto.of(testDepartment),
+        () -> new RenderedBody(testDepartment.toString()));
+    assertEquals(testDepartment.toString(), body.toString());
+    assertEquals("COMS", write(body).get("deptCode").asText());
+  }
+
+  @Test
+  public void renderedNegotiatedBodyTest() throws IOException {
+    NegotiatedBody body = NegotiatedBody.rendered(
+        () -> RenderedBody.ofJson(DepartmentDto.of(testDepartment)),
+        () -> new RenderedBody(testDepartment.toString()));
+    assertEquals(testDepartment.toString(), body.toString());
+    assertEquals(2700, write(body).get("numberOfMajors").asInt());
+    assertEquals(2, new ObjectMapper().readTree(body.getRenderedJson().getBytes())
+        .get("courses").size());
+  }
+
+  @Test
+  public void jsonMessageTest() throws IOException {
+    String json = JsonMessageAdvice.toJsonString("Say \"hi\"\n");
+    assertEquals("\"Say \\\"hi\\\"\\n\"", json);
+    assertEquals("Say \"hi\"\n", new ObjectMapper().readValue(json, String.class));
+    assertTrue(new ObjectMapper().readTree(JsonMessageAdvice.toJsonString("Course Not Found"))
+        .isTextual());
+  }
+
+  private static JsonNode write(JsonBody body) throws IOException {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+      body.writeTo(generator);
+    }
+    return new ObjectMapper().readTree(out.toString());
+  }
+}
@@ -0,0 +1,101 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the DepartmentLocks class.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class DepartmentLocksUnitTests {
+
+  /** The test locks instance used for testing. */
+  public static DepartmentLocks testLocks;
+
+  @BeforeEach
+  public void setupDepartmentLocksForTesting() {
+    testLocks = new DepartmentLocks();
+  }
+
+  @Test
+  public void readTest() {
+    assertEquals("COMS", testLocks.read("COMS", () -> "COMS"));
+    assertEquals(1, (int) testLocks.write("COMS", () -> 1));
+    assertThrows(IllegalStateException.class, () -> testLocks.read("COMS", () -> {
+      throw new IllegalStateException();
+    }));
+  }
+
+  @Test
+  public void readRetriedAfterWriteTest() {
+    AtomicInteger runs = new AtomicInteger();
+    String result = testLocks.read("COMS", () -> {
+      if (runs.incrementAndGet() == 1) {
+        // A change made while the first run reads, which must therefore run again.
+        Thread writer = new Thread(() -> testLocks.write("COMS", () -> null));
+        writer.start();
+        joinQuietly(writer);
+        throw new IllegalStateException("Inconsistent details.");
+      }
+      return "consistent";
+    });
+    assertEquals("consistent", result);
+    assertEquals(2, runs.get());
+  }
+
+  @Test
+  public void readWaitsForWriteTest() throws InterruptedException {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    AtomicInteger value = new AtomicInteger();
+    Thread writer = new Thread(() -> testLocks.write("COMS", () -> {
+      value.set(1);
+      writing.countDown();
+      awaitQuietly(finish);
+      value.set(2);
+      return null;
+    }));
+    writer.start();
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+    // Another department can be changed meanwhile.
+    assertEquals(1, (int) testLocks.write("IEOR", value::get));
+
+    AtomicInteger seen = new AtomicInteger();
+    Thread reader = new Thread(() -> seen.set(testLocks.read("COMS", value::get)));
+    reader.start();
+    reader.join(100);
+    assertTrue(reader.isAlive());
+    assertEquals(0, seen.get());
+    finish.countDown();
+    reader.join();
+    writer.join();
+    assertEquals(2, seen.get());
+  }
+
+  private static void joinQuietly(Thread thread) {
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,10 +1,16 @@
 package dev.coms4156.project.individualproject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -91,4 +97,106 @@ public class DepartmentUnitTests {
     assertNotNull(testDepartment.getCourseSelection().get("3157"));
   }
 
+  @Test
+  public void courseSelectionIsReadOnlyTest() {
+    Course newCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    assertThrows(UnsupportedOperationException.class,
+        () -> testDepartment.getCourseSelection().put("4156", newCourse));
+    testCourses.put("4156", newCourse);
+    assertFalse(testDepartment.getCourseSelection().containsKey("4156"));
+  }
+
+  @Test
+  public void versionTest() {
+    Course course = testDepartment.getCourseSelection().get("3251");
+    long version = testDepartment.getVersion();
+    long detailsVersion = testDepartment.getDetailsVersion();
+
+    testDepartment.addPersonToMajor();
+    assertTrue(testDepartment.getVersion() > version);
+    version = testDepartment.getVersion();
+    course.enrollStudent();
+    assertTrue(testDepartment.getVersion() > version);
+    assertEquals(detailsVersion, testDepartment.getDetailsVersion());
+
+    version = testDepartment.getVersion();
+    course.reassignLocation("501 NWC");
+    assertTrue(testDepartment.getVersion() > version);
+    assertTrue(testDepartment.getDetailsVersion() > detailsVersion);
+  }
+
+  @Test
+  public void concurrentAddCourseTest() throws InterruptedException {
+    int threads = 8;
+    int coursesPerThread = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      int thread = i;
+      executor.execute(() -> {
+        for (int j = 0; j < coursesPerThread; j++) {
+          testDepartment.createCourse(thread + "-" + j, "Jae Lee", "417 IAB", "11:40-12:55", 400);
+          testDepartment.toString();
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    assertEquals(threads * coursesPerThread + 1, testDepartment.getCourseSelection().size());
+  }
+
+  @Test
+  public void concurrentMajorsTest() throws InterruptedException {
+    int threads = 16;
+    int changesPerThread = 10_000;
+    long version = testDepartment.getVersion();
+    runOnThreads(threads, () -> {
+      for (int j = 0; j < changesPerThread; j++) {
+        testDepartment.addPersonToMajor();
+      }
+    });
+    int majors = 2700 + threads * changesPerThread;
+    assertEquals(majors, testDepartment.getNumberOfMajors());
+    assertEquals(version + threads * changesPerThread, testDepartment.getVersion());
+
+    // Twice as many drops as majors: the count must stop at zero.
+    runOnThreads(threads, () -> {
+      for (int j = 0; j < 2 * majors / threads; j++) {
+        testDepartment.dropPersonFromMajor();
+      }
+    });
+    assertEquals(0, testDepartment.getNumberOfMajors());
+    assertEquals(version + threads * changesPerThread + majors, testDepartment.getVersion());
+  }
+
+  @Test
+  public void concurrentEnrollmentVersionTest() throws InterruptedException {
+    int threads = 16;
+    int seats = 400;
+    for (int i = 0; i < threads; i++) {
+      testDepartment.createCourse("9" + i, "Jae Lee", "417 IAB", "11:40-12:55", seats);
+    }
+    long version = testDepartment.getVersion();
+    long detailsVersion = testDepartment.getDetailsVersion();
+    AtomicInteger next = new AtomicInteger();
+    runOnThreads(threads, () -> {
+      Course course = testDepartment.getCourseSelection().get("9" + next.getAndIncrement());
+      while (course.enrollStudent()) {
+        course.dropStudent();
+        course.enrollStudent();
+      }
+    });
+    // Each thread made three enrollment changes in its own course for every seat.
+    assertEquals(version + threads * 3L * seats, testDepartment.getVersion());
+    assertEquals(detailsVersion, testDepartment.getDetailsVersion());
+  }
+
+  private static void runOnThreads(int threads, Runnable task) throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      executor.execute(task);
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+  }
+
 }
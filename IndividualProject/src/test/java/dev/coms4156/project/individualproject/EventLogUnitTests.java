@@ -0,0 +1,56 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the EventLog class
+ * to validate how reported events are counted and written.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class EventLogUnitTests {
+
+  @Test
+  public void countTest() {
+    long before = EventLog.count(EventLog.Event.INVALID_CHAIR);
+    EventLog.log(EventLog.Event.INVALID_CHAIR);
+    EventLog.log(EventLog.Event.INVALID_CHAIR, "detail");
+    assertEquals(before + 2, EventLog.count(EventLog.Event.INVALID_CHAIR));
+  }
+
+  @Test
+  public void constructorWarningTest() {
+    long instructor = EventLog.count(EventLog.Event.INVALID_INSTRUCTOR);
+    long capacity = EventLog.count(EventLog.Event.INVALID_CAPACITY);
+    long location = EventLog.count(EventLog.Event.INVALID_LOCATION);
+    new Course("", "417 IAB", "4:10-5:25", 0);
+    assertEquals(instructor + 1, EventLog.count(EventLog.Event.INVALID_INSTRUCTOR));
+    assertEquals(capacity + 1, EventLog.count(EventLog.Event.INVALID_CAPACITY));
+    assertEquals(location, EventLog.count(EventLog.Event.INVALID_LOCATION));
+  }
+
+  @Test
+  public void rateLimitTest() {
+    long before = EventLog.count(EventLog.Event.INVALID_TIME_SLOT);
+    for (int i = 0; i < 100_000; i++) {
+      EventLog.log(EventLog.Event.INVALID_TIME_SLOT);
+    }
+    assertEquals(before + 100_000, EventLog.count(EventLog.Event.INVALID_TIME_SLOT));
+    assertTrue(EventLog.flush(5000));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void metricsTest() {
+    EventLog.log(EventLog.Event.INVALID_MAJORS);
+    Map<String, Object> events =
+        (Map<String, Object>) new ServiceMetrics().snapshot().get("events");
+    assertEquals(EventLog.count(EventLog.Event.INVALID_MAJORS), events.get("INVALID_MAJORS"));
+  }
+}
@@ -0,0 +1,131 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the FlightRecording class and the
+ * DiagnosticsController class to validate the recorded events.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class FlightRecordingUnitTests {
+
+  /** The test instances used for testing. */
+  public static FlightRecording testRecording;
+  public static Department testDepartment;
+
+  /**
+   * This sets up a recording that is not running and a department with one course.
+   */
+  @BeforeEach
+  public void setupFlightRecordingForTesting() {
+    testRecording = new FlightRecording();
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 1));
+    testDepartment = new Department("COMS", courses, "Luca Carloni", 2700);
+  }
+
+  @AfterEach
+  public void stopFlightRecording() {
+    testRecording.stop();
+  }
+
+  @Test
+  public void lifecycleTest() throws Exception {
+    assertFalse(testRecording.isRunning());
+    assertNull(testRecording.dump());
+    assertTrue(testRecording.start(Duration.ofMinutes(1), 1024 * 1024));
+    assertFalse(testRecording.start(Duration.ofMinutes(1), 1024 * 1024));
+    assertTrue(testRecording.isRunning());
+    assertTrue(testRecording.stop());
+    assertFalse(testRecording.stop());
+  }
+
+  @Test
+  public void enrollmentEventTest() throws Exception {
+    testRecording.start(Duration.ofMinutes(1), 1024 * 1024);
+    Course course = testDepartment.getCourseSelection().get("4156");
+    course.enrollStudent();
+    course.enrollStudent();
+
+    List<RecordedEvent> events = recordedEvents("Enrollment");
+    assertEquals(2, events.size());
+    assertEquals("COMS", events.get(0).getString("department"));
+    assertEquals("enroll", events.get(0).getString("operation"));
+    assertTrue(events.get(0).getBoolean("succeeded"));
+    assertFalse(events.get(1).getBoolean("succeeded"));
+    assertEquals(1, events.get(1).getInt("capacity"));
+  }
+
+  @Test
+  public void snapshotEventsTest() throws Exception {
+    Path dir = Files.createTempDirectory("flight-recording-test");
+    String filePath = dir.resolve("data.txt").toString();
+    MyFileDatabase database = new MyFileDatabase(1, filePath);
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", testDepartment);
+    database.setMapping(mapping);
+
+    testRecording.start(Duration.ofMinutes(1), 1024 * 1024);
+    database.saveContentsToFile();
+    new MyFileDatabase(0, filePath);
+
+    RecordedEvent save = recordedEvents("SnapshotSave").get(0);
+    assertTrue(save.getBoolean("succeeded"));
+    assertEquals(Files.size(dir.resolve("data.txt")), save.getLong("bytes"));
+    RecordedEvent load = recordedEvents("SnapshotLoad").get(0);
+    assertEquals("full", load.getString("mode"));
+    assertEquals(1, load.getInt("departments"));
+
+    MyFileDatabase.deleteChanges(filePath);
+    Files.deleteIfExists(dir.resolve("data.txt"));
+    Files.deleteIfExists(dir);
+  }
+
+  @Test
+  public void diagnosticsControllerTest() throws Exception {
+    DiagnosticsController controller = new DiagnosticsController(testRecording);
+    assertEquals(HttpStatus.NOT_FOUND, controller.dumpRecording().getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, controller.startRecording(0, 64).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, controller.startRecording(300, 1024).getStatusCode());
+    assertEquals(HttpStatus.OK, controller.startRecording(300, 64).getStatusCode());
+    assertEquals(HttpStatus.CONFLICT, controller.startRecording(300, 64).getStatusCode());
+    ResponseEntity<?> dump = controller.dumpRecording();
+    assertEquals(HttpStatus.OK, dump.getStatusCode());
+    ((InputStreamResource) dump.getBody()).getInputStream().close();
+    assertEquals(HttpStatus.OK, controller.stopRecording().getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND, controller.stopRecording().getStatusCode());
+  }
+
+  private static List<RecordedEvent> recordedEvents(String name) throws Exception {
+    Path file = testRecording.dump();
+    assertNotNull(file);
+    try {
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().equals(FlightEvents.PREFIX + name))
+          .toList();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the MutationLog class
+ * to validate that logged mutations are durable and replayed correctly.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class MutationLogUnitTests {
+
+  /** The directory holding the log file for each test. */
+  @TempDir
+  public Path tempDir;
+
+  /** The test instances used for testing. */
+  public static HashMap<String, Department> testMapping;
+  public static Path testLogPath;
+
+  /**
+   * This sets up a small department mapping to replay mutations onto.
+   */
+  @BeforeEach
+  public void setupMutationLogForTesting() {
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120));
+    testMapping = new HashMap<>();
+    testMapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    testLogPath = tempDir.resolve("data.txt.wal");
+  }
+
+  @Test
+  public void appendAndReplayTest() throws IOException {
+    Department coms = testMapping.get("COMS");
+    Course course = coms.getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      course.setEnrolledStudentCount(100);
+      course.reassignTime("4:10-5:25");
+      log.append(MutationRecord.courseState("COMS", "4156", course));
+      coms.addPersonToMajor();
+      long sequence = log.append(MutationRecord.departmentState("COMS", coms));
+      log.awaitDurable(sequence);
+      assertEquals(2, sequence);
+    }
+
+    setupMutationLogForTesting();
+    MutationLog.replayAll(testLogPath, record -> record.applyTo(testMapping));
+    Course replayed = testMapping.get("COMS").getCourseSelection().get("4156");
+    assertEquals(100, replayed.getEnrolledStudentCount());
+    assertEquals("4:10-5:25", replayed.getCourseTimeSlot());
+    assertEquals(2701, testMapping.get("COMS").getNumberOfMajors());
+  }
+
+  @Test
+  public void latestRecordWinsTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      long sequence = 0;
+      for (int i = 0; i < 5; i++) {
+        course.enrollStudent();
+        sequence = log.append(MutationRecord.courseState("COMS", "4156", course));
+      }
+      log.awaitDurable(sequence);
+    }
+
+    setupMutationLogForTesting();
+    MutationLog.replayAll(testLogPath, record -> record.applyTo(testMapping));
+    assertEquals(5, testMapping.get("COMS").getCourseSelection().get("4156")
+        .getEnrolledStudentCount());
+  }
+
+  @Test
+  public void outOfOrderRecordsReplayedByVersionTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    course.enrollStudent();
+    MutationRecord older = MutationRecord.courseState("COMS", "4156", course);
+    course.enrollStudent();
+    MutationRecord newer = MutationRecord.courseState("COMS", "4156", course);
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.append(newer);
+      log.awaitDurable(log.append(older));
+    }
+
+    setupMutationLogForTesting();
+    MutationLog.replayAll(testLogPath, record -> record.applyTo(testMapping));
+    assertEquals(2, testMapping.get("COMS").getCourseSelection().get("4156")
+        .getEnrolledStudentCount());
+  }
+
+  @Test
+  public void waitlistRecordTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    course.setEnrolledStudentCount(120);
+    course.joinWaitlist();
+    course.joinWaitlist();
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.awaitDurable(log.append(MutationRecord.courseState("COMS", "4156", course)));
+    }
+
+    setupMutationLogForTesting();
+    MutationLog.replayAll(testLogPath, record -> record.applyTo(testMapping));
+    Course replayed = testMapping.get("COMS").getCourseSelection().get("4156");
+    assertEquals(2, replayed.getWaitlistLength());
+    assertTrue(replayed.dropStudent());
+    assertEquals(0, replayed.getWaitlistPosition(1));
+    assertEquals(1, replayed.getWaitlistPosition(2));
+    assertEquals(120, replayed.getEnrolledStudentCount());
+  }
+
+  @Test
+  public void batchRecordTest() throws IOException {
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("2500", new Course("Uday Menon", "627 MUDD", "11:40-12:55", 50));
+    testMapping.put("IEOR", new Department("IEOR", courses, "Jay Sethuraman", 67));
+    Course coms = testMapping.get("COMS").getCourseSelection().get("4156");
+    Course ieor = testMapping.get("IEOR").getCourseSelection().get("2500");
+    coms.enrollStudent();
+    ieor.enrollStudent();
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.awaitDurable(log.append(MutationRecord.courseBatch(List.of(
+          MutationRecord.courseState("COMS", "4156", coms),
+          MutationRecord.courseState("IEOR", "2500", ieor)))));
+      assertEquals(Set.of("COMS", "IEOR"), log.rotate().getDeptCodes());
+    }
+
+    setupMutationLogForTesting();
+    courses.put("2500", new Course("Uday Menon", "627 MUDD", "11:40-12:55", 50));
+    testMapping.put("IEOR", new Department("IEOR", courses, "Jay Sethuraman", 67));
+    List<MutationRecord> records = new ArrayList<>();
+    MutationLog.replayAll(testLogPath, records::add);
+    assertEquals(1, records.size());
+    assertEquals(2, records.get(0).getEntries().size());
+    records.get(0).applyTo(testMapping);
+    assertEquals(1, testMapping.get("COMS").getCourseSelection().get("4156")
+        .getEnrolledStudentCount());
+    assertEquals(1, testMapping.get("IEOR").getCourseSelection().get("2500")
+        .getEnrolledStudentCount());
+  }
+
+  @Test
+  public void batchDepartmentsTrackedAfterReopenTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.awaitDurable(log.append(MutationRecord.courseBatch(List.of(
+          MutationRecord.courseState("COMS", "4156", course),
+          MutationRecord.courseState("IEOR", "2500", course)))));
+    }
+
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      assertEquals(Set.of("COMS", "IEOR"), log.rotate().getDeptCodes());
+    }
+  }
+
+  @Test
+  public void tornTailIgnoredTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.awaitDurable(log.append(MutationRecord.courseState("COMS", "4156", course)));
+    }
+    Path generation = tempDir.resolve("data.txt.wal.1");
+    long validLength = Files.size(generation);
+    Files.write(generation, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+    List<MutationRecord> records = new ArrayList<>();
+    assertEquals(validLength, MutationLog.replay(generation, records::add));
+    assertEquals(1, records.size());
+
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      assertEquals(validLength, Files.size(generation));
+    }
+  }
+
+  @Test
+  public void generationsReplayedInOrderTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    for (int i = 1; i <= 3; i++) {
+      try (MutationLog log = new MutationLog(testLogPath)) {
+        course.setEnrolledStudentCount(i * 10);
+        log.awaitDurable(log.append(MutationRecord.courseState("COMS", "4156", course)));
+      }
+    }
+    assertTrue(Files.exists(tempDir.resolve("data.txt.wal.3")));
+
+    setupMutationLogForTesting();
+    MutationLog.replayAll(testLogPath, record -> record.applyTo(testMapping));
+    assertEquals(30, testMapping.get("COMS").getCourseSelection().get("4156")
+        .getEnrolledStudentCount());
+  }
+
+  @Test
+  public void rotateAndDiscardTest() throws IOException {
+    Department coms = testMapping.get("COMS");
+    Course course = coms.getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.append(MutationRecord.courseState("COMS", "4156", course));
+      MutationLog.Rotation rotation = log.rotate();
+      assertEquals(Set.of("COMS"), rotation.getDeptCodes());
+
+      coms.addPersonToMajor();
+      log.awaitDurable(log.append(MutationRecord.departmentState("IEOR", coms)));
+      log.discard(rotation);
+      assertFalse(Files.exists(tempDir.resolve("data.txt.wal.1")));
+
+      List<MutationRecord> records = new ArrayList<>();
+      MutationLog.replayAll(testLogPath, records::add);
+      assertEquals(1, records.size());
+      assertEquals("IEOR", records.get(0).getDeptCode());
+      assertEquals(Set.of("IEOR"), log.rotate().getDeptCodes());
+    }
+  }
+
+  @Test
+  public void appendRefusedAfterWriteFailureTest() throws IOException {
+    // Writes to /dev/full fail with "No space left on device".
+    Path full = Paths.get("/dev/full");
+    assumeTrue(Files.isWritable(full));
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    try (MutationLog log = new MutationLog(testLogPath)) {
+      log.awaitDurable(log.append(MutationRecord.courseState("COMS", "4156", course)));
+      log.checkWritable();
+
+      // The next generation is opened by the rotation, so it is written to /dev/full.
+      Files.createSymbolicLink(tempDir.resolve("data.txt.wal.2"), full);
+      log.rotate();
+      long sequence = log.append(MutationRecord.courseState("COMS", "4156", course));
+      assertThrows(LogUnavailableException.class, () -> log.awaitDurable(sequence));
+
+      assertThrows(LogUnavailableException.class, log::checkWritable);
+      assertThrows(LogUnavailableException.class,
+          () -> log.append(MutationRecord.courseState("COMS", "4156", course)));
+      assertThrows(IOException.class, log::rotate);
+      assertEquals(sequence, log.getLastSequence());
+    }
+  }
+}
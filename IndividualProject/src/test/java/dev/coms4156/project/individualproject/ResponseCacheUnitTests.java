@@ -0,0 +1,106 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the ResponseCache class
+ * to validate when rendered responses are reused.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class ResponseCacheUnitTests {
+
+  /** The test instances used for testing. */
+  public static ResponseCache testCache;
+  public static Department testDepartment;
+  public static Course testCourse;
+
+  /**
+   * This sets up a department with a single course and an empty cache.
+   */
+  @BeforeEach
+  public void setupResponseCacheForTesting() {
+    testCache = new ResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES);
+    testCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", testCourse);
+    testDepartment = new Department("COMS", courses, "Luca Carloni", 2700);
+  }
+
+  @Test
+  public void renderedOnceTest() {
+    RenderedBody body = testCache.department(testDepartment);
+    assertEquals(testDepartment.toString(), body.toString());
+    assertSame(body, testCache.department(testDepartment));
+    assertSame(testCache.course(testCourse), testCache.course(testCourse));
+  }
+
+  @Test
+  public void reassignInvalidatesTest() {
+    RenderedBody departmentBody = testCache.department(testDepartment);
+    RenderedBody courseBody = testCache.course(testCourse);
+    testCourse.reassignInstructor("Griffin Newbold");
+
+    RenderedBody newDepartmentBody = testCache.department(testDepartment);
+    RenderedBody newCourseBody = testCache.course(testCourse);
+    assertNotSame(departmentBody, newDepartmentBody);
+    assertNotSame(courseBody, newCourseBody);
+    assertTrue(newDepartmentBody.toString().contains("Griffin Newbold"));
+    assertTrue(newCourseBody.toString().contains("Griffin Newbold"));
+  }
+
+  @Test
+  public void addCourseInvalidatesOnlyDepartmentTest() {
+    RenderedBody departmentBody = testCache.department(testDepartment);
+    RenderedBody courseBody = testCache.course(testCourse);
+    testDepartment.createCourse("3157", "Jae Lee", "417 IAB", "4:10-5:25", 80);
+
+    assertTrue(testCache.department(testDepartment).toString().contains("3157"));
+    assertNotSame(departmentBody, testCache.department(testDepartment));
+    assertSame(courseBody, testCache.course(testCourse));
+  }
+
+  @Test
+  public void enrollmentKeepsEntriesTest() {
+    RenderedBody departmentBody = testCache.department(testDepartment);
+    RenderedBody courseBody = testCache.course(testCourse);
+    testCourse.enrollStudent();
+    testCourse.dropStudent();
+
+    assertSame(departmentBody, testCache.department(testDepartment));
+    assertSame(courseBody, testCache.course(testCourse));
+  }
+
+  @Test
+  public void jsonInvalidatedByEnrollmentTest() {
+    RenderedBody departmentJson = testCache.departmentJson(testDepartment);
+    RenderedBody courseJson = testCache.courseJson("COMS", "4156", testCourse);
+    assertSame(departmentJson, testCache.departmentJson(testDepartment));
+    assertSame(courseJson, testCache.courseJson("COMS", "4156", testCourse));
+    RenderedBody text = testCache.course(testCourse);
+    testCourse.enrollStudent();
+
+    assertNotSame(departmentJson, testCache.departmentJson(testDepartment));
+    assertTrue(testCache.courseJson("COMS", "4156", testCourse).toString()
+        .contains("\"enrolledStudentCount\":1"));
+    assertSame(text, testCache.course(testCourse));
+  }
+
+  @Test
+  public void evictionBoundTest() {
+    ResponseCache smallCache = new ResponseCache(64);
+    for (int i = 0; i < 1000; i++) {
+      smallCache.course(new Course("Instructor " + i, "Room", "1:00-2:00", 10));
+    }
+    assertTrue(smallCache.size() <= 64);
+  }
+}
@@ -2,12 +2,22 @@ package dev.coms4156.project.individualproject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
@@ -66,6 +76,32 @@ public class RouteControllerUnitTests {
     assertEquals("An Error has occurred", response.getBody());
   }
 
+  @Test
+  public void retrieveDepartmentReadFailureTest() {
+    IndividualProjectApplication.overrideDatabase(new MyFileDatabase(0, "./data.txt") {
+      @Override
+      public Department getDepartment(String deptCode) {
+        throw new UncheckedIOException(new IOException("Snapshot block could not be decoded."));
+      }
+    });
+    ResponseEntity<?> response = testRouteController.retrieveDepartment("COMS");
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    assertEquals("An Error has occurred", response.getBody());
+  }
+
+  @Test
+  public void enrollStudentLogUnavailableTest() {
+    IndividualProjectApplication.overrideDatabase(new MyFileDatabase(0, "./data.txt") {
+      @Override
+      public void checkWritable() {
+        throw new LogUnavailableException(new IOException("No space left on device"));
+      }
+    });
+    ResponseEntity<?> response = testRouteController.enrollStudentInCourse("COMS", 1004);
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("Changes cannot be saved right now.", response.getBody());
+  }
+
   @Test
   public void retrieveCourseSuccessTest() {
     ResponseEntity<?> response = testRouteController.retrieveCourse("COMS", 1004);
@@ -74,6 +110,101 @@ public class RouteControllerUnitTests {
     assertTrue(response.getBody().toString().contains("Adam Cannon"));
   }
 
+  @Test
+  public void retrieveCourseJsonTest() throws IOException {
+    ResponseEntity<?> response = testRouteController.retrieveCourse("coms", 1004);
+    JsonNode course = new ObjectMapper().readTree(
+        ((NegotiatedBody) response.getBody()).getRenderedJson().getBytes());
+    assertEquals("COMS", course.get("deptCode").asText());
+    assertEquals("1004", course.get("courseId").asText());
+    assertEquals("Adam Cannon", course.get("instructorName").asText());
+    assertEquals(400, course.get("enrollmentCapacity").asInt());
+  }
+
+  @Test
+  public void retrieveDepartmentJsonCachedTest() throws IOException {
+    NegotiatedBody body = (NegotiatedBody) testRouteController.retrieveDepartment("COMS")
+        .getBody();
+    RenderedBody json = body.getRenderedJson();
+    assertSame(json, ((NegotiatedBody) testRouteController.retrieveDepartment("COMS")
+        .getBody()).getRenderedJson());
+
+    testRouteController.enrollStudentInCourse("COMS", 1004);
+    RenderedBody enrolledJson = ((NegotiatedBody) testRouteController.retrieveDepartment("COMS")
+        .getBody()).getRenderedJson();
+    assertNotSame(json, enrolledJson);
+    assertEquals("COMS", new ObjectMapper().readTree(enrolledJson.getBytes())
+        .get("deptCode").asText());
+  }
+
+  @Test
+  public void retrieveDepartmentNotModifiedTest() {
+    String tag = testRouteController.retrieveDepartment("COMS").getHeaders().getETag();
+    assertNotNull(tag);
+    ResponseEntity<?> response = testRouteController.retrieveDepartment("COMS", tag);
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(tag, response.getHeaders().getETag());
+    assertNull(response.getBody());
+    assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+
+    testRouteController.addMajorToDept("COMS");
+    response = testRouteController.retrieveDepartment("COMS", tag);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotEquals(tag, response.getHeaders().getETag());
+  }
+
+  @Test
+  public void retrieveCourseNotModifiedTest() {
+    String tag = testRouteController.retrieveCourse("COMS", 1004).getHeaders().getETag();
+    ResponseEntity<?> response = testRouteController.retrieveCourse("COMS", 1004,
+        "\"other\", " + tag);
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+
+    testRouteController.enrollStudentInCourse("COMS", 1004);
+    response = testRouteController.retrieveCourse("COMS", 1004, tag);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotEquals(tag, response.getHeaders().getETag());
+    assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+    assertEquals(HttpStatus.NOT_MODIFIED,
+        testRouteController.retrieveCourse("COMS", 1004, "*").getStatusCode());
+  }
+
+  @Test
+  public void joinWaitlistTest() {
+    testRouteController.setEnrollmentCount("IEOR", 2500, 50);
+    ResponseEntity<?> response = testRouteController.joinWaitlist("IEOR", 2500);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("Student joined the waitlist with ticket 1 at position 1.", response.getBody());
+    assertEquals("Ticket 1 is at position 1 on the waitlist.",
+        testRouteController.getWaitlistPosition("IEOR", 2500, 1).getBody());
+
+    testRouteController.dropStudent("IEOR", 2500);
+    assertEquals("Ticket 1 has been promoted and the student is enrolled in the course.",
+        testRouteController.getWaitlistPosition("IEOR", 2500, 1).getBody());
+    assertEquals(HttpStatus.NOT_FOUND,
+        testRouteController.getWaitlistPosition("IEOR", 2500, 2).getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND,
+        testRouteController.joinWaitlist("IEOR", 9999).getStatusCode());
+  }
+
+  @Test
+  public void seatHoldTest() {
+    testRouteController.setEnrollmentCount("IEOR", 2500, 49);
+    String message = (String) testRouteController.holdSeat("IEOR", 2500).getBody();
+    assertTrue(message.startsWith("Seat held with hold ID "));
+    long holdId = Long.parseLong(message.split(" ")[5]);
+    assertEquals(HttpStatus.BAD_REQUEST,
+        testRouteController.holdSeat("IEOR", 2500).getStatusCode());
+
+    assertEquals(HttpStatus.OK, testRouteController.confirmHold(holdId).getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND, testRouteController.releaseHold(holdId).getStatusCode());
+    assertEquals("\nInstructor: Uday Menon; Location: 627 MUDD; Time: 11:40-12:55",
+        testRouteController.retrieveCourse("IEOR", 2500).getBody().toString());
+    assertEquals(HttpStatus.OK, testRouteController.isCourseFull("IEOR", 2500).getStatusCode());
+    assertEquals(true, testRouteController.isCourseFull("IEOR", 2500).getBody());
+  }
+
   @Test
   public void retrieveCourseNotFoundTest() {
     ResponseEntity<?> response = testRouteController.retrieveCourse("COMS", 7777);
@@ -105,6 +236,17 @@ public class RouteControllerUnitTests {
     assertTrue(response.getBody().toString().contains("COMS 4156"));
   }
 
+  @Test
+  public void retrieveCoursesFindsAddedCourseTest() {
+    IndividualProjectApplication.myFileDatabase.getDepartmentMapping().get("ECON")
+        .createCourse("4156", "Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    ResponseEntity<?> response = testRouteController.retrieveCourses(4156);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    String body = response.getBody().toString();
+    assertTrue(body.indexOf("COMS 4156") >= 0);
+    assertTrue(body.indexOf("COMS 4156") < body.indexOf("ECON 4156"));
+  }
+
   @Test
   public void retrieveCoursesNotFoundTest() {
     ResponseEntity<?> response = testRouteController.retrieveCourses(9999);
@@ -268,6 +410,24 @@ public class RouteControllerUnitTests {
     assertEquals("Student cannot be enrolled because the course is full.", response.getBody());
   }
 
+  @Test
+  public void sequencedEnrollmentTest() {
+    CourseSequencer sequencer = new CourseSequencer(1);
+    try {
+      RouteController controller = new RouteController(
+          new SeatHolds(SeatHolds.DEFAULT_TTL_SECONDS), sequencer, new DepartmentLocks());
+      assertEquals(HttpStatus.OK, controller.enrollStudentInCourse("IEOR", 4102).getStatusCode());
+      assertEquals(HttpStatus.OK, controller.dropStudent("IEOR", 4102).getStatusCode());
+      assertEquals(HttpStatus.BAD_REQUEST,
+          controller.enrollStudentInCourse("IEOR", 2500).getStatusCode());
+      assertEquals(HttpStatus.OK,
+          controller.setEnrollmentCount("IEOR", 2500, 0).getStatusCode());
+      assertEquals(false, controller.isCourseFull("IEOR", 2500).getBody());
+    } finally {
+      sequencer.close();
+    }
+  }
+
   @Test
   public void enrollStudentInCourseNotFoundTest() {
     ResponseEntity<?> response = testRouteController.enrollStudentInCourse("IEOR", 9999);
@@ -275,6 +435,58 @@ public class RouteControllerUnitTests {
     assertEquals("Course Not Found", response.getBody());
   }
 
+  @Test
+  public void retrieveCourseDetailsTest() {
+    ResponseEntity<?> response = testRouteController.retrieveCourseDetails(
+        List.of("COMS:4156", "IEOR:2500", "COMS:4156"), List.of("location"));
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(2, ((CourseQuery) response.getBody()).size());
+
+    response = testRouteController.retrieveCourseDetails(List.of("COMS:4156"), List.of("room"));
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals("Invalid field: room", response.getBody());
+  }
+
+  @Test
+  public void enrollStudentInCoursesSuccessTest() {
+    Course course = IndividualProjectApplication.myFileDatabase.getDepartment("IEOR")
+        .getCourseSelection().get("4102");
+    int enrolled = course.getEnrolledStudentCount();
+    ResponseEntity<?> response =
+        testRouteController.enrollStudentInCourses(List.of("IEOR:4102", "coms:4156"));
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("Student successfully enrolled in all 2 courses.", response.getBody());
+    assertEquals(enrolled + 1, course.getEnrolledStudentCount());
+  }
+
+  @Test
+  public void enrollStudentInCoursesFullTest() {
+    Course course = IndividualProjectApplication.myFileDatabase.getDepartment("IEOR")
+        .getCourseSelection().get("4102");
+    int enrolled = course.getEnrolledStudentCount();
+    ResponseEntity<?> response =
+        testRouteController.enrollStudentInCourses(List.of("IEOR:4102", "IEOR:2500"));
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals("Student cannot be enrolled because IEOR 2500 is full. No seats were reserved.",
+        response.getBody());
+    assertEquals(enrolled, course.getEnrolledStudentCount());
+  }
+
+  @Test
+  public void enrollStudentInCoursesInvalidTest() {
+    ResponseEntity<?> response =
+        testRouteController.enrollStudentInCourses(List.of("IEOR:4102", "IEOR:9999"));
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    assertEquals("Course Not Found: IEOR:9999", response.getBody());
+
+    response = testRouteController.enrollStudentInCourses(List.of("IEOR4102"));
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    response = testRouteController.enrollStudentInCourses(List.of("IEOR:4102", "ieor:4102"));
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    response = testRouteController.enrollStudentInCourses(List.of());
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+  }
+
   @Test
   public void setEnrollmentCountSuccessBelowCapacityTest() {
     ResponseEntity<?> response = testRouteController.setEnrollmentCount("CHEM", 1403, 115);
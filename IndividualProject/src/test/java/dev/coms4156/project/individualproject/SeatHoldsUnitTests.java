@@ -0,0 +1,100 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the SeatHolds class and the seat holds of the
+ * Course class.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class SeatHoldsUnitTests {
+
+  /** The test instances used for testing. */
+  public static SeatHolds testHolds;
+  public static CourseLookup testLookup;
+
+  /**
+   * This sets up holds that expire after 200 milliseconds on a course with two seats.
+   */
+  @BeforeEach
+  public void setupSeatHoldsForTesting() {
+    testHolds = new SeatHolds(Duration.ofMillis(200), 10);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("2500", new Course("Uday Menon", "627 MUDD", "11:40-12:55", 2));
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("IEOR", new Department("IEOR", courses, "Jay Sethuraman", 67));
+    MyFileDatabase database = new MyFileDatabase(1, "./seat-holds-test.txt");
+    database.setMapping(mapping);
+    testLookup = CourseLookup.resolve(database, "IEOR", 2500);
+  }
+
+  @AfterEach
+  public void closeSeatHolds() {
+    testHolds.close();
+  }
+
+  @Test
+  public void holdCountsAgainstCapacityTest() {
+    Course course = testLookup.getCourse();
+    long first = testHolds.hold(testLookup);
+    assertNotEquals(0, first);
+    assertTrue(course.enrollStudent());
+    assertEquals(0, testHolds.hold(testLookup));
+    assertTrue(course.isCourseFull());
+    assertEquals(1, course.getEnrolledStudentCount());
+    assertEquals(1, course.getHeldSeatCount());
+
+    // A drop removes the enrolled student, never the held seat.
+    assertTrue(course.dropStudent());
+    assertFalse(course.dropStudent());
+    assertEquals(0, course.getState().getEnrolledCount());
+  }
+
+  @Test
+  public void confirmAndReleaseTest() {
+    Course course = testLookup.getCourse();
+    long confirmed = testHolds.hold(testLookup);
+    long released = testHolds.hold(testLookup);
+    assertSame(testLookup, testHolds.take(confirmed));
+    course.confirmHeldSeat();
+    assertNull(testHolds.take(confirmed));
+    assertSame(testLookup, testHolds.take(released));
+    assertFalse(course.releaseHeldSeat());
+
+    assertEquals(1, course.getEnrolledStudentCount());
+    assertEquals(0, course.getHeldSeatCount());
+    assertEquals(0, testHolds.size());
+    assertFalse(course.isCourseFull());
+  }
+
+  @Test
+  public void expiryTest() throws InterruptedException {
+    Course course = testLookup.getCourse();
+    long expiring = testHolds.hold(testLookup);
+    course.enrollStudent();
+    assertEquals(1, course.joinWaitlist());
+
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (testHolds.size() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertNull(testHolds.take(expiring));
+    assertEquals(0, course.getHeldSeatCount());
+    assertEquals(0, course.getWaitlistPosition(1));
+    assertEquals(2, course.getEnrolledStudentCount());
+  }
+}
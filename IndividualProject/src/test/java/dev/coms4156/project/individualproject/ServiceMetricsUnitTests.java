@@ -0,0 +1,91 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the ServiceMetrics class
+ * to validate how requests and gauges are reported.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class ServiceMetricsUnitTests {
+
+  /** The test instances used for testing. */
+  public static ServiceMetrics testMetrics;
+
+  /**
+   * This sets up empty metrics and a database holding one department with two courses.
+   */
+  @BeforeEach
+  public void setupServiceMetricsForTesting() {
+    testMetrics = new ServiceMetrics();
+    Course fullCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    fullCourse.setEnrolledStudentCount(120);
+    Course openCourse = new Course("Jae Lee", "417 IAB", "4:10-5:25", 400);
+    openCourse.setEnrolledStudentCount(311);
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", fullCourse);
+    courses.put("3157", openCourse);
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    MyFileDatabase database = new MyFileDatabase(1, "unused");
+    database.setMapping(mapping);
+    IndividualProjectApplication.overrideDatabase(database);
+  }
+
+  @Test
+  public void recordTest() {
+    testMetrics.record("/retrieveDept", ServiceMetrics.Outcome.OK, 1_000);
+    testMetrics.record("/retrieveDept", ServiceMetrics.Outcome.OK, 3_000);
+    testMetrics.record("/retrieveDept", ServiceMetrics.Outcome.NOT_FOUND, 2_000);
+    assertEquals(2, testMetrics.count("/retrieveDept", ServiceMetrics.Outcome.OK));
+    assertEquals(1, testMetrics.count("/retrieveDept", ServiceMetrics.Outcome.NOT_FOUND));
+    assertEquals(0, testMetrics.count("/retrieveCourse", ServiceMetrics.Outcome.OK));
+  }
+
+  @Test
+  public void outcomeOfStatusTest() {
+    assertEquals(ServiceMetrics.Outcome.OK, ServiceMetrics.Outcome.ofStatus(200));
+    assertEquals(ServiceMetrics.Outcome.BAD_REQUEST, ServiceMetrics.Outcome.ofStatus(400));
+    assertEquals(ServiceMetrics.Outcome.NOT_FOUND, ServiceMetrics.Outcome.ofStatus(404));
+    assertEquals(ServiceMetrics.Outcome.SERVER_ERROR, ServiceMetrics.Outcome.ofStatus(500));
+    assertEquals(ServiceMetrics.Outcome.OTHER, ServiceMetrics.Outcome.ofStatus(405));
+  }
+
+  @Test
+  public void courseFullMarkTest() {
+    assertFalse(ServiceMetrics.takeCourseFullMark());
+    new RouteController().enrollStudentInCourse("COMS", 4156);
+    assertTrue(ServiceMetrics.takeCourseFullMark());
+    assertFalse(ServiceMetrics.takeCourseFullMark());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void snapshotTest() {
+    testMetrics.record("/enrollStudentInCourse", ServiceMetrics.Outcome.COURSE_FULL, 4_000);
+    Map<String, Object> snapshot = testMetrics.snapshot();
+
+    Map<String, Object> endpoints = (Map<String, Object>) snapshot.get("endpoints");
+    Map<String, Object> outcomes = (Map<String, Object>) endpoints.get("/enrollStudentInCourse");
+    Map<String, Object> courseFull = (Map<String, Object>) outcomes.get("course full");
+    assertEquals(1L, courseFull.get("count"));
+    assertEquals(4.0, courseFull.get("maxMicros"));
+
+    Map<String, Object> catalog = (Map<String, Object>) snapshot.get("catalog");
+    assertEquals(1, catalog.get("departments"));
+    assertEquals(2L, catalog.get("courses"));
+    assertEquals(520L, catalog.get("totalSeats"));
+    assertEquals(431L, catalog.get("enrolledSeats"));
+    assertTrue(snapshot.containsKey("persistence"));
+  }
+}
@@ -0,0 +1,145 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the SnapshotWriter, SnapshotReader and
+ * LegacySnapshotReader classes to validate the binary snapshot format and the migration of
+ * legacy data files.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class SnapshotUnitTests {
+
+  /** The directory holding the snapshot files for each test. */
+  @TempDir
+  public Path tempDir;
+
+  /** The test instances used for testing. */
+  public static HashMap<String, Department> testMapping;
+  public static Path testSnapshotPath;
+
+  /**
+   * This sets up a small department mapping to write and read back.
+   */
+  @BeforeEach
+  public void setupSnapshotForTesting() {
+    HashMap<String, Course> courses = new HashMap<>();
+    Course course = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    course.setEnrolledStudentCount(109);
+    courses.put("4156", course);
+    courses.put("3251", new Course("Tony Dear", "402 CHANDLER", "1:10-3:40", 125));
+    testMapping = new HashMap<>();
+    testMapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    testMapping.put("ECON", new Department("ECON", new HashMap<>(), "Michael Woodford", 2345));
+    testSnapshotPath = tempDir.resolve("data.txt");
+  }
+
+  @Test
+  public void writeAndReadTest() throws IOException {
+    long size = SnapshotWriter.write(testSnapshotPath, testMapping);
+    assertEquals(Files.size(testSnapshotPath), size);
+    assertFalse(Files.exists(tempDir.resolve("data.txt.tmp")));
+
+    HashMap<String, Department> read = SnapshotReader.read(testSnapshotPath);
+    assertEquals(2, read.size());
+    Department coms = read.get("COMS");
+    assertEquals("Luca Carloni", coms.getDepartmentChair());
+    assertEquals(2700, coms.getNumberOfMajors());
+    Course course = coms.getCourseSelection().get("4156");
+    assertEquals(120, course.getEnrollmentCapacity());
+    assertEquals(109, course.getEnrolledStudentCount());
+    assertTrue(read.get("ECON").getCourseSelection().isEmpty());
+  }
+
+  @Test
+  public void waitlistTest() throws IOException {
+    Course course = testMapping.get("COMS").getCourseSelection().get("4156");
+    course.setEnrolledStudentCount(120);
+    course.joinWaitlist();
+    course.joinWaitlist();
+    course.dropStudent();
+    SnapshotWriter.write(testSnapshotPath, testMapping);
+
+    Course read = SnapshotReader.read(testSnapshotPath).get("COMS").getCourseSelection()
+        .get("4156");
+    assertEquals(0, read.getWaitlistPosition(1));
+    assertEquals(1, read.getWaitlistPosition(2));
+    assertEquals(course.getEnrollmentState(), read.getEnrollmentState());
+  }
+
+  @Test
+  public void corruptedSnapshotTest() throws IOException {
+    SnapshotWriter.write(testSnapshotPath, testMapping);
+    byte[] bytes = Files.readAllBytes(testSnapshotPath);
+    bytes[SnapshotWriter.HEADER_SIZE + SnapshotWriter.FRAME_HEADER_SIZE + 2] ^= 0x7f;
+    Files.write(testSnapshotPath, bytes);
+    assertThrows(IOException.class, () -> SnapshotReader.read(testSnapshotPath));
+  }
+
+  @Test
+  public void mappedSnapshotTest() throws IOException {
+    SnapshotWriter.write(testSnapshotPath, testMapping);
+    MappedSnapshot snapshot = MappedSnapshot.open(testSnapshotPath);
+    assertEquals(testMapping.keySet(), snapshot.getDeptCodes());
+    assertEquals(2345, snapshot.decode("ECON").getNumberOfMajors());
+    assertEquals(null, snapshot.decode("PHYS"));
+
+    LazyDepartmentMap lazyMapping = new LazyDepartmentMap(snapshot);
+    assertEquals(2, lazyMapping.size());
+    assertTrue(lazyMapping.containsKey("COMS"));
+    assertEquals(0, lazyMapping.getDecodedCount());
+    Department coms = lazyMapping.get("COMS");
+    assertEquals(1, lazyMapping.getDecodedCount());
+    assertSame(coms, lazyMapping.get("COMS"));
+    assertEquals(109, coms.getCourseSelection().get("4156").getEnrolledStudentCount());
+
+    lazyMapping.warmUp();
+    assertEquals(2, lazyMapping.getDecodedCount());
+  }
+
+  @Test
+  public void lazyDatabaseTest() throws IOException {
+    SnapshotWriter.write(testSnapshotPath, testMapping);
+    MyFileDatabase database = new MyFileDatabase(2, testSnapshotPath.toString());
+    assertEquals(2, database.getDepartmentMapping().size());
+    assertEquals("Luca Carloni",
+        database.getDepartmentMapping().get("COMS").getDepartmentChair());
+    assertTrue(database.findCourses("4156").containsKey("COMS"));
+  }
+
+  @Test
+  public void legacyMigrationTest() throws IOException {
+    try (InputStream legacy = getClass().getResourceAsStream("/legacy-data.txt")) {
+      Files.copy(legacy, testSnapshotPath);
+    }
+    assertTrue(LegacySnapshotReader.isLegacySnapshot(testSnapshotPath));
+    HashMap<String, Department> legacyMapping = LegacySnapshotReader.read(testSnapshotPath);
+
+    MyFileDatabase database = new MyFileDatabase(0, testSnapshotPath.toString());
+    assertFalse(LegacySnapshotReader.isLegacySnapshot(testSnapshotPath));
+    assertEquals(legacyMapping.size(), database.getDepartmentMapping().size());
+    for (String courseId : legacyMapping.get("COMS").getCourseSelection().keySet()) {
+      assertEquals(legacyMapping.get("COMS").getCourseSelection().get(courseId).toString(),
+          database.getDepartmentMapping().get("COMS").getCourseSelection().get(courseId)
+              .toString());
+    }
+    assertEquals(legacyMapping.get("IEOR").getNumberOfMajors(),
+        SnapshotReader.read(testSnapshotPath).get("IEOR").getNumberOfMajors());
+  }
+}
@@ -0,0 +1,83 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the StripedCounter class.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class StripedCounterUnitTests {
+
+  /** The test counter instance used for testing. */
+  public static StripedCounter testCounter;
+
+  @BeforeEach
+  public void setupStripedCounterForTesting() {
+    testCounter = new StripedCounter(2);
+  }
+
+  @Test
+  public void countTest() {
+    testCounter.increment();
+    assertEquals(3, testCounter.sum());
+    assertTrue(testCounter.tryDecrement());
+    assertTrue(testCounter.tryDecrement());
+    assertTrue(testCounter.tryDecrement());
+    assertFalse(testCounter.tryDecrement());
+    assertEquals(0, testCounter.sum());
+
+    testCounter.set(5);
+    assertEquals(5, testCounter.sum());
+    assertThrows(IllegalArgumentException.class, () -> testCounter.set(-1));
+    assertThrows(IllegalArgumentException.class, () -> new StripedCounter(-1));
+  }
+
+  @Test
+  public void concurrentTest() throws InterruptedException {
+    int threads = 8;
+    int changesPerThread = 20_000;
+    runOnThreads(threads, () -> {
+      for (int i = 0; i < changesPerThread; i++) {
+        testCounter.increment();
+      }
+    });
+    long count = 2 + (long) threads * changesPerThread;
+    assertEquals(count, testCounter.sum());
+
+    // Drops from threads other than the ones that added must still find the count.
+    AtomicInteger decremented = new AtomicInteger();
+    runOnThreads(threads, () -> {
+      for (int i = 0; i < 2 * changesPerThread; i++) {
+        if (testCounter.tryDecrement()) {
+          decremented.incrementAndGet();
+        }
+      }
+    });
+    assertEquals(count, decremented.get());
+    assertEquals(0, testCounter.sum());
+
+    testCounter.set(7);
+    assertEquals(7, testCounter.sum());
+  }
+
+  private static void runOnThreads(int threads, Runnable task) throws InterruptedException {
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(task);
+      workers[i].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+  }
+}
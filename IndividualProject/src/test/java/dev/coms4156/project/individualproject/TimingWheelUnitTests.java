@@ -0,0 +1,83 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * This class contains the unit tests for the TimingWheel class
+ * to validate when scheduled tasks run.
+ */
+@SpringBootTest
+@ContextConfiguration
+public class TimingWheelUnitTests {
+
+  /** The test wheel instance used for testing. */
+  public static TimingWheel testWheel;
+
+  /**
+   * This sets up a wheel with a tick of one millisecond.
+   */
+  @BeforeEach
+  public void setupTimingWheelForTesting() {
+    testWheel = new TimingWheel(1, "timing-wheel-test");
+  }
+
+  @AfterEach
+  public void closeTimingWheel() {
+    testWheel.close();
+  }
+
+  @Test
+  public void tasksRunNoEarlierThanDueTest() throws InterruptedException {
+    // Delays up to 300 ticks are first placed on level 1 and moved down to level 0.
+    int tasks = 300;
+    CountDownLatch done = new CountDownLatch(tasks);
+    AtomicInteger early = new AtomicInteger();
+    for (int i = 0; i < tasks; i++) {
+      long delay = i;
+      long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+      testWheel.schedule(() -> {
+        if (System.nanoTime() < due) {
+          early.incrementAndGet();
+        }
+        done.countDown();
+      }, delay);
+    }
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(0, early.get());
+    assertEquals(0, testWheel.size());
+  }
+
+  @Test
+  public void cancelTest() throws InterruptedException {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(1);
+    TimingWheel.Timeout cancelled = testWheel.schedule(runs::incrementAndGet, 100);
+    testWheel.schedule(done::countDown, 150);
+    assertEquals(2, testWheel.size());
+    assertTrue(cancelled.cancel());
+    assertFalse(cancelled.cancel());
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(0, runs.get());
+    assertEquals(0, testWheel.size());
+  }
+
+  @Test
+  public void invalidScheduleTest() {
+    assertThrows(IllegalArgumentException.class, () -> testWheel.schedule(() -> { }, -1));
+    testWheel.close();
+    assertThrows(IllegalStateException.class, () -> testWheel.schedule(() -> { }, 1));
+  }
+}
@@ -0,0 +1,71 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Course;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures enrolling in and dropping from a single course shared by every benchmark thread,
+ * so running with {@code -t} threads shows how enrollment behaves under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseBenchmark {
+
+  private Course openCourse;
+  private Course fullCourse;
+
+  /**
+   * Creates a course with room to spare and a course that is full.
+   */
+  @Setup
+  public void setup() {
+    openCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", Integer.MAX_VALUE);
+    fullCourse = new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120);
+    fullCourse.setEnrolledStudentCount(120);
+  }
+
+  /**
+   * Enrolls a student and drops them again, so the count stays put.
+   *
+   * @return whether the drop succeeded
+   */
+  @Benchmark
+  public boolean enrollAndDrop() {
+    openCourse.enrollStudent();
+    return openCourse.dropStudent();
+  }
+
+  /**
+   * Tries to enroll in a full course.
+   *
+   * @return whether the enrollment succeeded, which it never does
+   */
+  @Benchmark
+  public boolean enrollWhenFull() {
+    return fullCourse.enrollStudent();
+  }
+
+  /**
+   * Checks whether the course is full.
+   *
+   * @return whether the course is full
+   */
+  @Benchmark
+  public boolean isCourseFull() {
+    return openCourse.isCourseFull();
+  }
+}
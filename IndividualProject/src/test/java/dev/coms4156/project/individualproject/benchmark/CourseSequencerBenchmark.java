@@ -0,0 +1,74 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Course;
+import dev.coms4156.project.individualproject.CourseLookup;
+import dev.coms4156.project.individualproject.CourseSequencer;
+import dev.coms4156.project.individualproject.Department;
+import dev.coms4156.project.individualproject.MyFileDatabase;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures enrolling in and dropping from a single course shared by every benchmark thread,
+ * either on the benchmark threads or through a {@link CourseSequencer}. Running with increasing
+ * {@code -t} shows how each copes with a course everybody wants at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSequencerBenchmark {
+
+  /** The number of loops of the sequencer, where 0 applies changes on the benchmark threads. */
+  @Param({"0", "1"})
+  public int sequencerThreads;
+
+  private CourseSequencer sequencer;
+  private CourseLookup hotCourse;
+
+  /**
+   * Creates the sequencer and a course with room to spare.
+   */
+  @Setup
+  public void setup() {
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156",
+        new Course("Gail Kaiser", "501 NWC", "10:10-11:25", Integer.MAX_VALUE));
+    HashMap<String, Department> mapping = new HashMap<>();
+    mapping.put("COMS", new Department("COMS", courses, "Luca Carloni", 2700));
+    MyFileDatabase database = new MyFileDatabase(1, "benchmark-data.txt");
+    database.setMapping(mapping);
+    hotCourse = CourseLookup.resolve(database, "COMS", 4156);
+    sequencer = new CourseSequencer(sequencerThreads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sequencer.close();
+  }
+
+  /**
+   * Enrolls a student and drops them again, so the count stays put.
+   *
+   * @return whether the drop succeeded
+   */
+  @Benchmark
+  public boolean enrollAndDrop() {
+    sequencer.apply(hotCourse, Course::enrollStudent);
+    return sequencer.apply(hotCourse, Course::dropStudent);
+  }
+}
@@ -0,0 +1,79 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Course;
+import dev.coms4156.project.individualproject.Department;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures changing and reading the number of majors of a single department shared by 64
+ * benchmark threads. Running again with {@code -t 1} shows how the count scales with the
+ * threads. Every change is undone by the same invocation, so the count must be back where it
+ * started after each iteration, and the benchmark fails if an update was lost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class DepartmentBenchmark {
+
+  private static final int INITIAL_MAJORS = 1_000_000;
+
+  private Department department;
+
+  /**
+   * Creates a department with plenty of majors, so drops never find the count at zero.
+   */
+  @Setup(Level.Iteration)
+  public void setup() {
+    HashMap<String, Course> courses = new HashMap<>();
+    courses.put("4156", new Course("Gail Kaiser", "501 NWC", "10:10-11:25", 120));
+    department = new Department("COMS", courses, "Luca Carloni", INITIAL_MAJORS);
+  }
+
+  /**
+   * Checks that no update was lost.
+   */
+  @TearDown(Level.Iteration)
+  public void checkMajors() {
+    if (department.getNumberOfMajors() != INITIAL_MAJORS) {
+      throw new IllegalStateException("Lost updates: expected " + INITIAL_MAJORS
+          + " majors but found " + department.getNumberOfMajors());
+    }
+  }
+
+  /**
+   * Adds a major and drops one again.
+   */
+  @Benchmark
+  public void addAndDropMajor() {
+    department.addPersonToMajor();
+    department.dropPersonFromMajor();
+  }
+
+  /**
+   * Reads the number of majors, as {@code /getMajorCountFromDept} does.
+   *
+   * @return the number of majors
+   */
+  @Benchmark
+  public int getNumberOfMajors() {
+    return department.getNumberOfMajors();
+  }
+}
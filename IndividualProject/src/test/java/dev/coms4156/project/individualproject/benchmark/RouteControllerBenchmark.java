@@ -0,0 +1,148 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Department;
+import dev.coms4156.project.individualproject.IndividualProjectApplication;
+import dev.coms4156.project.individualproject.MyFileDatabase;
+import dev.coms4156.project.individualproject.NegotiatedBody;
+import dev.coms4156.project.individualproject.RouteController;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Measures the lookup endpoints of {@link RouteController}, called directly without going
+ * through HTTP, against a synthetic catalog. Each call picks a random department and course.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteControllerBenchmark {
+
+  /** The number of departments in the catalog. */
+  @Param({"10", "1000"})
+  public int departments;
+
+  /** The number of courses in each department. */
+  @Param({"50"})
+  public int coursesPerDepartment;
+
+  /** The seed of the catalog. */
+  @Param({"4156"})
+  public long seed;
+
+  private RouteController controller;
+  private Department sampleDepartment;
+
+  /**
+   * Loads the synthetic catalog into the database used by the controller.
+   */
+  @Setup
+  public void setup() {
+    MyFileDatabase database = new MyFileDatabase(1, "benchmark-data.txt");
+    database.setMapping(SyntheticCatalog.build(departments, coursesPerDepartment, seed));
+    IndividualProjectApplication.overrideDatabase(database);
+    controller = new RouteController();
+    sampleDepartment = database.getDepartment(SyntheticCatalog.deptCode(0));
+  }
+
+  /**
+   * Retrieves a department and writes its body as JSON, the default representation.
+   *
+   * @return the bytes of the body
+   */
+  @Benchmark
+  public byte[] retrieveDepartment() {
+    return jsonBytes(controller.retrieveDepartment(randomDeptCode()));
+  }
+
+  /**
+   * Retrieves a course and writes its body as JSON, the default representation.
+   *
+   * @return the bytes of the body
+   */
+  @Benchmark
+  public byte[] retrieveCourse() {
+    return jsonBytes(controller.retrieveCourse(randomDeptCode(), randomCourseCode()));
+  }
+
+  /**
+   * Looks up a course ID that every department offers and writes the body as JSON.
+   *
+   * @return the bytes of the body listing the course in every department
+   */
+  @Benchmark
+  public byte[] retrieveCourses() {
+    return jsonBytes(controller.retrieveCourses(randomCourseCode()));
+  }
+
+  @Benchmark
+  public ResponseEntity<?> isCourseFull() {
+    return controller.isCourseFull(randomDeptCode(), randomCourseCode());
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getMajorCountFromDept() {
+    return controller.getMajorCtFromDept(randomDeptCode());
+  }
+
+  @Benchmark
+  public ResponseEntity<?> identifyDeptChair() {
+    return controller.identifyDeptChair(randomDeptCode());
+  }
+
+  @Benchmark
+  public ResponseEntity<?> findCourseLocation() {
+    return controller.findCourseLocation(randomDeptCode(), randomCourseCode());
+  }
+
+  @Benchmark
+  public ResponseEntity<?> findCourseInstructor() {
+    return controller.findCourseInstructor(randomDeptCode(), randomCourseCode());
+  }
+
+  @Benchmark
+  public ResponseEntity<?> findCourseTime() {
+    return controller.findCourseTime(randomDeptCode(), randomCourseCode());
+  }
+
+  /**
+   * Renders a department without the response cache.
+   *
+   * @return the rendered department
+   */
+  @Benchmark
+  public String departmentToString() {
+    return sampleDepartment.toString();
+  }
+
+  /**
+   * Gets the bytes the JSON form of a response body is written as, rendering the body if it is
+   * not rendered yet, so that the work of writing the body is measured too.
+   */
+  private static byte[] jsonBytes(ResponseEntity<?> response) {
+    return ((NegotiatedBody) response.getBody()).getRenderedJson().getBytes();
+  }
+
+  private String randomDeptCode() {
+    return SyntheticCatalog.deptCode(ThreadLocalRandom.current().nextInt(departments));
+  }
+
+  private int randomCourseCode() {
+    return SyntheticCatalog.courseCode(
+        ThreadLocalRandom.current().nextInt(coursesPerDepartment));
+  }
+}
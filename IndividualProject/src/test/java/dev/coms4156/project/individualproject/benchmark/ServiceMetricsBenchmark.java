@@ -0,0 +1,34 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.ServiceMetrics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost that {@link ServiceMetrics} adds to every request: reading the clock twice
+ * and recording the duration. Run with {@code -t} threads to include contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceMetricsBenchmark {
+
+  private final ServiceMetrics metrics = new ServiceMetrics();
+
+  @Benchmark
+  public void timeAndRecord() {
+    long start = System.nanoTime();
+    metrics.record("/retrieveCourse", ServiceMetrics.Outcome.OK, System.nanoTime() - start);
+  }
+}
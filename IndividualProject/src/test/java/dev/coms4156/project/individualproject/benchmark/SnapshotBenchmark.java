@@ -0,0 +1,94 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Department;
+import dev.coms4156.project.individualproject.MyFileDatabase;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving a synthetic catalog with {@link MyFileDatabase#saveContentsToFile()} and
+ * loading it back from the snapshot file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+  /** The number of departments in the catalog. */
+  @Param({"100", "1000"})
+  public int departments;
+
+  /** The number of courses in each department. */
+  @Param({"50"})
+  public int coursesPerDepartment;
+
+  /** The seed of the catalog. */
+  @Param({"4156"})
+  public long seed;
+
+  private Path directory;
+  private MyFileDatabase database;
+  private String loadPath;
+
+  /**
+   * Builds the catalog and writes the snapshot that the load benchmark reads.
+   *
+   * @throws IOException if the temporary directory cannot be created
+   */
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("snapshot-benchmark");
+    Map<String, Department> mapping =
+        SyntheticCatalog.build(departments, coursesPerDepartment, seed);
+    database = new MyFileDatabase(1, directory.resolve("save.txt").toString());
+    database.setMapping(mapping);
+
+    loadPath = directory.resolve("load.txt").toString();
+    MyFileDatabase source = new MyFileDatabase(1, loadPath);
+    source.setMapping(mapping);
+    source.saveContentsToFile();
+  }
+
+  /**
+   * Deletes the snapshot files.
+   *
+   * @throws IOException if a file cannot be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  @Benchmark
+  public void save() {
+    database.saveContentsToFile();
+  }
+
+  @Benchmark
+  public MyFileDatabase load() {
+    return new MyFileDatabase(0, loadPath);
+  }
+}
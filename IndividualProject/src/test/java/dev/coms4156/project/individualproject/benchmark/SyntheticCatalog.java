@@ -0,0 +1,73 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.Course;
+import dev.coms4156.project.individualproject.Department;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds department mappings of a given size for the benchmarks. Every department offers the
+ * same course IDs, so {@code /retrieveCourses} finds a match in every department.
+ */
+final class SyntheticCatalog {
+
+  private SyntheticCatalog() {
+  }
+
+  /**
+   * Builds a catalog. The same arguments always produce the same catalog.
+   *
+   * @param departments          the number of departments
+   * @param coursesPerDepartment the number of courses in each department
+   * @param seed                 the seed of the random values
+   * @return the department mapping
+   */
+  static Map<String, Department> build(int departments, int coursesPerDepartment, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Map<String, Department> mapping = new HashMap<>();
+    for (int d = 0; d < departments; d++) {
+      String deptCode = deptCode(d);
+      Map<String, Course> courses = new HashMap<>();
+      for (int c = 0; c < coursesPerDepartment; c++) {
+        int capacity = 20 + random.nextInt(380);
+        Course course = new Course("Instructor " + random.nextInt(10_000),
+            (100 + random.nextInt(900)) + " HALL", TIME_SLOTS[random.nextInt(TIME_SLOTS.length)],
+            capacity);
+        course.setEnrolledStudentCount(random.nextInt(capacity));
+        courses.put(courseId(c), course);
+      }
+      mapping.put(deptCode, new Department(deptCode, courses, "Chair " + d,
+          random.nextInt(3000)));
+    }
+    return mapping;
+  }
+
+  /**
+   * Gets the code of the department with the given index.
+   *
+   * @param index the index of the department
+   * @return the department code
+   */
+  static String deptCode(int index) {
+    return "D" + index;
+  }
+
+  /**
+   * Gets the course code of the course with the given index.
+   *
+   * @param index the index of the course within its department
+   * @return the course code
+   */
+  static int courseCode(int index) {
+    return 1000 + index;
+  }
+
+  private static String courseId(int index) {
+    return Integer.toString(courseCode(index));
+  }
+
+  private static final String[] TIME_SLOTS = {
+      "8:40-9:55", "10:10-11:25", "11:40-12:55", "1:10-2:25", "2:40-3:55", "4:10-5:25"
+  };
+}
@@ -0,0 +1,92 @@
+package dev.coms4156.project.individualproject.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The latencies and status codes of the responses of one endpoint during a load test.
+ * Latencies are recorded in microseconds with three significant digits.
+ */
+final class EndpointStats {
+
+  EndpointStats(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Records a response.
+   *
+   * @param latencyNanos the time from when the request was due to be sent until the response
+   * @param status       the status code of the response
+   */
+  void record(long latencyNanos, int status) {
+    latencies.recordValue(Math.min(toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Records a request that failed without a response.
+   *
+   * @param latencyNanos the time from when the request was due to be sent until it failed
+   */
+  void recordFailure(long latencyNanos) {
+    latencies.recordValue(Math.min(toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    failures.increment();
+  }
+
+  /**
+   * Gets the number of responses with the given status code.
+   *
+   * @param status the status code
+   * @return the number of responses
+   */
+  long count(int status) {
+    LongAdder count = statuses.get(status);
+    return count == null ? 0 : count.sum();
+  }
+
+  /**
+   * Formats the statistics as one line of {@code key=value} pairs. Every response other than
+   * 200 counts as an error.
+   *
+   * @param seconds the length of the measurement, used for the throughput
+   * @return the report line
+   */
+  String report(double seconds) {
+    Histogram snapshot = latencies.copy();
+    long total = snapshot.getTotalCount();
+    long errors = total - count(200);
+    StringBuilder line = new StringBuilder()
+        .append("endpoint=").append(name)
+        .append(" requests=").append(total)
+        .append(" throughput=").append(String.format("%.1f", total / seconds))
+        .append(" errors=").append(errors)
+        .append(" errorRate=")
+        .append(String.format("%.4f", total == 0 ? 0 : errors / (double) total))
+        .append(" failures=").append(failures.sum());
+    for (Map.Entry<Integer, LongAdder> status : new TreeMap<>(statuses).entrySet()) {
+      line.append(" status").append(status.getKey()).append('=').append(status.getValue().sum());
+    }
+    line.append(" p50us=").append(snapshot.getValueAtPercentile(50))
+        .append(" p90us=").append(snapshot.getValueAtPercentile(90))
+        .append(" p99us=").append(snapshot.getValueAtPercentile(99))
+        .append(" p999us=").append(snapshot.getValueAtPercentile(99.9))
+        .append(" maxUs=").append(snapshot.getMaxValue());
+    return line.toString();
+  }
+
+  private static long toMicros(long nanos) {
+    return Math.max(0, nanos / 1000);
+  }
+
+  private static final long MAX_LATENCY_MICROS = 60_000_000L;
+
+  private final String name;
+  private final ConcurrentHistogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+  private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+  private final LongAdder failures = new LongAdder();
+}
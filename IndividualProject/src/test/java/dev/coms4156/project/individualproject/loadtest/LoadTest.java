@@ -0,0 +1,292 @@
+package dev.coms4156.project.individualproject.loadtest;
+
+import dev.coms4156.project.individualproject.CatalogGenerator;
+import dev.coms4156.project.individualproject.Course;
+import dev.coms4156.project.individualproject.Department;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the service over HTTP and reports latency percentiles, throughput and error rates per
+ * endpoint. The application runs in-process on a random port through {@link LoadTestServer}.
+ *
+ * <p>Two scenarios are available, picked with the {@code scenario} system property:
+ * <ul>
+ *   <li>{@code mix} (the default) sends a weighted mix of requests at a fixed total rate to
+ *   random courses. Requests are sent on schedule whether or not earlier ones have completed,
+ *   and latency is measured from when a request was due, so a stalled server shows up in the
+ *   percentiles instead of silently lowering the rate. Properties: {@code rate} (1000 requests
+ *   per second), {@code warmupSeconds} (5), {@code seconds} (30), {@code maxInFlight} (10000),
+ *   {@code mix} ({@code retrieveDept:20,retrieveCourse:40,isCourseFull:20,
+ *   enrollStudentInCourse:10,dropStudentFromCourse:10}), and {@code departments},
+ *   {@code coursesPerDepartment} and {@code seed} to serve a generated catalog instead of the
+ *   one created by {@code setup}.</li>
+ *   <li>{@code storm} is a registration storm: {@code clients} (2000) requests to enroll in one
+ *   course with {@code capacity} (half the clients) seats arrive at once, followed by as many
+ *   requests to drop it. The scenario fails if any seat is sold twice or left unsold, or if the
+ *   course does not end up empty.</li>
+ * </ul>
+ *
+ * <p>Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=dev.coms4156.project.individualproject.loadtest.LoadTest -Dscenario=storm}.
+ * Every endpoint is reported on one line of {@code key=value} pairs with latencies in
+ * microseconds. The process exits with status 1 if a check fails.
+ */
+public class LoadTest {
+
+  /**
+   * Runs the scenario chosen by the {@code scenario} system property.
+   *
+   * @param args unused
+   * @throws Exception if the application cannot be started
+   */
+  public static void main(String[] args) throws Exception {
+    String scenario = System.getProperty("scenario", "mix");
+    boolean passed;
+    if (scenario.equals("mix")) {
+      passed = runMix();
+    } else if (scenario.equals("storm")) {
+      passed = runStorm();
+    } else {
+      throw new IllegalArgumentException("Unknown scenario: " + scenario);
+    }
+    System.exit(passed ? 0 : 1);
+  }
+
+  /**
+   * The endpoints the load test can call.
+   */
+  enum Endpoint {
+    RETRIEVE_DEPT("retrieveDept", "GET", false),
+    RETRIEVE_COURSE("retrieveCourse", "GET", true),
+    IS_COURSE_FULL("isCourseFull", "GET", true),
+    ENROLL_STUDENT_IN_COURSE("enrollStudentInCourse", "PATCH", true),
+    DROP_STUDENT_FROM_COURSE("dropStudentFromCourse", "PATCH", true),
+    JOIN_WAITLIST("joinWaitlist", "PATCH", true);
+
+    Endpoint(String path, String method, boolean needsCourse) {
+      this.path = path;
+      this.method = method;
+      this.needsCourse = needsCourse;
+    }
+
+    static Endpoint forPath(String path) {
+      for (Endpoint endpoint : values()) {
+        if (endpoint.path.equals(path)) {
+          return endpoint;
+        }
+      }
+      throw new IllegalArgumentException("Unknown endpoint: " + path);
+    }
+
+    HttpRequest request(String baseUrl, String deptCode, String courseCode) {
+      String uri = baseUrl + "/" + path + "?deptCode=" + deptCode;
+      if (needsCourse) {
+        uri += "&courseCode=" + courseCode;
+      }
+      return HttpRequest.newBuilder(URI.create(uri))
+          .method(method, HttpRequest.BodyPublishers.noBody())
+          .build();
+    }
+
+    private final String path;
+    private final String method;
+    private final boolean needsCourse;
+  }
+
+  private static boolean runMix() throws Exception {
+    int rate = Integer.getInteger("rate", 1000);
+    int warmupSeconds = Integer.getInteger("warmupSeconds", 5);
+    int seconds = Integer.getInteger("seconds", 30);
+    int maxInFlight = Integer.getInteger("maxInFlight", 10_000);
+    Map<Endpoint, Integer> mix = parseMix(System.getProperty("mix",
+        "retrieveDept:20,retrieveCourse:40,isCourseFull:20,"
+            + "enrollStudentInCourse:10,dropStudentFromCourse:10"));
+
+    Endpoint[] endpoints = mix.keySet().toArray(new Endpoint[0]);
+    int[] cumulativeWeights = new int[endpoints.length];
+    int totalWeight = 0;
+    for (int i = 0; i < endpoints.length; i++) {
+      totalWeight += mix.get(endpoints[i]);
+      cumulativeWeights[i] = totalWeight;
+    }
+
+    Map<Endpoint, EndpointStats> stats = newStats(endpoints);
+    try (LoadTestServer server = LoadTestServer.start(generatedCatalog(),
+        "server.tomcat.max-connections=" + (maxInFlight + 1000))) {
+      List<String[]> courses = server.listCourses();
+      ExecutorService clientExecutor = newClientExecutor();
+      HttpClient client = newClient(clientExecutor);
+      Semaphore inFlight = new Semaphore(maxInFlight);
+
+      long interval = 1_000_000_000L / rate;
+      long start = System.nanoTime();
+      long measureStart = start + warmupSeconds * 1_000_000_000L;
+      long end = measureStart + seconds * 1_000_000_000L;
+      for (long i = 0; ; i++) {
+        long due = start + i * interval;
+        if (due >= end) {
+          break;
+        }
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        int index = 0;
+        while (cumulativeWeights[index] <= pick) {
+          index++;
+        }
+        Endpoint endpoint = endpoints[index];
+        String[] course = courses.get(ThreadLocalRandom.current().nextInt(courses.size()));
+        inFlight.acquire();
+        send(client, endpoint.request(server.getBaseUrl(), course[0], course[1]), due,
+            due >= measureStart ? stats.get(endpoint) : null)
+            .whenComplete((ignored, error) -> inFlight.release());
+      }
+      inFlight.acquire(maxInFlight);
+      clientExecutor.shutdownNow();
+    }
+
+    System.out.println("scenario=mix rate=" + rate + " seconds=" + seconds);
+    for (EndpointStats endpointStats : stats.values()) {
+      System.out.println(endpointStats.report(seconds));
+    }
+    return true;
+  }
+
+  private static boolean runStorm() throws Exception {
+    int clients = Integer.getInteger("clients", 2000);
+    int capacity = Integer.getInteger("capacity", clients / 2);
+    Map<Endpoint, EndpointStats> stats = newStats(
+        new Endpoint[] {Endpoint.ENROLL_STUDENT_IN_COURSE, Endpoint.DROP_STUDENT_FROM_COURSE});
+
+    boolean passed = true;
+    try (LoadTestServer server = LoadTestServer.start(null,
+        "server.tomcat.max-connections=" + (clients + 1000),
+        "server.tomcat.accept-count=" + clients)) {
+      Department department = server.getDatabase().getDepartment(STORM_DEPT);
+      department.createCourse(STORM_COURSE, "Storm Instructor", "501 NWC", "10:10-11:25",
+          capacity);
+      Course course = department.getCourseSelection().get(STORM_COURSE);
+      ExecutorService clientExecutor = newClientExecutor();
+      HttpClient client = newClient(clientExecutor);
+
+      long[] durations = new long[2];
+      Endpoint[] phases = {Endpoint.ENROLL_STUDENT_IN_COURSE, Endpoint.DROP_STUDENT_FROM_COURSE};
+      int[] expectedCounts = {capacity, 0};
+      for (int phase = 0; phase < phases.length; phase++) {
+        Endpoint endpoint = phases[phase];
+        HttpRequest request = endpoint.request(server.getBaseUrl(), STORM_DEPT, STORM_COURSE);
+        List<CompletableFuture<Void>> responses = new ArrayList<>(clients);
+        long phaseStart = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+          responses.add(send(client, request, System.nanoTime(), stats.get(endpoint)));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+        durations[phase] = System.nanoTime() - phaseStart;
+
+        long succeeded = stats.get(endpoint).count(200);
+        int enrolled = course.getEnrolledStudentCount();
+        if (succeeded != Math.min(clients, capacity) || enrolled != expectedCounts[phase]) {
+          System.out.println("check=failed endpoint=" + endpoint.path + " succeeded=" + succeeded
+              + " enrolled=" + enrolled + " expectedEnrolled=" + expectedCounts[phase]);
+          passed = false;
+        }
+      }
+      clientExecutor.shutdownNow();
+
+      System.out.println("scenario=storm clients=" + clients + " capacity=" + capacity
+          + " passed=" + passed);
+      for (int phase = 0; phase < phases.length; phase++) {
+        System.out.println(stats.get(phases[phase]).report(durations[phase] / 1e9));
+      }
+    }
+    return passed;
+  }
+
+  /**
+   * Sends a request and records its outcome, unless no statistics are given.
+   */
+  private static CompletableFuture<Void> send(HttpClient client, HttpRequest request, long due,
+                                              EndpointStats stats) {
+    return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .handle((response, error) -> {
+          if (stats != null) {
+            long latency = System.nanoTime() - due;
+            if (error == null) {
+              stats.record(latency, response.statusCode());
+            } else {
+              stats.recordFailure(latency);
+            }
+          }
+          return null;
+        });
+  }
+
+  private static Map<Endpoint, Integer> parseMix(String mix) {
+    Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+    for (String part : mix.split(",")) {
+      String[] pair = part.trim().split(":");
+      int weight = Integer.parseInt(pair[1].trim());
+      if (weight > 0) {
+        weights.put(Endpoint.forPath(pair[0].trim()), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("The mix must give some endpoint a positive weight.");
+    }
+    return weights;
+  }
+
+  private static Map<Endpoint, EndpointStats> newStats(Endpoint[] endpoints) {
+    Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    for (Endpoint endpoint : endpoints) {
+      stats.put(endpoint, new EndpointStats(endpoint.path));
+    }
+    return stats;
+  }
+
+  private static Map<String, Department> generatedCatalog() {
+    int departments = Integer.getInteger("departments", 0);
+    if (departments <= 0) {
+      return null;
+    }
+    int coursesPerDepartment = Integer.getInteger("coursesPerDepartment", 100);
+    CatalogGenerator generator = new CatalogGenerator(
+        Long.getLong("seed", CatalogGenerator.DEFAULT_SEED));
+    Map<String, Department> catalog = new HashMap<>();
+    for (int i = 0; i < departments; i++) {
+      Department department = generator.generateDepartment(i, coursesPerDepartment);
+      catalog.put(department.getDeptCode(), department);
+    }
+    return catalog;
+  }
+
+  private static ExecutorService newClientExecutor() {
+    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  private static HttpClient newClient(ExecutorService executor) {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(executor)
+        .build();
+  }
+
+  private static final String STORM_DEPT = "COMS";
+  private static final String STORM_COURSE = "9999";
+}
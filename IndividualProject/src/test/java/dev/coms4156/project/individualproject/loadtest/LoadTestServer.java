@@ -0,0 +1,113 @@
+package dev.coms4156.project.individualproject.loadtest;
+
+import dev.coms4156.project.individualproject.Department;
+import dev.coms4156.project.individualproject.IndividualProjectApplication;
+import dev.coms4156.project.individualproject.MyFileDatabase;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the application in-process on a random port for load tests.
+ *
+ * <p>The application is started with the {@code setup} argument and its database is then
+ * replaced by one holding the requested catalog, whose mutation log lives in a temporary
+ * directory. Updates therefore wait for the disk as they do in production, but
+ * {@code data.txt} is never touched.
+ */
+public final class LoadTestServer implements AutoCloseable {
+
+  private LoadTestServer(ConfigurableApplicationContext context, MyFileDatabase database,
+                         Path dataDir) {
+    this.context = context;
+    this.database = database;
+    this.dataDir = dataDir;
+  }
+
+  /**
+   * Starts the application.
+   *
+   * @param catalog    the departments to serve, or null for the data created by {@code setup}
+   * @param properties additional Spring properties in {@code key=value} form
+   * @return the running server
+   * @throws IOException if the temporary directory or the mutation log cannot be created
+   */
+  public static LoadTestServer start(Map<String, Department> catalog, String... properties)
+      throws IOException {
+    Path dataDir = Files.createTempDirectory("load-test");
+    List<String> allProperties = new ArrayList<>(List.of(
+        "server.port=0",
+        "spring.main.banner-mode=off"));
+    allProperties.addAll(List.of(properties));
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        IndividualProjectApplication.class)
+        .properties(allProperties.toArray(new String[0]))
+        .run("setup");
+
+    MyFileDatabase database = new MyFileDatabase(1, dataDir.resolve("data.txt").toString());
+    database.setMapping(catalog != null
+        ? catalog : IndividualProjectApplication.myFileDatabase.getDepartmentMapping());
+    IndividualProjectApplication.overrideDatabase(database);
+    database.openMutationLog();
+    return new LoadTestServer(context, database, dataDir);
+  }
+
+  /**
+   * Gets the URL the application listens on.
+   *
+   * @return the base URL, without a trailing slash
+   */
+  public String getBaseUrl() {
+    return "http://localhost:"
+        + context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+  }
+
+  /**
+   * Gets the database served by the application.
+   *
+   * @return the database
+   */
+  public MyFileDatabase getDatabase() {
+    return this.database;
+  }
+
+  /**
+   * Lists the department code and course code of every course in the catalog.
+   *
+   * @return the pairs of department code and course code
+   */
+  public List<String[]> listCourses() {
+    List<String[]> courses = new ArrayList<>();
+    for (Map.Entry<String, Department> dept : database.getDepartmentMapping().entrySet()) {
+      for (String courseId : dept.getValue().getCourseSelection().keySet()) {
+        courses.add(new String[] {dept.getKey(), courseId});
+      }
+    }
+    return courses;
+  }
+
+  /**
+   * Stops the application and deletes its temporary files.
+   *
+   * @throws IOException if a temporary file cannot be deleted
+   */
+  @Override
+  public void close() throws IOException {
+    context.close();
+    try (Stream<Path> paths = Files.walk(dataDir)) {
+      for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private final ConfigurableApplicationContext context;
+  private final MyFileDatabase database;
+  private final Path dataDir;
+}
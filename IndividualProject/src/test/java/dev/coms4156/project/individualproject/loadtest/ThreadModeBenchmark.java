@@ -0,0 +1,161 @@
+package dev.coms4156.project.individualproject.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of the service when requests run on the Tomcat platform-thread pool
+ * and when they run on virtual threads.
+ *
+ * <p>For each mode the application is started by {@link LoadTestServer}, and a fixed number of
+ * clients issue requests back to back: mostly {@code /retrieveCourse} reads, plus a share of
+ * {@code /addMajorToDept} and {@code /removeMajorFromDept} updates that each wait for an fsync
+ * of the mutation log. Virtual threads need Java 21; on older runtimes that mode is skipped.
+ *
+ * <p>Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=dev.coms4156.project.individualproject.loadtest.ThreadModeBenchmark}.
+ * The system properties {@code clients} (10000), {@code warmupSeconds} (5), {@code seconds}
+ * (20) and {@code writePercent} (10) change the workload. Each mode prints one line of
+ * {@code key=value} pairs.
+ */
+public class ThreadModeBenchmark {
+
+  /**
+   * Runs the benchmark in both thread modes.
+   *
+   * @param args unused
+   * @throws Exception if the application cannot be started or the catalog cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    int clients = Integer.getInteger("clients", 10_000);
+    int warmupSeconds = Integer.getInteger("warmupSeconds", 5);
+    int seconds = Integer.getInteger("seconds", 20);
+    int writePercent = Integer.getInteger("writePercent", 10);
+
+    run(false, clients, warmupSeconds, seconds, writePercent);
+    if (Runtime.version().feature() >= 21) {
+      run(true, clients, warmupSeconds, seconds, writePercent);
+    } else {
+      System.out.println("mode=virtual skipped=true reason=requires-java-21");
+    }
+  }
+
+  private static void run(boolean virtual, int clients, int warmupSeconds, int seconds,
+                          int writePercent) throws Exception {
+    try (LoadTestServer server = LoadTestServer.start(null,
+        "spring.threads.virtual.enabled=" + virtual,
+        "server.tomcat.max-connections=" + (clients + 1000),
+        "server.tomcat.accept-count=" + clients)) {
+      Result result = drive(server.getBaseUrl(), server.listCourses(), clients,
+          warmupSeconds, seconds, writePercent);
+      System.out.printf("mode=%s clients=%d seconds=%d requests=%d errors=%d"
+              + " throughput=%.1f%n", virtual ? "virtual" : "platform", clients, seconds,
+          result.requests.get(), result.errors.get(), result.requests.get() / (double) seconds);
+    }
+  }
+
+  private static Result drive(String baseUrl, List<String[]> courses, int clients,
+                              int warmupSeconds, int seconds, int writePercent)
+      throws InterruptedException {
+    ExecutorService clientExecutor = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors());
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(clientExecutor)
+        .build();
+    long measureStart = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+    long deadline = measureStart + seconds * 1_000_000_000L;
+    Result result = new Result();
+    CountDownLatch finished = new CountDownLatch(clients);
+    for (int i = 0; i < clients; i++) {
+      new Client(client, baseUrl, courses, writePercent, measureStart, deadline, result,
+          finished).next();
+    }
+    finished.await();
+    clientExecutor.shutdownNow();
+    return result;
+  }
+
+  /**
+   * One simulated client, which sends its next request as soon as the previous one completes.
+   */
+  private static final class Client {
+
+    Client(HttpClient client, String baseUrl, List<String[]> courses, int writePercent,
+           long measureStart, long deadline, Result result, CountDownLatch finished) {
+      this.client = client;
+      this.baseUrl = baseUrl;
+      this.courses = courses;
+      this.writePercent = writePercent;
+      this.measureStart = measureStart;
+      this.deadline = deadline;
+      this.result = result;
+      this.finished = finished;
+    }
+
+    void next() {
+      if (System.nanoTime() >= deadline) {
+        finished.countDown();
+        return;
+      }
+      client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, error) -> {
+            long now = System.nanoTime();
+            if (now >= measureStart && now < deadline) {
+              result.record(error == null && response.statusCode() == 200);
+            }
+            next();
+          });
+    }
+
+    private HttpRequest nextRequest() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      String[] course = courses.get(random.nextInt(courses.size()));
+      if (random.nextInt(100) < writePercent) {
+        // Alternate so the number of majors stays put over the run.
+        String endpoint = addNext ? "/addMajorToDept" : "/removeMajorFromDept";
+        addNext = !addNext;
+        return HttpRequest.newBuilder(URI.create(baseUrl + endpoint + "?deptCode=" + course[0]))
+            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+            .build();
+      }
+      return HttpRequest.newBuilder(URI.create(baseUrl + "/retrieveCourse?deptCode=" + course[0]
+          + "&courseCode=" + course[1])).GET().build();
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String[]> courses;
+    private final int writePercent;
+    private final long measureStart;
+    private final long deadline;
+    private final Result result;
+    private final CountDownLatch finished;
+    private boolean addNext = true;
+  }
+
+  /**
+   * The requests completed during the measurement window.
+   */
+  private static final class Result {
+
+    void record(boolean success) {
+      if (success) {
+        requests.incrementAndGet();
+      } else {
+        errors.incrementAndGet();
+      }
+    }
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+  }
+}